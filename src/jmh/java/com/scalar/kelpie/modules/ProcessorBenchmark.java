@@ -0,0 +1,132 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ProcessorBenchmark measures the overhead of {@link TimeBasedProcessor#execute()} and {@link
+ * FrequencyBasedProcessor#execute()} per operation with an {@code executeEach()} which does
+ * nothing. The overhead includes checking the phase, measuring the latency and recording it to
+ * {@link Stats}.
+ */
+public class ProcessorBenchmark {
+  private static final int NUM_OPERATIONS = 1_000_000;
+
+  @State(Scope.Thread)
+  public static class FrequencyBasedState {
+    Config config;
+    Stats stats;
+    NoopFrequencyBasedProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+      config = new Config("[common]\n" + "num_operations = " + NUM_OPERATIONS);
+      stats = new Stats(config);
+      processor = new NoopFrequencyBasedProcessor(config);
+      processor.setStats(stats);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+      processor.setPhaseClock(new PhaseClock(config, stats, 1, false));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class TimeBasedState {
+    Config config;
+    Stats stats;
+    NoopTimeBasedProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+      config = new Config("[common]\n" + "run_for_sec = 1");
+      stats = new Stats(config);
+      processor = new NoopTimeBasedProcessor(config);
+      processor.setStats(stats);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+      processor.setPhaseClock(new PhaseClock(config, stats, 1, true));
+      processor.count = 0L;
+    }
+  }
+
+  /** The number of operations executed by {@link TimeBasedProcessor} in each iteration. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class OperationCounter {
+    public long operations;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @OperationsPerInvocation(NUM_OPERATIONS)
+  public void frequencyBased(FrequencyBasedState state) {
+    execute(state.processor);
+  }
+
+  /**
+   * Executes {@link TimeBasedProcessor} for a second. The overhead is the inverse of {@code
+   * operations} reported as a secondary result.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void timeBased(TimeBasedState state, OperationCounter counter) {
+    execute(state.processor);
+    counter.operations += state.processor.count;
+  }
+
+  private static void execute(Processor processor) {
+    PhaseClock clock = processor.getPhaseClock();
+    clock.arrive();
+    try {
+      processor.execute();
+    } finally {
+      clock.leave();
+    }
+  }
+
+  static class NoopFrequencyBasedProcessor extends FrequencyBasedProcessor {
+    NoopFrequencyBasedProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    protected void executeEach() {}
+
+    @Override
+    public void close() {}
+  }
+
+  static class NoopTimeBasedProcessor extends TimeBasedProcessor {
+    long count = 0L;
+
+    NoopTimeBasedProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    protected void executeEach() {
+      count++;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,100 @@
+package com.scalar.kelpie.stats;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.executor.ProcessTimer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * StatsBenchmark measures the throughput of {@link Stats#recordLatency(long, TimeUnit)} from 1 to
+ * 256 threads sharing a {@code Stats}. With {@code reporting}, {@link Stats.RealtimeReport} takes
+ * the interval statistics every 100 milliseconds, which is the shortest {@code report_interval_ms},
+ * to measure its interference with the recording threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatsBenchmark {
+  private static final int MAX_THREADS = 256;
+  private static final long REPORT_INTERVAL_MILLIS = 100L;
+
+  @State(Scope.Benchmark)
+  public static class SharedStats {
+    @Param({"false", "true"})
+    public boolean reporting;
+
+    Stats stats;
+    ProcessTimer timer;
+    Stats.RealtimeReport report;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      stats = new Stats(new Config("[common]\n" + "concurrency = " + MAX_THREADS));
+      stats.start();
+      if (reporting) {
+        timer = new ProcessTimer();
+        report = stats.new RealtimeReport();
+        timer.scheduleAligned(report::tick, REPORT_INTERVAL_MILLIS);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      if (reporting) {
+        timer.close();
+        report.close();
+      }
+      stats.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Latency {
+    long nanos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      // Latencies from 1 us to about 1 ms with a different value for each thread
+      nanos = 1000L + (Thread.currentThread().getId() * 7919L) % 1_000_000L;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void recordLatency_1(SharedStats shared, Latency latency) {
+    shared.stats.recordLatency(latency.nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void recordLatency_4(SharedStats shared, Latency latency) {
+    shared.stats.recordLatency(latency.nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void recordLatency_16(SharedStats shared, Latency latency) {
+    shared.stats.recordLatency(latency.nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void recordLatency_64(SharedStats shared, Latency latency) {
+    shared.stats.recordLatency(latency.nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Benchmark
+  @Threads(MAX_THREADS)
+  public void recordLatency_256(SharedStats shared, Latency latency) {
+    shared.stats.recordLatency(latency.nanos, TimeUnit.NANOSECONDS);
+  }
+}
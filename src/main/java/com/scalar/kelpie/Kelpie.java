@@ -3,8 +3,11 @@ package com.scalar.kelpie;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.executor.KelpieAgent;
 import com.scalar.kelpie.executor.KelpieExecutor;
 import java.io.File;
+import java.net.InetAddress;
+import java.util.List;
 import java.util.concurrent.Callable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +23,7 @@ public class Kelpie implements Callable {
 
   @CommandLine.Option(
       names = {"--config"},
-      required = true,
+      required = false,
       paramLabel = "<CONFIG_FILE>",
       description = "A config file of a job")
   private String configPath;
@@ -67,6 +70,35 @@ public class Kelpie implements Callable {
       description = "Execute the injectors")
   private boolean injected = false;
 
+  @CommandLine.Option(
+      names = {"--resume"},
+      required = false,
+      description = "Resume the pre-process from the checkpoint")
+  private boolean resumed = false;
+
+  @CommandLine.Option(
+      names = {"--agent"},
+      required = false,
+      paramLabel = "<PORT>",
+      description = "Run as an agent which executes the process for a coordinator")
+  private Integer agentPort;
+
+  @CommandLine.Option(
+      names = {"--agent-bind"},
+      required = false,
+      paramLabel = "<ADDRESS>",
+      defaultValue = "127.0.0.1",
+      description = "An address which the agent listens on (default: ${DEFAULT-VALUE})")
+  private InetAddress agentBindAddress;
+
+  @CommandLine.Option(
+      names = {"--agents"},
+      required = false,
+      split = ",",
+      paramLabel = "<HOST:PORT>",
+      description = "Agents which execute the process instead of this process")
+  private List<String> agents;
+
   public static void main(String[] args) {
     int exitCode = new CommandLine(new Kelpie()).execute(args);
     System.exit(exitCode);
@@ -74,6 +106,12 @@ public class Kelpie implements Callable {
 
   @Override
   public Void call() {
+    if (agentPort != null) {
+      LOGGER.info("Starting an agent...");
+      new KelpieAgent(agentBindAddress, agentPort, System.getenv(KelpieAgent.SECRET_ENV)).run();
+      return null;
+    }
+
     LOGGER.info("Checking a job config...");
     Config config = setupConfig();
 
@@ -98,6 +136,10 @@ public class Kelpie implements Callable {
       throw new IllegalArgumentException("You can use either --only-* or --except-* option");
     }
 
+    if (configPath == null) {
+      throw new IllegalArgumentException("--config is required");
+    }
+
     Config config = new Config(new File(configPath));
     if (onlyPre) {
       config.enablePreProcessor(true);
@@ -131,6 +173,14 @@ public class Kelpie implements Callable {
       config.enableInjector();
     }
 
+    if (resumed) {
+      config.enableResume();
+    }
+
+    if (agents != null) {
+      config.setAgents(agents);
+    }
+
     return config;
   }
 }
@@ -1,12 +1,19 @@
 package com.scalar.kelpie.config;
 
 import com.moandjiezana.toml.Toml;
+import com.moandjiezana.toml.TomlWriter;
 import com.scalar.kelpie.exception.IllegalConfigException;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.Immutable;
 
 /** Configuration for Kelpie and a job. */
@@ -14,6 +21,12 @@ import javax.annotation.concurrent.Immutable;
 public class Config {
   private final String DEFAULT_INJECTION_EXECUTOR =
       "com.scalar.kelpie.executor.RandomInjectionExecutor";
+  public static final String FIXED_ARRIVAL = "fixed";
+  public static final String POISSON_ARRIVAL = "poisson";
+  public static final String PLATFORM_EXECUTION = "platform";
+  public static final String VIRTUAL_EXECUTION = "virtual";
+  public static final String FIXED_WARMUP = "fixed";
+  public static final String ADAPTIVE_WARMUP = "adaptive";
   private final Toml toml;
 
   private Optional<String> preProcessorName = Optional.empty();
@@ -24,6 +37,7 @@ public class Config {
   private Optional<String> postProcessorPath = Optional.empty();
   private Optional<String> injectionExecutor = Optional.empty();
   private final Map<String, String> injectors = new HashMap<>();
+  private final Map<String, InjectionSchedule> injectionSchedules = new HashMap<>();
   private boolean preProcessorEnabled = false;
   private boolean processorEnabled = false;
   private boolean postProcessorEnabled = false;
@@ -31,14 +45,59 @@ public class Config {
 
   private long significantDigits = 3L;
   private boolean realtimeReportEnabled = false;
+  private long reportIntervalMillis = 1000L;
+  private List<String> reporters = Collections.singletonList("log");
+  private String reportCsvFile = "kelpie_report.csv";
+  private String reportJsonLinesFile = "kelpie_report.jsonl";
+  private String prometheusHost = "127.0.0.1";
+  private long prometheusPort = 9464L;
   private boolean latencyLogEnabled = false;
+  private String latencyLogFile = "kelpie_latency.csv";
+  private long latencyLogBufferSize = 65536L;
+  private TimeUnit latencyUnit = TimeUnit.MILLISECONDS;
+  private Optional<String> histogramLogFile = Optional.empty();
+  private List<String> operationTypes = Collections.emptyList();
+  private Optional<String> resultFile = Optional.empty();
+  private String resultFormat = "json";
+  private Optional<String> baselineFile = Optional.empty();
+  private long throughputTolerance = 10L;
+  private long latencyTolerance = 10L;
+  private long degradationThreshold = 20L;
 
   private long concurrency = 1L;
   private long runForSec = 60L;
   private long rampForSec = 0L;
   private long numOperations = 0L;
   private long numOperationsForRampUp = 0L;
+  private long targetRate = 0L;
+  private long seed = ThreadLocalRandom.current().nextLong();
+  private String arrivalDistribution = FIXED_ARRIVAL;
+  private String executionMode = PLATFORM_EXECUTION;
+  private long maxInFlight = 1L;
+  private String warmupMode = FIXED_WARMUP;
+  private long warmupTolerance = 5L;
+  private long warmupStableIntervals = 3L;
+  private long warmupMaxSec = 300L;
   private boolean logEnabledWhenError;
+  private String checkpointFile = "kelpie_checkpoint.json";
+  private boolean resumeEnabled = false;
+  private String stateDir = "kelpie_state";
+  private List<LoadStage> loadStages = Collections.emptyList();
+  private List<String> agents = Collections.emptyList();
+  private boolean saturationSearchEnabled = false;
+  private long saturationMinRate = 1L;
+  private long saturationMaxRate = 0L;
+  private long saturationRateResolution = 0L;
+  private long saturationStepDurationSec = 30L;
+  private double sloPercentile = 99.0;
+  private Optional<Double> sloLatencyMillis = Optional.empty();
+  private double sloErrorRatePercent = 0.1;
+  private double sloMinAchievedPercent = 95.0;
+  private long partitionConcurrency = 1L;
+  private long numPartitions = 0L;
+  private long partitionMaxRetries = 3L;
+  private long partitionProgressIntervalSec = 10L;
+  private String mismatchReportFile = "kelpie_mismatches.csv";
 
   /**
    * Constructs a {@code Config} with toml format text.
@@ -68,6 +127,9 @@ public class Config {
     loadModuleConfig();
     loadCommonConfig();
     loadStatsConfig();
+    loadLoadProfileConfig();
+    loadSaturationConfig();
+    loadPartitionConfig();
   }
 
   /**
@@ -79,6 +141,15 @@ public class Config {
     return toml;
   }
 
+  /**
+   * Returns the TOML text of this {@code Config}.
+   *
+   * @return TOML text
+   */
+  public String getTomlText() {
+    return new TomlWriter().write(toml.toMap());
+  }
+
   /**
    * Returns a {@link com.scalar.kelpie.modules.PreProcessor} name in this {@code Config}.
    *
@@ -142,6 +213,19 @@ public class Config {
     return injectors;
   }
 
+  /**
+   * Returns the schedule of an {@link com.scalar.kelpie.modules.Injector} defined with {@code
+   * start_offset_sec}, {@code duration_sec}, {@code repeat_interval_sec} and {@code jitter_sec} in
+   * {@code [[modules.injectors]]}.
+   *
+   * @param name the name of the injector
+   * @return {@link InjectionSchedule}, which has the default values if the injector doesn't define
+   *     them
+   */
+  public InjectionSchedule getInjectionSchedule(String name) {
+    return injectionSchedules.getOrDefault(name, new InjectionSchedule(0L, 10L, 0L, 0L));
+  }
+
   /**
    * Returns a concurrency.
    *
@@ -187,6 +271,279 @@ public class Config {
     return numOperationsForRampUp;
   }
 
+  /**
+   * Returns the target rate of operations per second for all threads. It is used by {@link
+   * com.scalar.kelpie.modules.RateBasedProcessor}.
+   *
+   * @return target rate (operations per second), or 0 if it isn't specified
+   */
+  public long getTargetRate() {
+    return targetRate;
+  }
+
+  /**
+   * Returns the seed of random numbers of the job. A random seed is chosen if {@code seed} isn't
+   * specified, and it is logged and exported with the result so that the job can be reproduced.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Sets the seed of random numbers of the job. It is used to give a different seed to each agent.
+   *
+   * @param seed a seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Returns the distribution of arrival times of operations for {@link
+   * com.scalar.kelpie.modules.RateBasedProcessor}.
+   *
+   * @return {@code "fixed"} or {@code "poisson"}
+   */
+  public String getArrivalDistribution() {
+    return arrivalDistribution;
+  }
+
+  /**
+   * Returns the kind of threads which execute {@link com.scalar.kelpie.modules.Processor}.
+   *
+   * @return {@code "platform"} or {@code "virtual"}
+   */
+  public String getExecutionMode() {
+    return executionMode;
+  }
+
+  /**
+   * Returns the maximum number of in-flight operations per thread for {@link
+   * com.scalar.kelpie.modules.AsyncProcessor}.
+   *
+   * @return the maximum number of in-flight operations per thread
+   */
+  public long getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Returns how long ramp-up operations are executed. With {@code "fixed"}, they are executed for
+   * {@code ramp_for_sec} or by {@code num_operations_for_ramp}. With {@code "adaptive"}, they are
+   * executed until the throughput and the latency become stable.
+   *
+   * @return {@code "fixed"} or {@code "adaptive"}
+   */
+  public String getWarmupMode() {
+    return warmupMode;
+  }
+
+  /**
+   * Returns the maximum change of the throughput and the 99th percentile latency between intervals
+   * to regard them as stable in the adaptive warm-up.
+   *
+   * @return tolerance in percent
+   */
+  public long getWarmupTolerance() {
+    return warmupTolerance;
+  }
+
+  /**
+   * Returns the number of consecutive stable intervals to finish the adaptive warm-up.
+   *
+   * @return the number of intervals
+   */
+  public long getWarmupStableIntervals() {
+    return warmupStableIntervals;
+  }
+
+  /**
+   * Returns the maximum time of the adaptive warm-up in seconds.
+   *
+   * @return the maximum time in seconds
+   */
+  public long getWarmupMaxSec() {
+    return warmupMaxSec;
+  }
+
+  /**
+   * Returns the path of the file to which the progress of {@link
+   * com.scalar.kelpie.modules.PreProcessor} is saved.
+   *
+   * @return the path of the checkpoint file
+   */
+  public String getCheckpointFile() {
+    return checkpointFile;
+  }
+
+  /**
+   * Returns the directory where {@link com.scalar.kelpie.state.RecordStore}s are stored.
+   *
+   * @return the path of the state directory
+   */
+  public String getStateDir() {
+    return stateDir;
+  }
+
+  /**
+   * Returns true if {@link com.scalar.kelpie.modules.PreProcessor} resumes from the checkpoint.
+   *
+   * @return true if the pre-process resumes
+   */
+  public boolean isResumeEnabled() {
+    return resumeEnabled;
+  }
+
+  /**
+   * Returns the stages of the load profile defined with {@code [[load_profile.stages]]}.
+   *
+   * @return a list of {@link LoadStage}s, or an empty list if the load profile isn't defined
+   */
+  public List<LoadStage> getLoadStages() {
+    return loadStages;
+  }
+
+  /**
+   * Returns the maximum number of threads executing the processor at the same time. It is {@code
+   * concurrency}, or the largest concurrency of the stages if the load profile is defined.
+   *
+   * @return the maximum concurrency
+   */
+  public long getMaxConcurrency() {
+    return loadStages.stream().mapToLong(LoadStage::getConcurrency).max().orElse(concurrency);
+  }
+
+  /**
+   * Returns true if the saturation search is enabled with {@code [saturation]}.
+   *
+   * @return true if the saturation search is enabled
+   */
+  public boolean isSaturationSearchEnabled() {
+    return saturationSearchEnabled;
+  }
+
+  /**
+   * Returns the lowest rate which the saturation search tries.
+   *
+   * @return the lowest rate (operations per second)
+   */
+  public long getSaturationMinRate() {
+    return saturationMinRate;
+  }
+
+  /**
+   * Returns the highest rate which the saturation search tries.
+   *
+   * @return the highest rate (operations per second)
+   */
+  public long getSaturationMaxRate() {
+    return saturationMaxRate;
+  }
+
+  /**
+   * Returns the resolution of the rate found by the saturation search. The search finishes when
+   * the range of the rate becomes narrower than it.
+   *
+   * @return the resolution of the rate (operations per second)
+   */
+  public long getSaturationRateResolution() {
+    return saturationRateResolution;
+  }
+
+  /**
+   * Returns the duration of each step of the saturation search.
+   *
+   * @return the duration in seconds
+   */
+  public long getSaturationStepDurationSec() {
+    return saturationStepDurationSec;
+  }
+
+  /**
+   * Returns the percentile of the latency checked against the SLO.
+   *
+   * @return the percentile
+   */
+  public double getSloPercentile() {
+    return sloPercentile;
+  }
+
+  /**
+   * Returns the maximum latency at {@code slo_percentile} allowed by the SLO.
+   *
+   * @return an {@code Optional} with the maximum latency in milliseconds
+   */
+  public Optional<Double> getSloLatencyMillis() {
+    return sloLatencyMillis;
+  }
+
+  /**
+   * Returns the maximum rate of failed operations allowed by the SLO.
+   *
+   * @return the maximum error rate in percent
+   */
+  public double getSloErrorRatePercent() {
+    return sloErrorRatePercent;
+  }
+
+  /**
+   * Returns the minimum ratio of the achieved throughput to the offered rate required by the SLO.
+   *
+   * @return the minimum ratio in percent
+   */
+  public double getSloMinAchievedPercent() {
+    return sloMinAchievedPercent;
+  }
+
+  /**
+   * Returns the number of threads processing partitions in parallel, for example, in {@link
+   * com.scalar.kelpie.modules.PartitionedPreProcessor}.
+   *
+   * @return the number of threads
+   */
+  public long getPartitionConcurrency() {
+    return partitionConcurrency;
+  }
+
+  /**
+   * Returns the number of partitions into which a key range is split.
+   *
+   * @return the number of partitions
+   */
+  public long getNumPartitions() {
+    return numPartitions;
+  }
+
+  /**
+   * Returns the maximum number of retries of a failed partition.
+   *
+   * @return the maximum number of retries
+   */
+  public long getPartitionMaxRetries() {
+    return partitionMaxRetries;
+  }
+
+  /**
+   * Returns the interval of the progress report of partitions.
+   *
+   * @return the interval in seconds
+   */
+  public long getPartitionProgressIntervalSec() {
+    return partitionProgressIntervalSec;
+  }
+
+  /**
+   * Returns the path of the file to which mismatches found by {@link
+   * com.scalar.kelpie.modules.VerificationPostProcessor} are written.
+   *
+   * @return the path of the mismatch report
+   */
+  public String getMismatchReportFile() {
+    return mismatchReportFile;
+  }
+
   /**
    * Returns an {@link com.scalar.kelpie.executor.InjectionExecutor} name.
    *
@@ -214,6 +571,108 @@ public class Config {
     return significantDigits;
   }
 
+  /**
+   * Returns a file path of the latency log.
+   *
+   * @return a file path of the latency log
+   */
+  public String getLatencyLogFile() {
+    return latencyLogFile;
+  }
+
+  /**
+   * Returns the number of latency records which can be buffered before they are written to the
+   * latency log.
+   *
+   * @return the buffer size of the latency log
+   */
+  public long getLatencyLogBufferSize() {
+    return latencyLogBufferSize;
+  }
+
+  /**
+   * Returns a file path of the HdrHistogram interval log.
+   *
+   * @return an {@code Optional} with a file path of the interval log
+   */
+  public Optional<String> getHistogramLogFile() {
+    return histogramLogFile;
+  }
+
+  /**
+   * Returns operation types whose statistics are recorded separately by {@link
+   * com.scalar.kelpie.stats.Stats}.
+   *
+   * @return a list of operation types
+   */
+  public List<String> getOperationTypes() {
+    return operationTypes;
+  }
+
+  /**
+   * Returns a file path to which the result of the process is exported.
+   *
+   * @return an {@code Optional} with a file path of the result
+   */
+  public Optional<String> getResultFile() {
+    return resultFile;
+  }
+
+  /**
+   * Returns the format of the exported result.
+   *
+   * @return {@code "json"} or {@code "csv"}
+   */
+  public String getResultFormat() {
+    return resultFormat;
+  }
+
+  /**
+   * Returns a file path of the result of a previous run to compare with.
+   *
+   * @return an {@code Optional} with a file path of the baseline result
+   */
+  public Optional<String> getBaselineFile() {
+    return baselineFile;
+  }
+
+  /**
+   * Returns the allowed decrease of the throughput from the baseline.
+   *
+   * @return tolerance in percent
+   */
+  public long getThroughputTolerance() {
+    return throughputTolerance;
+  }
+
+  /**
+   * Returns the allowed increase of latencies from the baseline.
+   *
+   * @return tolerance in percent
+   */
+  public long getLatencyTolerance() {
+    return latencyTolerance;
+  }
+
+  /**
+   * Returns the decrease of the throughput from the baseline with which a reporting interval is
+   * regarded as degraded.
+   *
+   * @return threshold in percent
+   */
+  public long getDegradationThreshold() {
+    return degradationThreshold;
+  }
+
+  /**
+   * Returns the time unit of latencies reported by {@link com.scalar.kelpie.stats.Stats}.
+   *
+   * @return {@code TimeUnit} of reported latencies
+   */
+  public TimeUnit getLatencyUnit() {
+    return latencyUnit;
+  }
+
   /**
    * Returns true if a {@link com.scalar.kelpie.modules.PreProcessor} is enabled.
    *
@@ -259,6 +718,61 @@ public class Config {
     return realtimeReportEnabled;
   }
 
+  /**
+   * Returns the interval of the realtime report.
+   *
+   * @return the interval in milliseconds
+   */
+  public long getReportIntervalMillis() {
+    return reportIntervalMillis;
+  }
+
+  /**
+   * Returns the names of {@link com.scalar.kelpie.stats.Reporter}s which output the realtime
+   * report. A name is {@code log}, {@code csv}, {@code jsonl}, {@code prometheus} or a class name.
+   *
+   * @return a list of reporter names
+   */
+  public List<String> getReporters() {
+    return reporters;
+  }
+
+  /**
+   * Returns the file to which the {@code csv} reporter writes.
+   *
+   * @return the file name
+   */
+  public String getReportCsvFile() {
+    return reportCsvFile;
+  }
+
+  /**
+   * Returns the file to which the {@code jsonl} reporter writes.
+   *
+   * @return the file name
+   */
+  public String getReportJsonLinesFile() {
+    return reportJsonLinesFile;
+  }
+
+  /**
+   * Returns the address on which the {@code prometheus} reporter exposes metrics.
+   *
+   * @return the host name or the IP address
+   */
+  public String getPrometheusHost() {
+    return prometheusHost;
+  }
+
+  /**
+   * Returns the HTTP port on which the {@code prometheus} reporter exposes metrics.
+   *
+   * @return the port number
+   */
+  public long getPrometheusPort() {
+    return prometheusPort;
+  }
+
   /**
    * Returns true if output of each latency is enabled
    *
@@ -300,6 +814,43 @@ public class Config {
     injectorEnabled = true;
   }
 
+  /** Makes {@link com.scalar.kelpie.modules.PreProcessor} resume from the checkpoint. */
+  public void enableResume() {
+    resumeEnabled = true;
+  }
+
+  /**
+   * Sets the addresses of agents which execute {@link com.scalar.kelpie.modules.Processor}
+   * instead of this process.
+   *
+   * @param agents a list of agent addresses in the form of {@code host:port}
+   */
+  public void setAgents(List<String> agents) {
+    this.agents = Collections.unmodifiableList(new ArrayList<>(agents));
+  }
+
+  /**
+   * Returns the addresses of agents which execute {@link com.scalar.kelpie.modules.Processor}.
+   *
+   * @return a list of agent addresses, or an empty list if the process runs locally
+   */
+  public List<String> getAgents() {
+    return agents;
+  }
+
+  /**
+   * Disables the outputs of {@link com.scalar.kelpie.stats.Stats} to files such as the latency log,
+   * the histogram log, the result file and the realtime reporters except {@code log}. It is used
+   * by an agent whose statistics are merged into those of the coordinator.
+   */
+  public void disableStatsOutputs() {
+    latencyLogEnabled = false;
+    histogramLogFile = Optional.empty();
+    resultFile = Optional.empty();
+    reporters =
+        reporters.contains("log") ? Collections.singletonList("log") : Collections.emptyList();
+  }
+
   /** Sets all modules enable. */
   public void enableAllProcessors() {
     enablePreProcessor(true);
@@ -471,6 +1022,7 @@ public class Config {
       injectorsTable.forEach(
           i -> {
             injectors.put(i.getString("name"), i.getString("path"));
+            injectionSchedules.put(i.getString("name"), loadInjectionSchedule(i));
           });
     }
   }
@@ -484,6 +1036,9 @@ public class Config {
         throw new IllegalConfigException("common.concurrency should be positive");
       }
     }
+    if (common.getLong("seed") != null) {
+      seed = common.getLong("seed");
+    }
     if (common.getLong("run_for_sec") != null) {
       runForSec = common.getLong("run_for_sec");
       if (runForSec < 0) {
@@ -508,6 +1063,63 @@ public class Config {
         throw new IllegalConfigException("common.num_operations_for_ramp can not be negative");
       }
     }
+    if (common.getLong("target_rate") != null) {
+      targetRate = common.getLong("target_rate");
+      if (targetRate <= 0) {
+        throw new IllegalConfigException("common.target_rate should be positive");
+      }
+    }
+    if (common.getString("arrival_distribution") != null) {
+      arrivalDistribution = common.getString("arrival_distribution");
+      if (!arrivalDistribution.equals(FIXED_ARRIVAL)
+          && !arrivalDistribution.equals(POISSON_ARRIVAL)) {
+        throw new IllegalConfigException(
+            "common.arrival_distribution should be \"fixed\" or \"poisson\"");
+      }
+    }
+    if (common.getString("execution_mode") != null) {
+      executionMode = common.getString("execution_mode");
+      if (!executionMode.equals(PLATFORM_EXECUTION) && !executionMode.equals(VIRTUAL_EXECUTION)) {
+        throw new IllegalConfigException(
+            "common.execution_mode should be \"platform\" or \"virtual\"");
+      }
+    }
+    if (common.getLong("max_in_flight") != null) {
+      maxInFlight = common.getLong("max_in_flight");
+      if (maxInFlight <= 0 || maxInFlight > Integer.MAX_VALUE) {
+        throw new IllegalConfigException("common.max_in_flight should be a positive integer");
+      }
+    }
+    if (common.getString("warmup_mode") != null) {
+      warmupMode = common.getString("warmup_mode");
+      if (!warmupMode.equals(FIXED_WARMUP) && !warmupMode.equals(ADAPTIVE_WARMUP)) {
+        throw new IllegalConfigException("common.warmup_mode should be \"fixed\" or \"adaptive\"");
+      }
+    }
+    if (common.getLong("warmup_tolerance_percent") != null) {
+      warmupTolerance = common.getLong("warmup_tolerance_percent");
+      if (warmupTolerance < 0) {
+        throw new IllegalConfigException("common.warmup_tolerance_percent can not be negative");
+      }
+    }
+    if (common.getLong("warmup_stable_intervals") != null) {
+      warmupStableIntervals = common.getLong("warmup_stable_intervals");
+      if (warmupStableIntervals <= 0) {
+        throw new IllegalConfigException("common.warmup_stable_intervals should be positive");
+      }
+    }
+    if (common.getLong("warmup_max_sec") != null) {
+      warmupMaxSec = common.getLong("warmup_max_sec");
+      if (warmupMaxSec <= 0) {
+        throw new IllegalConfigException("common.warmup_max_sec should be positive");
+      }
+    }
+    if (common.getString("checkpoint_file") != null) {
+      checkpointFile = common.getString("checkpoint_file");
+    }
+    if (common.getString("state_dir") != null) {
+      stateDir = common.getString("state_dir");
+    }
     if (common.getString("injection_executor") != null) {
       injectionExecutor = Optional.of(common.getString("injection_executor"));
     } else {
@@ -530,6 +1142,43 @@ public class Config {
       realtimeReportEnabled = stats.getBoolean("realtime_report_enabled");
     }
 
+    if (stats.getLong("report_interval_ms") != null) {
+      reportIntervalMillis = stats.getLong("report_interval_ms");
+      if (reportIntervalMillis < 100) {
+        throw new IllegalConfigException("stats.report_interval_ms should be at least 100");
+      }
+    }
+
+    List<String> reporterNames = stats.getList("reporters");
+    if (reporterNames != null) {
+      if (reporterNames.contains("")) {
+        throw new IllegalConfigException("stats.reporters should be non-empty names");
+      }
+      reporters = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(reporterNames)));
+    }
+
+    if (stats.getString("report_csv_file") != null) {
+      reportCsvFile = stats.getString("report_csv_file");
+    }
+
+    if (stats.getString("report_jsonl_file") != null) {
+      reportJsonLinesFile = stats.getString("report_jsonl_file");
+    }
+
+    if (stats.getString("prometheus_host") != null) {
+      prometheusHost = stats.getString("prometheus_host");
+      if (prometheusHost.isEmpty()) {
+        throw new IllegalConfigException("stats.prometheus_host can not be empty");
+      }
+    }
+
+    if (stats.getLong("prometheus_port") != null) {
+      prometheusPort = stats.getLong("prometheus_port");
+      if (prometheusPort <= 0 || prometheusPort > 65535) {
+        throw new IllegalConfigException("stats.prometheus_port should be between 1 and 65535");
+      }
+    }
+
     if (stats.getLong("significant_digits") != null) {
       significantDigits = stats.getLong("significant_digits");
     }
@@ -537,5 +1186,234 @@ public class Config {
     if (stats.getBoolean("latency_log_enabled") != null) {
       latencyLogEnabled = stats.getBoolean("latency_log_enabled");
     }
+
+    if (stats.getString("latency_log_file") != null) {
+      latencyLogFile = stats.getString("latency_log_file");
+    }
+
+    if (stats.getLong("latency_log_buffer_size") != null) {
+      latencyLogBufferSize = stats.getLong("latency_log_buffer_size");
+      if (latencyLogBufferSize <= 0 || latencyLogBufferSize > (1L << 30)) {
+        throw new IllegalConfigException(
+            "stats.latency_log_buffer_size should be positive and at most 2^30");
+      }
+    }
+
+    if (stats.getString("histogram_log_file") != null) {
+      histogramLogFile = Optional.of(stats.getString("histogram_log_file"));
+    }
+
+    List<String> types = stats.getList("operation_types");
+    if (types != null) {
+      if (types.contains("") || new HashSet<>(types).size() != types.size()) {
+        throw new IllegalConfigException("stats.operation_types should be unique non-empty names");
+      }
+      operationTypes = Collections.unmodifiableList(new ArrayList<>(types));
+    }
+
+    if (stats.getString("result_file") != null) {
+      resultFile = Optional.of(stats.getString("result_file"));
+    }
+
+    if (stats.getString("result_format") != null) {
+      resultFormat = stats.getString("result_format");
+      if (!resultFormat.equals("json") && !resultFormat.equals("csv")) {
+        throw new IllegalConfigException("stats.result_format should be \"json\" or \"csv\"");
+      }
+    }
+
+    if (stats.getString("baseline_file") != null) {
+      baselineFile = Optional.of(stats.getString("baseline_file"));
+    }
+
+    if (stats.getLong("throughput_tolerance_percent") != null) {
+      throughputTolerance = stats.getLong("throughput_tolerance_percent");
+      if (throughputTolerance < 0 || throughputTolerance > 100) {
+        throw new IllegalConfigException(
+            "stats.throughput_tolerance_percent should be between 0 and 100");
+      }
+    }
+
+    if (stats.getLong("latency_tolerance_percent") != null) {
+      latencyTolerance = stats.getLong("latency_tolerance_percent");
+      if (latencyTolerance < 0) {
+        throw new IllegalConfigException("stats.latency_tolerance_percent should not be negative");
+      }
+    }
+
+    if (stats.getLong("degradation_threshold_percent") != null) {
+      degradationThreshold = stats.getLong("degradation_threshold_percent");
+      if (degradationThreshold < 0 || degradationThreshold > 100) {
+        throw new IllegalConfigException(
+            "stats.degradation_threshold_percent should be between 0 and 100");
+      }
+    }
+
+    if (stats.getString("latency_unit") != null) {
+      switch (stats.getString("latency_unit")) {
+        case "ns":
+          latencyUnit = TimeUnit.NANOSECONDS;
+          break;
+        case "us":
+          latencyUnit = TimeUnit.MICROSECONDS;
+          break;
+        case "ms":
+          latencyUnit = TimeUnit.MILLISECONDS;
+          break;
+        default:
+          throw new IllegalConfigException(
+              "stats.latency_unit should be \"ns\", \"us\" or \"ms\"");
+      }
+    }
+  }
+
+  private void loadLoadProfileConfig() {
+    Toml profile = toml.getTable("load_profile");
+    if (profile == null) {
+      return;
+    }
+
+    List<Toml> tables = profile.getTables("stages");
+    if (tables == null || tables.isEmpty()) {
+      throw new IllegalConfigException("load_profile.stages should have at least one stage");
+    }
+
+    List<LoadStage> stages = new ArrayList<>();
+    for (Toml table : tables) {
+      String name = table.getString("name", "stage-" + (stages.size() + 1));
+      long stageConcurrency = table.getLong("concurrency", concurrency);
+      long stageTargetRate = table.getLong("target_rate", targetRate);
+      Long durationSec = table.getLong("duration_sec");
+      if (stageConcurrency <= 0 || stageConcurrency > Integer.MAX_VALUE) {
+        throw new IllegalConfigException(
+            "concurrency of load_profile.stages should be a positive integer");
+      }
+      if (stageTargetRate < 0) {
+        throw new IllegalConfigException("target_rate of load_profile.stages can not be negative");
+      }
+      if (durationSec == null || durationSec <= 0) {
+        throw new IllegalConfigException("duration_sec of load_profile.stages should be positive");
+      }
+      stages.add(new LoadStage(name, stageConcurrency, stageTargetRate, durationSec));
+    }
+    loadStages = Collections.unmodifiableList(stages);
+  }
+
+  private void loadSaturationConfig() {
+    Toml saturation = toml.getTable("saturation");
+    if (saturation == null) {
+      return;
+    }
+    saturationSearchEnabled = true;
+
+    if (saturation.getLong("min_rate") != null) {
+      saturationMinRate = saturation.getLong("min_rate");
+    }
+    if (saturation.getLong("max_rate") == null) {
+      throw new IllegalConfigException("saturation.max_rate is required");
+    }
+    saturationMaxRate = saturation.getLong("max_rate");
+    if (saturationMinRate <= 0 || saturationMaxRate < saturationMinRate) {
+      throw new IllegalConfigException(
+          "saturation.min_rate should be positive and saturation.max_rate should not be less");
+    }
+
+    saturationRateResolution = Math.max(saturationMaxRate / 100, 1L);
+    if (saturation.getLong("rate_resolution") != null) {
+      saturationRateResolution = saturation.getLong("rate_resolution");
+      if (saturationRateResolution <= 0) {
+        throw new IllegalConfigException("saturation.rate_resolution should be positive");
+      }
+    }
+    if (saturation.getLong("step_duration_sec") != null) {
+      saturationStepDurationSec = saturation.getLong("step_duration_sec");
+      if (saturationStepDurationSec <= 0) {
+        throw new IllegalConfigException("saturation.step_duration_sec should be positive");
+      }
+    }
+
+    Map<String, Object> values = saturation.toMap();
+    if (values.get("slo_percentile") != null) {
+      sloPercentile = getNumber(values, "saturation.slo_percentile");
+      if (sloPercentile <= 0.0 || sloPercentile > 100.0) {
+        throw new IllegalConfigException("saturation.slo_percentile should be in (0, 100]");
+      }
+    }
+    if (values.get("slo_latency_ms") != null) {
+      sloLatencyMillis = Optional.of(getNumber(values, "saturation.slo_latency_ms"));
+    }
+    if (values.get("slo_error_rate_percent") != null) {
+      sloErrorRatePercent = getNumber(values, "saturation.slo_error_rate_percent");
+    }
+    if (values.get("slo_min_achieved_percent") != null) {
+      sloMinAchievedPercent = getNumber(values, "saturation.slo_min_achieved_percent");
+    }
+  }
+
+  private InjectionSchedule loadInjectionSchedule(Toml injector) {
+    long startOffsetSec = injector.getLong("start_offset_sec", 0L);
+    long durationSec = injector.getLong("duration_sec", 10L);
+    long repeatIntervalSec = injector.getLong("repeat_interval_sec", 0L);
+    long jitterSec = injector.getLong("jitter_sec", 0L);
+    if (startOffsetSec < 0 || repeatIntervalSec < 0 || jitterSec < 0) {
+      throw new IllegalConfigException(
+          "start_offset_sec, repeat_interval_sec and jitter_sec of modules.injectors can not be"
+              + " negative");
+    }
+    if (durationSec <= 0) {
+      throw new IllegalConfigException("duration_sec of modules.injectors should be positive");
+    }
+    if (repeatIntervalSec > 0 && repeatIntervalSec < durationSec + jitterSec) {
+      throw new IllegalConfigException(
+          "repeat_interval_sec of modules.injectors should not be less than duration_sec plus"
+              + " jitter_sec");
+    }
+    return new InjectionSchedule(startOffsetSec, durationSec, repeatIntervalSec, jitterSec);
+  }
+
+  private void loadPartitionConfig() {
+    partitionConcurrency = concurrency;
+    Toml partition = toml.getTable("partition");
+    if (partition == null) {
+      numPartitions = partitionConcurrency * 4;
+      return;
+    }
+
+    if (partition.getLong("concurrency") != null) {
+      partitionConcurrency = partition.getLong("concurrency");
+      if (partitionConcurrency <= 0) {
+        throw new IllegalConfigException("partition.concurrency should be positive");
+      }
+    }
+    numPartitions = partitionConcurrency * 4;
+    if (partition.getLong("num_partitions") != null) {
+      numPartitions = partition.getLong("num_partitions");
+      if (numPartitions <= 0) {
+        throw new IllegalConfigException("partition.num_partitions should be positive");
+      }
+    }
+    if (partition.getLong("max_retries") != null) {
+      partitionMaxRetries = partition.getLong("max_retries");
+      if (partitionMaxRetries < 0) {
+        throw new IllegalConfigException("partition.max_retries should not be negative");
+      }
+    }
+    if (partition.getLong("progress_interval_sec") != null) {
+      partitionProgressIntervalSec = partition.getLong("progress_interval_sec");
+      if (partitionProgressIntervalSec <= 0) {
+        throw new IllegalConfigException("partition.progress_interval_sec should be positive");
+      }
+    }
+    if (partition.getString("mismatch_report_file") != null) {
+      mismatchReportFile = partition.getString("mismatch_report_file");
+    }
+  }
+
+  private double getNumber(Map<String, Object> values, String name) {
+    Object value = values.get(name.substring(name.indexOf('.') + 1));
+    if (!(value instanceof Number) || ((Number) value).doubleValue() < 0.0) {
+      throw new IllegalConfigException(name + " should be a non-negative number");
+    }
+    return ((Number) value).doubleValue();
   }
 }
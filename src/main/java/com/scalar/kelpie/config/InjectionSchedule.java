@@ -0,0 +1,69 @@
+package com.scalar.kelpie.config;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * InjectionSchedule is the schedule of an {@link com.scalar.kelpie.modules.Injector} defined in
+ * {@code [[modules.injectors]]}. It is used by {@link
+ * com.scalar.kelpie.executor.TimelineInjectionExecutor}.
+ */
+@Immutable
+public class InjectionSchedule {
+  private final long startOffsetSec;
+  private final long durationSec;
+  private final long repeatIntervalSec;
+  private final long jitterSec;
+
+  /**
+   * Constructs an {@code InjectionSchedule}.
+   *
+   * @param startOffsetSec the time from the start of the process to the first injection
+   * @param durationSec the time from an injection to the ejection
+   * @param repeatIntervalSec the time between the starts of injections, or 0 if the injection
+   *     isn't repeated
+   * @param jitterSec the maximum random delay added to each injection
+   */
+  public InjectionSchedule(
+      long startOffsetSec, long durationSec, long repeatIntervalSec, long jitterSec) {
+    this.startOffsetSec = startOffsetSec;
+    this.durationSec = durationSec;
+    this.repeatIntervalSec = repeatIntervalSec;
+    this.jitterSec = jitterSec;
+  }
+
+  /**
+   * Returns the time from the start of the process to the first injection.
+   *
+   * @return the offset in seconds
+   */
+  public long getStartOffsetSec() {
+    return startOffsetSec;
+  }
+
+  /**
+   * Returns the time from an injection to the ejection.
+   *
+   * @return the duration in seconds
+   */
+  public long getDurationSec() {
+    return durationSec;
+  }
+
+  /**
+   * Returns the time between the starts of injections.
+   *
+   * @return the interval in seconds, or 0 if the injection isn't repeated
+   */
+  public long getRepeatIntervalSec() {
+    return repeatIntervalSec;
+  }
+
+  /**
+   * Returns the maximum random delay added to each injection.
+   *
+   * @return the jitter in seconds
+   */
+  public long getJitterSec() {
+    return jitterSec;
+  }
+}
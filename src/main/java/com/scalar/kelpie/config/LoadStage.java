@@ -0,0 +1,67 @@
+package com.scalar.kelpie.config;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * LoadStage is a stage of a load profile defined with {@code [[load_profile.stages]]}. The process
+ * runs with the concurrency and the target rate of each stage for its duration.
+ */
+@Immutable
+public class LoadStage {
+  private final String name;
+  private final long concurrency;
+  private final long targetRate;
+  private final long durationSec;
+
+  /**
+   * Constructs a {@code LoadStage}.
+   *
+   * @param name the name of the stage
+   * @param concurrency the number of threads executing the processor
+   * @param targetRate the target rate for all threads, or 0 if it isn't specified
+   * @param durationSec the duration of the stage in seconds
+   */
+  public LoadStage(String name, long concurrency, long targetRate, long durationSec) {
+    this.name = name;
+    this.concurrency = concurrency;
+    this.targetRate = targetRate;
+    this.durationSec = durationSec;
+  }
+
+  /**
+   * Returns the name of the stage.
+   *
+   * @return the name of the stage
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of threads executing the processor in the stage.
+   *
+   * @return concurrency
+   */
+  public long getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Returns the target rate of operations per second for all threads in the stage. It is used by
+   * {@link com.scalar.kelpie.modules.RateBasedProcessor}.
+   *
+   * @return target rate (operations per second), or 0 if it isn't specified
+   */
+  public long getTargetRate() {
+    return targetRate;
+  }
+
+  /**
+   * Returns the duration of the stage.
+   *
+   * @return the duration in seconds
+   */
+  public long getDurationSec() {
+    return durationSec;
+  }
+}
@@ -0,0 +1,162 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import com.scalar.kelpie.exception.ProcessException;
+import com.scalar.kelpie.stats.Stats;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AgentCoordinator executes {@link com.scalar.kelpie.modules.Processor} on {@link KelpieAgent}s.
+ * It sends the config and the state of {@link com.scalar.kelpie.modules.PreProcessor} to all
+ * agents, starts them when all of them are ready, and merges their statistics into {@link Stats}.
+ */
+class AgentCoordinator {
+  private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+  private static final long RESULT_TIMEOUT_MARGIN_MILLIS = 60_000L;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final Config config;
+  private final Stats stats;
+  private final String secret;
+  private final boolean isTimeBased;
+
+  /**
+   * Constructs an {@code AgentCoordinator}.
+   *
+   * @param config {@link Config}
+   * @param stats {@link Stats} into which the statistics of the agents are merged
+   * @param secret the secret shared with the agents
+   * @param isTimeBased true if the processor runs for {@code run_for_sec}, false if it runs for the
+   *     number of operations
+   */
+  AgentCoordinator(Config config, Stats stats, String secret, boolean isTimeBased) {
+    this.config = config;
+    this.stats = stats;
+    this.secret = secret;
+    this.isTimeBased = isTimeBased;
+  }
+
+  /**
+   * Executes the processor on all agents and waits for their completion.
+   *
+   * @param previousState the state of the pre-process given to the processor on each agent
+   * @return the states of the processor on the agents keyed by their addresses
+   */
+  JsonObject execute(JsonObject previousState) {
+    if (secret == null || secret.isEmpty()) {
+      throw new IllegalConfigException(
+          "The secret shared with the agents should be set in " + KelpieAgent.SECRET_ENV);
+    }
+
+    List<String> agents = config.getAgents();
+    List<MessageChannel> channels = new ArrayList<>();
+    try {
+      for (String agent : agents) {
+        MessageChannel channel = connect(agent);
+        channels.add(channel);
+        channel.respond(secret.getBytes(StandardCharsets.UTF_8));
+      }
+
+      // Each agent gets a different seed derived from the seed of the job
+      SplittableRandom seeds = new SplittableRandom(config.getSeed());
+      for (MessageChannel channel : channels) {
+        channel.send(
+            Json.createObjectBuilder()
+                .add("type", MessageChannel.PREPARE)
+                .add("config", config.getTomlText())
+                .add("seed", seeds.nextLong())
+                .add("state", previousState)
+                .build());
+      }
+      for (MessageChannel channel : channels) {
+        channel.receive(MessageChannel.READY);
+      }
+
+      logger.info("Starting the process on " + agents.size() + " agents...");
+      JsonObject start = Json.createObjectBuilder().add("type", MessageChannel.START).build();
+      for (MessageChannel channel : channels) {
+        channel.send(start);
+      }
+
+      // An agent which hangs or is cut off without closing the connection is regarded as failed
+      // after the process should have finished
+      int timeout = getResultTimeoutMillis();
+      JsonObjectBuilder states = Json.createObjectBuilder();
+      for (int i = 0; i < channels.size(); i++) {
+        JsonObject result;
+        try {
+          channels.get(i).setTimeout(timeout);
+          result = channels.get(i).receive(MessageChannel.RESULT);
+        } catch (SocketTimeoutException e) {
+          throw new ProcessException(
+              "The agent " + agents.get(i) + " didn't return the result in " + timeout + " ms", e);
+        }
+        stats.mergeSnapshot(result.getJsonObject("stats"));
+        states.add(agents.get(i), result.getJsonObject("state"));
+        logger.info("Received the result from " + agents.get(i));
+      }
+      return states.build();
+    } catch (IOException e) {
+      throw new ProcessException("Failed to communicate with the agents", e);
+    } finally {
+      for (MessageChannel channel : channels) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          logger.warn("Failed to close the connection to an agent", e);
+        }
+      }
+    }
+  }
+
+  private int getResultTimeoutMillis() {
+    if (!isTimeBased) {
+      // The time of a processor which runs for the number of operations can't be estimated
+      return 0;
+    }
+    long rampSec =
+        config.getWarmupMode().equals(Config.ADAPTIVE_WARMUP)
+            ? Math.max(config.getRampForSec(), config.getWarmupMaxSec())
+            : config.getRampForSec();
+    long timeout =
+        TimeUnit.SECONDS.toMillis(rampSec + config.getRunForSec()) + RESULT_TIMEOUT_MARGIN_MILLIS;
+    return (int) Math.min(timeout, Integer.MAX_VALUE);
+  }
+
+  private MessageChannel connect(String agent) throws IOException {
+    int index = agent.lastIndexOf(':');
+    if (index <= 0) {
+      throw new IllegalConfigException("An agent should be specified as host:port: " + agent);
+    }
+    String host = agent.substring(0, index);
+    int port;
+    try {
+      port = Integer.parseInt(agent.substring(index + 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalConfigException("Invalid port of the agent " + agent, e);
+    }
+
+    Socket socket = new Socket();
+    try {
+      socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+    } catch (IOException e) {
+      socket.close();
+      throw new IOException("Failed to connect to the agent " + agent, e);
+    }
+    return new MessageChannel(socket);
+  }
+}
@@ -1,7 +1,9 @@
 package com.scalar.kelpie.executor;
 
+import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.exception.InjectionException;
 import com.scalar.kelpie.modules.Injector;
+import com.scalar.kelpie.stats.Stats;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -12,11 +14,72 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public abstract class InjectionExecutor {
   protected List<Injector> injectors;
+  protected Config config;
+  protected Stats stats;
+  protected ProcessTimer timer;
 
   public InjectionExecutor(List<Injector> injectors) {
     this.injectors = injectors;
   }
 
+  /**
+   * Constructs an {@code InjectionExecutor} with {@link Config}. {@link KelpieExecutor} uses this
+   * constructor if the subclass has it.
+   *
+   * @param injectors {@link Injector}s to be executed
+   * @param config {@link Config}
+   */
+  public InjectionExecutor(List<Injector> injectors, Config config) {
+    this.injectors = injectors;
+    this.config = config;
+  }
+
+  /**
+   * Sets {@link Stats} to which injection events are recorded.
+   *
+   * @param stats {@link Stats}
+   */
+  public void setStats(Stats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Sets {@link ProcessTimer} which notifies the end of the process.
+   *
+   * @param timer {@link ProcessTimer}
+   */
+  public void setTimer(ProcessTimer timer) {
+    this.timer = timer;
+  }
+
+  /**
+   * Waits until the given time or the end of the process. The waiting thread wakes up as soon as
+   * the process finishes if {@link ProcessTimer} has been set.
+   *
+   * @param timeMillis the time in milliseconds since the epoch
+   * @param isDone the waiting finishes when this has been set to true
+   * @return true if the time has come, false if the process finished before that
+   */
+  protected boolean awaitUntil(long timeMillis, AtomicBoolean isDone) {
+    if (timer != null) {
+      return timer.awaitUntil(timeMillis) && !isDone.get();
+    }
+
+    while (!isDone.get()) {
+      long remaining = timeMillis - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return true;
+      }
+      try {
+        Thread.sleep(Math.min(remaining, 1000L));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return false;
+  }
+
   /**
    * Executes {@link Injector}s.
    *
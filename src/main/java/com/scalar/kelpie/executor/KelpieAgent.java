@@ -0,0 +1,175 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.ModuleLoader;
+import com.scalar.kelpie.modules.Processor;
+import com.scalar.kelpie.modules.dummy.DummyPostProcessor;
+import com.scalar.kelpie.modules.dummy.DummyPreProcessor;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * KelpieAgent executes {@link Processor} of a job on behalf of a coordinator, which is a Kelpie
+ * process started with agent addresses. The coordinator sends the config and the state of {@link
+ * com.scalar.kelpie.modules.PreProcessor}, and all agents start the processor at the same time
+ * when all of them are ready. After the processor finishes, the agent sends its statistics and the
+ * state of the processor back to the coordinator. An agent executes jobs one by one until it is
+ * stopped.
+ *
+ * <p>The modules of a job are loaded from the paths in the config, so that they should exist at
+ * the same paths on the agent.
+ *
+ * <p>An agent executes code which a coordinator specifies, so that it accepts only a coordinator
+ * which has the same secret, which is given by the {@value #SECRET_ENV} environment variable.
+ */
+public class KelpieAgent implements AutoCloseable {
+  /** The environment variable which has the secret shared by a coordinator and agents. */
+  public static final String SECRET_ENV = "KELPIE_AGENT_SECRET";
+
+  private static final int BACKLOG = 50;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final InetAddress bindAddress;
+  private final int port;
+  private final byte[] secret;
+  private volatile ServerSocket serverSocket;
+
+  /**
+   * Constructs a {@code KelpieAgent}.
+   *
+   * @param bindAddress an address to listen to the coordinator
+   * @param port a port number to listen to the coordinator, or 0 to use an ephemeral port
+   * @param secret a secret shared with the coordinator
+   */
+  public KelpieAgent(InetAddress bindAddress, int port, String secret) {
+    if (secret == null || secret.isEmpty()) {
+      throw new IllegalArgumentException(
+          "An agent requires a secret shared with the coordinator in " + SECRET_ENV);
+    }
+    this.bindAddress = bindAddress;
+    this.port = port;
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Starts listening to coordinators. {@link #run()} invokes this if the agent isn't listening.
+   *
+   * @throws UncheckedIOException if the agent can't listen on the port
+   */
+  public synchronized void listen() {
+    if (serverSocket != null) {
+      return;
+    }
+    try {
+      serverSocket = new ServerSocket(port, BACKLOG, bindAddress);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to listen on port " + port, e);
+    }
+    logger.info("Waiting for a job on " + serverSocket.getLocalSocketAddress());
+  }
+
+  /**
+   * Returns the port on which the agent listens. It is an ephemeral port if 0 has been given.
+   *
+   * @return the port number
+   * @throws IllegalStateException if the agent isn't listening
+   */
+  public int getPort() {
+    ServerSocket listening = serverSocket;
+    if (listening == null) {
+      throw new IllegalStateException("The agent isn't listening");
+    }
+    return listening.getLocalPort();
+  }
+
+  /** Waits for jobs from coordinators and executes them until the agent is closed. */
+  public void run() {
+    listen();
+    ServerSocket listening = serverSocket;
+    while (!listening.isClosed()) {
+      Socket socket;
+      try {
+        socket = listening.accept();
+      } catch (IOException e) {
+        if (listening.isClosed()) {
+          return;
+        }
+        throw new UncheckedIOException("Failed to accept a coordinator", e);
+      }
+      try (MessageChannel channel = new MessageChannel(socket)) {
+        channel.challenge(secret);
+        logger.info("Accepted a job from " + socket.getRemoteSocketAddress());
+        executeJob(channel);
+      } catch (Exception e) {
+        logger.error("The job failed", e);
+      }
+    }
+  }
+
+  /**
+   * Stops listening. The job being executed isn't interrupted.
+   *
+   * @throws IOException if the port can't be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (serverSocket != null) {
+      serverSocket.close();
+    }
+  }
+
+  private void executeJob(MessageChannel channel) throws Exception {
+    KelpieExecutor executor;
+    JsonObject previousState;
+    try {
+      JsonObject prepare = channel.receive(MessageChannel.PREPARE);
+      Config config = new Config(prepare.getString("config"));
+      config.setSeed(prepare.getJsonNumber("seed").longValue());
+      config.enablePreProcessor(false);
+      config.enableProcessor(true);
+      config.enablePostProcessor(false);
+      config.disableStatsOutputs();
+      previousState = prepare.getJsonObject("state");
+
+      Processor processor = new ModuleLoader(config).loadProcessor();
+      executor =
+          new KelpieExecutor(
+              config,
+              new DummyPreProcessor(config),
+              processor,
+              new DummyPostProcessor(config),
+              Collections.emptyList());
+    } catch (Exception e) {
+      channel.sendError(e.getMessage());
+      throw e;
+    }
+    channel.send(Json.createObjectBuilder().add("type", MessageChannel.READY).build());
+
+    channel.receive(MessageChannel.START);
+    logger.info("Starting the process...");
+    JsonObject state;
+    try {
+      state = executor.executeProcessor(previousState);
+    } catch (Exception e) {
+      channel.sendError(e.getMessage());
+      throw e;
+    }
+
+    channel.send(
+        Json.createObjectBuilder()
+            .add("type", MessageChannel.RESULT)
+            .add("stats", executor.getStats().getSnapshot())
+            .add("state", state)
+            .build());
+    logger.info("The process has been completed");
+  }
+}
@@ -2,25 +2,37 @@ package com.scalar.kelpie.executor;
 
 import com.google.inject.Inject;
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.exception.IllegalConfigException;
 import com.scalar.kelpie.exception.InjectionException;
 import com.scalar.kelpie.exception.PostProcessException;
+import com.scalar.kelpie.modules.FrequencyBasedProcessor;
 import com.scalar.kelpie.modules.Injector;
 import com.scalar.kelpie.modules.PostProcessor;
 import com.scalar.kelpie.modules.PreProcessor;
 import com.scalar.kelpie.modules.Processor;
+import com.scalar.kelpie.modules.RateBasedProcessor;
+import com.scalar.kelpie.state.StateStore;
 import com.scalar.kelpie.stats.Stats;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 import javax.annotation.concurrent.Immutable;
+import javax.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** KelpieExecutor controls execution of all modules. */
 @Immutable
 public class KelpieExecutor {
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private final Config config;
   private final PreProcessor preProcessor;
   private final Processor processor;
@@ -28,6 +40,7 @@ public class KelpieExecutor {
   private final List<Injector> injectors;
   private final AtomicBoolean isDone;
   private final Stats stats;
+  private final StateStore stateStore;
 
   @Inject
   public KelpieExecutor(
@@ -44,82 +57,220 @@ public class KelpieExecutor {
 
     this.isDone = new AtomicBoolean(false);
     this.stats = new Stats(config);
+    this.stateStore = new StateStore(config);
   }
 
   public void execute() {
     processor.setStats(stats);
     postProcessor.setStats(stats);
+    preProcessor.setStateStore(stateStore);
+    processor.setStateStore(stateStore);
+    postProcessor.setStateStore(stateStore);
 
+    logger.info("Seed: " + config.getSeed());
     try {
       preProcessor.execute();
       preProcessor.close();
 
       processor.setPreviousState(preProcessor.getState());
-      executeConcurrently();
+      Optional<JsonObject> agentStates = executeConcurrently();
       processor.close();
+      processor.getAccumulator().close();
 
-      postProcessor.setPreviousState(processor.getState());
+      postProcessor.setPreviousState(agentStates.orElse(processor.getState()));
+      postProcessor.setPreviousAccumulator(processor.getAccumulator());
       postProcessor.execute();
+      if (config.isProcessorEnabled()) {
+        postProcessor.checkBaselineIfNotChecked();
+      }
       postProcessor.close();
     } catch (PostProcessException e) {
       throw e;
     } catch (Exception e) {
       throw new RuntimeException("Process failure", e);
+    } finally {
+      stateStore.close();
     }
   }
 
-  private void executeConcurrently() {
-    int concurrency = (int) config.getConcurrency();
-    ExecutorService es = Executors.newFixedThreadPool(concurrency + 2);
-    List<CompletableFuture> futures = new ArrayList<>();
+  /**
+   * Executes only the processor with the given previous state. It is used by {@link KelpieAgent}.
+   *
+   * @param previousState the state of the pre-process
+   * @return the state of the processor
+   * @throws Exception if the processor fails
+   */
+  JsonObject executeProcessor(JsonObject previousState) throws Exception {
+    processor.setStats(stats);
+    processor.setStateStore(stateStore);
+    processor.setPreviousState(previousState);
+    try {
+      executeConcurrently();
+      processor.close();
+    } finally {
+      stateStore.close();
+    }
+
+    return processor.getState();
+  }
+
+  Stats getStats() {
+    return stats;
+  }
+
+  private Optional<JsonObject> executeConcurrently() {
+    boolean isDistributed = !config.getAgents().isEmpty();
+    boolean isTimeBased = !(processor instanceof FrequencyBasedProcessor);
+    List<LoadStage> stages = config.getLoadStages();
+    if (!stages.isEmpty() && !isTimeBased) {
+      throw new IllegalConfigException("load_profile isn't supported by FrequencyBasedProcessor");
+    }
+    if (config.isSaturationSearchEnabled()) {
+      if (!(processor instanceof RateBasedProcessor)) {
+        throw new IllegalConfigException("saturation requires RateBasedProcessor");
+      }
+      if (!stages.isEmpty()) {
+        throw new IllegalConfigException("saturation and load_profile can not be used together");
+      }
+    }
+    if (isDistributed && (config.isSaturationSearchEnabled() || !stages.isEmpty())) {
+      throw new IllegalConfigException("saturation and load_profile can not be used with agents");
+    }
+
+    InjectionExecutor injectionExecutor = loadInjectionExecutor();
+    injectionExecutor.setStats(stats);
+
+    // The timer drives the periodic work, and the workers only execute the processor
+    ProcessTimer timer = new ProcessTimer();
+    injectionExecutor.setTimer(timer);
+    ExecutorService es = Executors.newSingleThreadExecutor();
+    ExecutorService workers = createWorkerExecutorService((int) config.getMaxConcurrency());
+
+    stats.start();
+    Optional<Stats.RealtimeReport> report = Optional.empty();
+    Optional<ScheduledFuture<?>> reportTicks = Optional.empty();
+    CompletableFuture<Void> injectionFuture = CompletableFuture.completedFuture(null);
+    Optional<JsonObject> agentStates = Optional.empty();
+    try {
+      // Stats
+      // Each agent reports its own realtime statistics
+      if (!isDistributed) {
+        report = Optional.of(stats.new RealtimeReport());
+      }
+      reportTicks =
+          report.map(r -> timer.scheduleAligned(r::tick, config.getReportIntervalMillis()));
 
-    // Stats
-    CompletableFuture<Void> statsFuture = null;
-    if (config.isRealtimeReportEnabled()) {
-      statsFuture = CompletableFuture.runAsync(stats.new RealtimeReport(isDone), es);
+      // Injectors
+      // Injectors block while injecting and ejecting faults, so they run on their own thread
+      // instead of the timer thread, and the timer only wakes them at the end of the process
+      injectionFuture = CompletableFuture.runAsync(() -> injectionExecutor.execute(isDone), es);
+
+      // Processor
+      if (isDistributed) {
+        String secret = System.getenv(KelpieAgent.SECRET_ENV);
+        AgentCoordinator coordinator = new AgentCoordinator(config, stats, secret, isTimeBased);
+        agentStates = Optional.of(coordinator.execute(preProcessor.getState()));
+      } else if (config.isSaturationSearchEnabled()) {
+        new SaturationSearch(config, stats)
+            .execute(
+                (stage, isFirst) ->
+                    executeStage(
+                        new PhaseClock(config, stats, stage, isFirst, true), workers, timer));
+      } else if (stages.isEmpty()) {
+        int concurrency = (int) config.getConcurrency();
+        executeStage(new PhaseClock(config, stats, concurrency, isTimeBased), workers, timer);
+      } else {
+        for (int i = 0; i < stages.size(); i++) {
+          LoadStage stage = stages.get(i);
+          logger.info(
+              "Starting stage "
+                  + stage.getName()
+                  + " with "
+                  + stage.getConcurrency()
+                  + " threads for "
+                  + stage.getDurationSec()
+                  + " seconds");
+          stats.startStage(stage);
+          executeStage(new PhaseClock(config, stats, stage, i == 0, true), workers, timer);
+          stats.finishStage();
+        }
+      }
+    } finally {
+      // Stop the injector and the Stats without waiting for the next tick even if a worker fails,
+      // so that an injected fault is ejected and no thread is left behind
+      isDone.set(true);
+      timer.finish();
+      reportTicks.ifPresent(t -> t.cancel(false));
+      try {
+        report.ifPresent(Stats.RealtimeReport::close);
+
+        // Wait for completion
+        injectionFuture.join();
+        injectionExecutor.close();
+      } finally {
+        timer.close();
+        stats.close();
+        workers.shutdown();
+        es.shutdown();
+      }
     }
 
-    // Processor
-    IntStream.range(0, concurrency)
+    stats.exportResult();
+
+    return agentStates;
+  }
+
+  private void executeStage(PhaseClock clock, ExecutorService workers, ProcessTimer timer) {
+    clock.setTimer(timer);
+    processor.setPhaseClock(clock);
+
+    List<CompletableFuture> futures = new ArrayList<>();
+    IntStream.range(0, (int) clock.getStage().getConcurrency())
         .forEach(
             i -> {
               CompletableFuture<Void> future =
                   CompletableFuture.runAsync(
                       () -> {
-                        processor.execute();
+                        processor.setWorkerId(i);
+                        clock.arrive();
+                        try {
+                          processor.execute();
+                        } finally {
+                          clock.leave();
+                        }
                       },
-                      es);
+                      workers);
               futures.add(future);
             });
 
-    // Injectors
-    InjectionExecutor injectionExecutor = loadInjectionExecutor();
-    CompletableFuture<Void> injectionFuture =
-        CompletableFuture.runAsync(
-            () -> {
-              injectionExecutor.execute(isDone);
-            },
-            es);
-
     // Wait for completion of all processor.execute()
     CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+  }
 
-    // Stop the injector and the Stats gracefully
-    isDone.set(true);
-
-    // Wait for completion
-    if (config.isRealtimeReportEnabled()) {
-      statsFuture.join();
+  private ExecutorService createWorkerExecutorService(int concurrency) {
+    if (config.getExecutionMode().equals(Config.VIRTUAL_EXECUTION)) {
+      try {
+        // Virtual threads are available since Java 21
+        Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) method.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        logger.warn("Virtual threads aren't supported by this JVM. Platform threads are used");
+      }
     }
-    injectionFuture.join();
-
-    injectionExecutor.close();
+    return Executors.newFixedThreadPool(concurrency);
   }
 
   private InjectionExecutor loadInjectionExecutor() {
     String name = config.getInjectionExecutor().get();
     try {
       Class clazz = Class.forName(name);
+      try {
+        Class[] types = {List.class, Config.class};
+        Object[] args = {injectors, config};
+        return (InjectionExecutor) clazz.getConstructor(types).newInstance(args);
+      } catch (NoSuchMethodException e) {
+        // An InjectionExecutor which doesn't take the config
+      }
       Class[] types = {List.class};
       Object[] args = {injectors};
 
@@ -0,0 +1,204 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.exception.ProcessException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+/**
+ * MessageChannel exchanges JSON messages between a coordinator and an agent over a TCP connection.
+ * Each message is a JSON object with {@code type}, and it is sent with its length in bytes.
+ *
+ * <p>Before a job is sent, the agent authenticates the coordinator with a shared secret. The agent
+ * sends a random challenge, and the coordinator answers it with the HMAC-SHA256 of the challenge
+ * keyed by the secret, so that the secret itself isn't sent over the connection.
+ */
+class MessageChannel implements Closeable {
+  static final String CHALLENGE = "challenge";
+  static final String RESPONSE = "response";
+  static final String PREPARE = "prepare";
+  static final String READY = "ready";
+  static final String START = "start";
+  static final String RESULT = "result";
+  static final String ERROR = "error";
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final int CHALLENGE_BYTES = 32;
+  private static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+  private static final int MAX_HANDSHAKE_MESSAGE_BYTES = 1024;
+
+  private final Socket socket;
+  private final DataInputStream input;
+  private final DataOutputStream output;
+
+  MessageChannel(Socket socket) throws IOException {
+    this.socket = socket;
+    this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+  }
+
+  /**
+   * Authenticates the peer as a coordinator which has the same secret. This is invoked by an agent
+   * right after accepting a connection.
+   *
+   * @param secret the secret shared by the coordinator and the agent
+   * @throws IOException if the handshake fails or the peer doesn't have the same secret
+   */
+  void challenge(byte[] secret) throws IOException {
+    byte[] challenge = new byte[CHALLENGE_BYTES];
+    new SecureRandom().nextBytes(challenge);
+
+    int timeout = socket.getSoTimeout();
+    socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+    JsonObject response;
+    try {
+      send(
+          Json.createObjectBuilder()
+              .add("type", CHALLENGE)
+              .add("challenge", Base64.getEncoder().encodeToString(challenge))
+              .build());
+      response = receive(RESPONSE, MAX_HANDSHAKE_MESSAGE_BYTES);
+    } finally {
+      socket.setSoTimeout(timeout);
+    }
+
+    byte[] expected = sign(secret, challenge);
+    byte[] actual;
+    try {
+      actual = Base64.getDecoder().decode(response.getString("mac", ""));
+    } catch (IllegalArgumentException e) {
+      actual = new byte[0];
+    }
+    if (!MessageDigest.isEqual(expected, actual)) {
+      sendError("Authentication failed");
+      throw new IOException(
+          "Authentication of " + socket.getRemoteSocketAddress() + " failed. Check the secret");
+    }
+  }
+
+  /**
+   * Answers the challenge of an agent with the secret. This is invoked by a coordinator right after
+   * connecting to an agent.
+   *
+   * @param secret the secret shared by the coordinator and the agent
+   * @throws IOException if the handshake fails
+   */
+  void respond(byte[] secret) throws IOException {
+    JsonObject challenge = receive(CHALLENGE);
+    byte[] bytes;
+    try {
+      bytes = Base64.getDecoder().decode(challenge.getString("challenge", ""));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Received an invalid challenge", e);
+    }
+    send(
+        Json.createObjectBuilder()
+            .add("type", RESPONSE)
+            .add("mac", Base64.getEncoder().encodeToString(sign(secret, bytes)))
+            .build());
+  }
+
+  private static byte[] sign(byte[] secret, byte[] challenge) throws IOException {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+      return mac.doFinal(challenge);
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Failed to sign the challenge", e);
+    }
+  }
+
+  /**
+   * Sets the timeout of receiving a message.
+   *
+   * @param timeoutMillis the timeout in milliseconds, or 0 to wait without a timeout
+   * @throws IOException if the timeout can't be set
+   */
+  void setTimeout(int timeoutMillis) throws IOException {
+    socket.setSoTimeout(timeoutMillis);
+  }
+
+  /**
+   * Sends a message.
+   *
+   * @param message a message with {@code type}
+   * @throws IOException if the message can't be sent
+   */
+  void send(JsonObject message) throws IOException {
+    byte[] bytes = message.toString().getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+    output.flush();
+  }
+
+  /**
+   * Sends an error message.
+   *
+   * @param message the error message
+   * @throws IOException if the message can't be sent
+   */
+  void sendError(String message) throws IOException {
+    send(
+        Json.createObjectBuilder()
+            .add("type", ERROR)
+            .add("message", message == null ? "Unknown error" : message)
+            .build());
+  }
+
+  /**
+   * Receives a message of the given type.
+   *
+   * @param type the expected type of the message
+   * @return the received message
+   * @throws IOException if the message can't be received or its type is unexpected
+   * @throws ProcessException if the peer has sent an error message
+   */
+  JsonObject receive(String type) throws IOException {
+    return receive(type, Integer.MAX_VALUE);
+  }
+
+  private JsonObject receive(String type, int maxBytes) throws IOException {
+    int length = input.readInt();
+    if (length < 0 || length > maxBytes) {
+      throw new IOException("Received a message of invalid length " + length);
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+
+    JsonObject message;
+    try (JsonReader reader =
+        Json.createReader(new StringReader(new String(bytes, StandardCharsets.UTF_8)))) {
+      message = reader.readObject();
+    }
+
+    String receivedType = message.getString("type", "");
+    if (receivedType.equals(ERROR)) {
+      throw new ProcessException(
+          socket.getRemoteSocketAddress() + " failed: " + message.getString("message", ""));
+    }
+    if (!receivedType.equals(type)) {
+      throw new IOException("Expected a " + type + " message, but received " + receivedType);
+    }
+    return message;
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
@@ -41,13 +41,7 @@ public class OnetimeInjectionExecutor extends InjectionExecutor {
   private void executeInjection(Injector injector, AtomicBoolean isDone) {
     injector.inject();
 
-    while (!isDone.get()) {
-      try {
-        Thread.sleep(1000);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      }
-    }
+    awaitUntil(Long.MAX_VALUE, isDone);
 
     injector.eject();
   }
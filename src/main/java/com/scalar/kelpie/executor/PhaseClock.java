@@ -0,0 +1,282 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * PhaseClock is a clock shared by all threads executing a {@link
+ * com.scalar.kelpie.modules.Processor} to decide the phase of the process. The process starts with
+ * the ramp-up phase, moves to the measurement phase and ends with the cool-down phase.
+ *
+ * <p>All threads wait for each other with {@link #arrive()} before they start, so that they
+ * observe the same ramp-up end and measurement end. With a time-based clock, the ramp-up finishes
+ * after {@code ramp_for_sec}, or when the adaptive warm-up finishes if {@code warmup_mode} is
+ * {@code "adaptive"}, and the measurement finishes after {@code run_for_sec}. With a count-based
+ * clock, the measurement starts when all threads finish their ramp-up operations and reach {@link
+ * #awaitMeasurement()}. The actual measured time from the start of the measurement until the last
+ * thread leaves is given to {@link Stats} to calculate the throughput.
+ *
+ * <p>When a {@link ProcessTimer} is given with {@link #setTimer(ProcessTimer)}, the adaptive
+ * warm-up is checked by the timer, so that the threads executing the processor don't check it.
+ *
+ * <p>When a load profile is defined, a clock is created for each {@link LoadStage}, and it gives
+ * the number of threads and the target rate of the stage.
+ */
+@ThreadSafe
+public class PhaseClock {
+  /** The phase of the process. */
+  public enum Phase {
+    RAMP_UP,
+    MEASURE,
+    COOL_DOWN,
+  }
+
+  private static final long WARMUP_CHECK_INTERVAL_MILLIS = 100L;
+
+  private final Stats stats;
+  private final LoadStage stage;
+  private final long rampUpNanos;
+  private final long measurementNanos;
+  private final boolean isRampUpTimed;
+  private final boolean isMeasurementTimed;
+  private final boolean isAdaptiveWarmup;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+
+  private volatile long measurementStart;
+  private volatile long measurementEnd;
+  private volatile boolean isMeasurementScheduled = false;
+  private volatile boolean isFinished = false;
+  private volatile ProcessTimer timer;
+  private volatile ScheduledFuture<?> warmupCheck;
+
+  // Guarded by lock
+  private int remaining;
+  private int arrived = 0;
+  private int waiting = 0;
+  private boolean isStarted = false;
+
+  /**
+   * Constructs a {@code PhaseClock} for a process with {@code concurrency}, {@code target_rate} and
+   * {@code run_for_sec} of {@code [common]}.
+   *
+   * @param config {@link Config}
+   * @param stats {@link Stats} to which the measured time is given. It can be null.
+   * @param numWorkers the number of threads executing the processor
+   * @param isTimeBased true if the phases change by time, false if the threads decide them by the
+   *     number of operations
+   */
+  public PhaseClock(Config config, Stats stats, int numWorkers, boolean isTimeBased) {
+    this(
+        config,
+        stats,
+        new LoadStage("main", numWorkers, config.getTargetRate(), config.getRunForSec()),
+        true,
+        isTimeBased);
+  }
+
+  /**
+   * Constructs a {@code PhaseClock} for a stage of the load profile.
+   *
+   * @param config {@link Config}
+   * @param stats {@link Stats} to which the measured time is given. It can be null.
+   * @param stage {@link LoadStage} which gives the number of threads, the target rate and the time
+   *     of the measurement
+   * @param isRampedUp true if the ramp-up phase is executed before the measurement
+   * @param isTimeBased true if the phases change by time, false if the threads decide them by the
+   *     number of operations
+   */
+  public PhaseClock(
+      Config config, Stats stats, LoadStage stage, boolean isRampedUp, boolean isTimeBased) {
+    this.stats = stats;
+    this.stage = stage;
+    this.rampUpNanos = isRampedUp ? TimeUnit.SECONDS.toNanos(config.getRampForSec()) : 0L;
+    this.measurementNanos = TimeUnit.SECONDS.toNanos(stage.getDurationSec());
+    this.isAdaptiveWarmup =
+        isRampedUp
+            && isTimeBased
+            && stats != null
+            && config.getWarmupMode().equals(Config.ADAPTIVE_WARMUP);
+    this.isRampUpTimed = isTimeBased && !isAdaptiveWarmup;
+    this.isMeasurementTimed = isTimeBased;
+    this.remaining = (int) stage.getConcurrency();
+
+    // A clock which isn't shared starts when it is created
+    start(System.nanoTime());
+  }
+
+  /**
+   * Returns the stage which this clock runs.
+   *
+   * @return {@link LoadStage}
+   */
+  public LoadStage getStage() {
+    return stage;
+  }
+
+  /**
+   * Sets the timer which checks the adaptive warm-up. It should be set before the threads arrive.
+   *
+   * @param timer {@link ProcessTimer}
+   */
+  void setTimer(ProcessTimer timer) {
+    this.timer = timer;
+  }
+
+  /**
+   * Waits for all threads to arrive, and then starts the ramp-up phase. Each thread should invoke
+   * this method once before it starts executing the processor.
+   */
+  public void arrive() {
+    lock.lock();
+    try {
+      arrived++;
+      if (arrived == remaining) {
+        isStarted = true;
+        start(System.nanoTime());
+        if (isAdaptiveWarmup && timer != null) {
+          warmupCheck = timer.scheduleAtFixedRate(this::checkWarmup, WARMUP_CHECK_INTERVAL_MILLIS);
+        }
+        changed.signalAll();
+        return;
+      }
+      while (!isStarted) {
+        changed.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits for all threads to finish their ramp-up operations, and then starts the measurement
+   * phase. It is used with a count-based clock.
+   */
+  public void awaitMeasurement() {
+    lock.lock();
+    try {
+      waiting++;
+      if (waiting == remaining) {
+        finishRampUp();
+        return;
+      }
+      while (!isMeasurementScheduled) {
+        changed.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Notifies that a thread has finished executing the processor. The measurement finishes when the
+   * last thread leaves. Each thread should invoke this method once even if it fails.
+   */
+  public void leave() {
+    lock.lock();
+    try {
+      remaining--;
+      if (remaining == 0) {
+        long now = System.nanoTime();
+        // The measurement window is empty if the process finished during the ramp-up
+        boolean isMeasured = isMeasurementScheduled && now - measurementStart > 0;
+        if (!isMeasurementScheduled) {
+          finishRampUp();
+        }
+        isFinished = true;
+        if (warmupCheck != null) {
+          warmupCheck.cancel(false);
+        }
+        if (stats != null && isMeasured) {
+          stats.finishMeasurement(now);
+        }
+      } else if (waiting > 0 && waiting == remaining) {
+        // The threads waiting for the measurement shouldn't wait for the thread which has left
+        finishRampUp();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Finishes the ramp-up phase now and starts the measurement phase if the measurement hasn't been
+   * scheduled yet.
+   */
+  public void finishRampUp() {
+    lock.lock();
+    try {
+      if (isMeasurementScheduled) {
+        return;
+      }
+      scheduleMeasurement(System.nanoTime());
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the current phase.
+   *
+   * @return the current phase
+   */
+  public Phase getPhase() {
+    return getPhase(System.nanoTime());
+  }
+
+  /**
+   * Returns the phase at the given time.
+   *
+   * @param nanoTime a time given by {@code System.nanoTime()}
+   * @return the phase at the time
+   */
+  public Phase getPhase(long nanoTime) {
+    if (isFinished) {
+      return Phase.COOL_DOWN;
+    }
+    if (!isMeasurementScheduled) {
+      if (!isAdaptiveWarmup || timer != null || !stats.isWarmedUp()) {
+        return Phase.RAMP_UP;
+      }
+      finishRampUp();
+    }
+    if (nanoTime - measurementStart < 0) {
+      return Phase.RAMP_UP;
+    }
+    if (isMeasurementTimed && nanoTime - measurementEnd >= 0) {
+      return Phase.COOL_DOWN;
+    }
+    return Phase.MEASURE;
+  }
+
+  private void checkWarmup() {
+    if (isMeasurementScheduled) {
+      warmupCheck.cancel(false);
+    } else if (stats.isWarmedUp()) {
+      finishRampUp();
+    }
+  }
+
+  private void start(long now) {
+    isMeasurementScheduled = false;
+    if (isRampUpTimed) {
+      scheduleMeasurement(now + rampUpNanos);
+    }
+  }
+
+  private void scheduleMeasurement(long start) {
+    measurementStart = start;
+    measurementEnd = start + measurementNanos;
+    isMeasurementScheduled = true;
+    if (stats != null) {
+      stats.startMeasurement(start);
+    }
+  }
+}
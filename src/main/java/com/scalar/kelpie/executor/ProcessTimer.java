@@ -0,0 +1,94 @@
+package com.scalar.kelpie.executor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * ProcessTimer drives the periodic work of a process such as the realtime report, the ticks of
+ * injections and the transition of phases with a single timer thread, which is separate from the
+ * threads executing a {@link com.scalar.kelpie.modules.Processor}. Scheduled tasks should finish
+ * quickly because they share the thread.
+ *
+ * <p>When the process finishes, {@link #finish()} wakes the threads waiting with {@link
+ * #awaitUntil(long)} immediately.
+ */
+@ThreadSafe
+public class ProcessTimer implements AutoCloseable {
+  private final ScheduledExecutorService scheduler;
+  private final CountDownLatch finished = new CountDownLatch(1);
+
+  public ProcessTimer() {
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "kelpie-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Executes a task periodically at fixed rate. The executions are aligned to the multiples of the
+   * period in the wall-clock time, for example, every second on the second.
+   *
+   * @param task a task to be executed
+   * @param periodMillis the period in milliseconds
+   * @return {@code ScheduledFuture} to cancel the task
+   */
+  public ScheduledFuture<?> scheduleAligned(Runnable task, long periodMillis) {
+    long initialDelay = periodMillis - System.currentTimeMillis() % periodMillis;
+    return scheduler.scheduleAtFixedRate(task, initialDelay, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Executes a task periodically at fixed rate from now.
+   *
+   * @param task a task to be executed
+   * @param periodMillis the period in milliseconds
+   * @return {@code ScheduledFuture} to cancel the task
+   */
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long periodMillis) {
+    return scheduler.scheduleAtFixedRate(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Waits until the given time or the end of the process.
+   *
+   * @param timeMillis the time in milliseconds since the epoch
+   * @return true if the time has come, false if the process finished before that
+   */
+  public boolean awaitUntil(long timeMillis) {
+    try {
+      long remaining = timeMillis - System.currentTimeMillis();
+      return remaining > 0 ? !finished.await(remaining, TimeUnit.MILLISECONDS) : !isFinished();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Returns true if the process has finished.
+   *
+   * @return true if the process has finished
+   */
+  public boolean isFinished() {
+    return finished.getCount() == 0;
+  }
+
+  /** Notifies the end of the process to the waiting threads. */
+  public void finish() {
+    finished.countDown();
+  }
+
+  /** Stops the timer thread immediately. Scheduled tasks aren't executed anymore. */
+  @Override
+  public void close() {
+    finish();
+    scheduler.shutdownNow();
+  }
+}
@@ -1,11 +1,15 @@
 package com.scalar.kelpie.executor;
 
+import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.Injector;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-/** RandomInjectionExecutor executes {@link Injector}s one by one in a random order. */
+/**
+ * RandomInjectionExecutor executes {@link Injector}s one by one in a random order. The order is
+ * decided by {@code seed} of {@code [common]}.
+ */
 public class RandomInjectionExecutor extends InjectionExecutor {
   private final Random random;
 
@@ -14,6 +18,11 @@ public class RandomInjectionExecutor extends InjectionExecutor {
     this.random = new Random(System.currentTimeMillis());
   }
 
+  public RandomInjectionExecutor(List<Injector> injectors, Config config) {
+    super(injectors, config);
+    this.random = new Random(config.getSeed());
+  }
+
   @Override
   public void execute(AtomicBoolean isDone) {
     if (injectors.isEmpty()) {
@@ -0,0 +1,118 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.stats.SaturationStep;
+import com.scalar.kelpie.stats.StageResult;
+import com.scalar.kelpie.stats.Stats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SaturationSearch finds the highest rate at which the SLO configured in {@code [saturation]}
+ * still holds. It runs the processor at a rate for {@code step_duration_sec} as a step, checks the
+ * SLO with the statistics of the step, and binary-searches the rate between {@code min_rate} and
+ * {@code max_rate} until the range becomes narrower than {@code rate_resolution}.
+ */
+public class SaturationSearch {
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final Config config;
+  private final Stats stats;
+  private int numSteps = 0;
+
+  public SaturationSearch(Config config, Stats stats) {
+    this.config = config;
+    this.stats = stats;
+  }
+
+  /**
+   * Executes the search.
+   *
+   * @param stageExecutor a function which runs the processor for a stage. The second argument is
+   *     true if the stage is the first one.
+   * @return the highest rate at which the SLO held, or 0 if it didn't hold at {@code min_rate}
+   */
+  public long execute(BiConsumer<LoadStage, Boolean> stageExecutor) {
+    long low = config.getSaturationMinRate();
+    long high = config.getSaturationMaxRate();
+
+    if (!step(low, stageExecutor)) {
+      logger.warn("The SLO doesn't hold even at the minimum rate " + low + " ops");
+      return 0L;
+    }
+    if (low == high || step(high, stageExecutor)) {
+      logger.info("The SLO holds up to the maximum rate " + high + " ops");
+      return high;
+    }
+
+    while (high - low > config.getSaturationRateResolution()) {
+      long rate = low + (high - low) / 2;
+      if (step(rate, stageExecutor)) {
+        low = rate;
+      } else {
+        high = rate;
+      }
+    }
+
+    logger.info("Maximum sustainable rate: " + low + " ops");
+    return low;
+  }
+
+  private boolean step(long rate, BiConsumer<LoadStage, Boolean> stageExecutor) {
+    LoadStage stage =
+        new LoadStage(
+            "rate-" + rate, config.getConcurrency(), rate, config.getSaturationStepDurationSec());
+    logger.info("Trying the rate " + rate + " ops");
+
+    // The step is recorded only as a saturation step, not as a stage of the load profile
+    stats.startStage(stage);
+    stageExecutor.accept(stage, numSteps++ == 0);
+    StageResult result = stats.finishStage(false);
+
+    List<String> violations = check(result);
+    stats.recordSaturationStep(
+        new SaturationStep(result, violations.isEmpty(), String.join(", ", violations)));
+
+    if (violations.isEmpty()) {
+      logger.info("The SLO holds at the rate " + rate + " ops");
+    } else {
+      logger.info("The SLO doesn't hold at the rate " + rate + " ops: " + violations);
+    }
+    return violations.isEmpty();
+  }
+
+  private List<String> check(StageResult result) {
+    List<String> violations = new ArrayList<>();
+    long total = result.getSuccessCount() + result.getFailureCount();
+    if (result.getSuccessCount() == 0) {
+      violations.add("no operation succeeded");
+      return violations;
+    }
+
+    if (config.getSloLatencyMillis().isPresent()) {
+      double percentile = config.getSloPercentile();
+      double latencyMillis =
+          (double) result.getLatencyAtPercentileNanos(percentile)
+              / TimeUnit.MILLISECONDS.toNanos(1);
+      if (latencyMillis > config.getSloLatencyMillis().get()) {
+        violations.add(String.format("%s percentile latency %.3f ms", percentile, latencyMillis));
+      }
+    }
+
+    double errorRatePercent = result.getFailureCount() * 100.0 / total;
+    if (errorRatePercent > config.getSloErrorRatePercent()) {
+      violations.add(String.format("error rate %.3f %%", errorRatePercent));
+    }
+
+    double achievedPercent = result.getThroughput() * 100.0 / result.getStage().getTargetRate();
+    if (achievedPercent < config.getSloMinAchievedPercent()) {
+      violations.add(String.format("achieved %.1f %% of the rate", achievedPercent));
+    }
+
+    return violations;
+  }
+}
@@ -0,0 +1,92 @@
+package com.scalar.kelpie.executor;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.InjectionSchedule;
+import com.scalar.kelpie.modules.Injector;
+import com.scalar.kelpie.stats.InjectionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TimelineInjectionExecutor executes each {@link Injector} on its own schedule defined with {@code
+ * start_offset_sec}, {@code duration_sec}, {@code repeat_interval_sec} and {@code jitter_sec} in
+ * {@code [[modules.injectors]]}. An injector is injected after {@code start_offset_sec} from the
+ * start of the process and a random delay up to {@code jitter_sec}, and it is ejected after {@code
+ * duration_sec}. It is repeated every {@code repeat_interval_sec} if it is specified. Each period
+ * while an injector was injected is recorded in {@link com.scalar.kelpie.stats.Stats}.
+ */
+public class TimelineInjectionExecutor extends InjectionExecutor {
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  public TimelineInjectionExecutor(List<Injector> injectors, Config config) {
+    super(injectors, config);
+  }
+
+  @Override
+  public void execute(AtomicBoolean isDone) {
+    if (injectors.isEmpty()) {
+      return;
+    }
+
+    long start = System.currentTimeMillis();
+    SplittableRandom random = new SplittableRandom(config.getSeed());
+    ExecutorService es = Executors.newFixedThreadPool(injectors.size());
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Injector injector : injectors) {
+      SplittableRandom injectorRandom = random.split();
+      InjectionSchedule schedule = config.getInjectionSchedule(injector.getClass().getName());
+      futures.add(
+          CompletableFuture.runAsync(
+              () -> execute(injector, schedule, injectorRandom, start, isDone), es));
+    }
+
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+    } finally {
+      es.shutdown();
+    }
+  }
+
+  private void execute(
+      Injector injector,
+      InjectionSchedule schedule,
+      SplittableRandom random,
+      long start,
+      AtomicBoolean isDone) {
+    String name = injector.getClass().getName();
+    long jitterMillis = schedule.getJitterSec() * 1000L;
+    long next = start + schedule.getStartOffsetSec() * 1000L;
+
+    while (true) {
+      long injectAt = next + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0L);
+      if (!awaitUntil(injectAt, isDone)) {
+        return;
+      }
+
+      long injectTime = System.currentTimeMillis();
+      logger.info("Injecting " + name);
+      injector.inject();
+
+      awaitUntil(injectTime + schedule.getDurationSec() * 1000L, isDone);
+
+      injector.eject();
+      long ejectTime = System.currentTimeMillis();
+      logger.info("Ejected " + name);
+      if (stats != null) {
+        stats.recordInjection(new InjectionEvent(name, injectTime, ejectTime));
+      }
+
+      if (schedule.getRepeatIntervalSec() == 0) {
+        return;
+      }
+      next += schedule.getRepeatIntervalSec() * 1000L;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.ProcessFatalException;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.executor.PhaseClock.Phase;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AsyncProcessor executes asynchronous operations for the configured time. Each thread keeps up to
+ * {@code max_in_flight} operations in flight, so that a few threads can simulate many concurrent
+ * clients.
+ */
+public abstract class AsyncProcessor extends Processor {
+  public AsyncProcessor(Config config) {
+    super(config);
+  }
+
+  /**
+   * Runs an asynchronous {@code operation} repeatedly for {@code run_for_sec} after ramping up. A
+   * new operation is issued whenever the number of in-flight operations of this thread is less
+   * than {@code max_in_flight}. The ramp-up runs for {@code ramp_for_sec}, or until the adaptive
+   * warm-up finishes if {@code warmup_mode} is {@code "adaptive"}.
+   */
+  public final void execute() {
+    Stats stats = getStats();
+    int maxInFlight = (int) config.getMaxInFlight();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    AtomicReference<ProcessFatalException> fatal = new AtomicReference<>();
+
+    PhaseClock clock = getPhaseClock();
+    while (clock.getPhase() == Phase.RAMP_UP && fatal.get() == null) {
+      inFlight.acquireUninterruptibly();
+      issue(stats, true, inFlight, fatal);
+    }
+
+    while (clock.getPhase() == Phase.MEASURE && fatal.get() == null) {
+      inFlight.acquireUninterruptibly();
+      issue(stats, false, inFlight, fatal);
+    }
+
+    // Wait for completion of all in-flight operations
+    inFlight.acquireUninterruptibly(maxInFlight);
+
+    if (fatal.get() != null) {
+      throw fatal.get();
+    }
+  }
+
+  /**
+   * Execute an asynchronous operation. This method is invoked repeatedly in {@link #execute()} for
+   * {@code run_for_sec}, and it must not block until the operation completes. If a failure which
+   * you don't want to record its latency happens, the returned future should complete
+   * exceptionally. If the future completes with {@code ProcessFatalException}, the process fails.
+   * Returning {@code null} is recorded as a failure.
+   *
+   * @return a future which completes when the operation finishes
+   * @throws Exception This exception will be caught in {@link #execute()}
+   */
+  protected abstract CompletableFuture<?> executeEach() throws Exception;
+
+  private void issue(
+      Stats stats,
+      boolean isWarmup,
+      Semaphore inFlight,
+      AtomicReference<ProcessFatalException> fatal) {
+    long start = System.nanoTime();
+
+    CompletableFuture<?> future;
+    try {
+      clearOperationType();
+      future = executeEach();
+      if (future == null) {
+        throw new NullPointerException("executeEach() returned null instead of a future");
+      }
+    } catch (Exception e) {
+      future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+    }
+    String type = getOperationType();
+
+    future.whenComplete(
+        (r, e) -> {
+          try {
+            if (e == null) {
+              if (stats != null) {
+                long latency = System.nanoTime() - start;
+                if (isWarmup) {
+                  stats.recordWarmupLatency(latency, TimeUnit.NANOSECONDS);
+                } else {
+                  stats.recordLatency(type, latency, TimeUnit.NANOSECONDS);
+                }
+              }
+              return;
+            }
+
+            Throwable cause =
+                e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ProcessFatalException) {
+              fatal.compareAndSet(null, (ProcessFatalException) cause);
+              return;
+            }
+            if (config.isLogEnabledWhenError()) {
+              logError("An error occurred during executing the processor.", cause);
+            }
+            if (stats != null && !isWarmup) {
+              stats.recordFailure(type);
+            }
+          } finally {
+            inFlight.release();
+          }
+        });
+  }
+}
@@ -0,0 +1,167 @@
+package com.scalar.kelpie.modules;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+
+/**
+ * Checkpoint is the progress of {@link PreProcessor} saved in a local JSON file. It has the
+ * completed partitions of {@link PartitionedPreProcessor} and a checkpoint reported by a user
+ * module. On each update, a temporary file is written and synced to the disk, and then it replaces
+ * the file atomically, so that the file is always readable even if the process or the machine dies
+ * while writing it.
+ */
+@ThreadSafe
+class Checkpoint {
+  private final Path file;
+  private Optional<JsonObject> userCheckpoint = Optional.empty();
+  private KeyRange keyRange;
+  private int numPartitions;
+  private final Set<Integer> completedPartitions = new TreeSet<>();
+
+  /**
+   * Constructs a {@code Checkpoint}.
+   *
+   * @param file the path of the checkpoint file
+   * @param isResumed true if the checkpoint saved in the file is restored. Otherwise, the file is
+   *     overwritten by the first update.
+   */
+  Checkpoint(String file, boolean isResumed) {
+    this.file = Paths.get(file);
+    if (isResumed && Files.exists(this.file)) {
+      read();
+    }
+  }
+
+  synchronized Optional<JsonObject> getUserCheckpoint() {
+    return userCheckpoint;
+  }
+
+  synchronized void saveUserCheckpoint(JsonObject checkpoint) {
+    userCheckpoint = Optional.of(checkpoint);
+    write();
+  }
+
+  /**
+   * Starts partitions of a key range and returns the indexes of the partitions already completed.
+   * If the saved partitions are of a different key range or a different number of partitions, they
+   * are discarded.
+   *
+   * @param range the whole key range
+   * @param numPartitions the number of partitions
+   * @return the indexes of the completed partitions
+   */
+  synchronized Set<Integer> startPartitions(KeyRange range, int numPartitions) {
+    if (keyRange == null
+        || keyRange.getStart() != range.getStart()
+        || keyRange.getEnd() != range.getEnd()
+        || this.numPartitions != numPartitions) {
+      completedPartitions.clear();
+    }
+    this.keyRange = range;
+    this.numPartitions = numPartitions;
+    write();
+
+    return Collections.unmodifiableSet(new TreeSet<>(completedPartitions));
+  }
+
+  synchronized void completePartition(KeyRange partition) {
+    completedPartitions.add(partition.getIndex());
+    write();
+  }
+
+  private void read() {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      JsonObject checkpoint = jsonReader.readObject();
+      if (checkpoint.containsKey("user")) {
+        userCheckpoint = Optional.of(checkpoint.getJsonObject("user"));
+      }
+      if (checkpoint.containsKey("partitions")) {
+        JsonObject partitions = checkpoint.getJsonObject("partitions");
+        keyRange =
+            new KeyRange(
+                partitions.getJsonNumber("start").longValue(),
+                partitions.getJsonNumber("end").longValue());
+        numPartitions = partitions.getInt("num_partitions");
+        for (JsonValue index : partitions.getJsonArray("completed")) {
+          completedPartitions.add(((JsonNumber) index).intValue());
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the checkpoint " + file, e);
+    }
+  }
+
+  private void write() {
+    JsonObjectBuilder builder = Json.createObjectBuilder();
+    userCheckpoint.ifPresent(c -> builder.add("user", c));
+    if (keyRange != null) {
+      JsonArrayBuilder completed = Json.createArrayBuilder();
+      completedPartitions.forEach(i -> completed.add(i.intValue()));
+      builder.add(
+          "partitions",
+          Json.createObjectBuilder()
+              .add("start", keyRange.getStart())
+              .add("end", keyRange.getEnd())
+              .add("num_partitions", numPartitions)
+              .add("completed", completed));
+    }
+
+    StringWriter writer = new StringWriter();
+    try (JsonWriter jsonWriter = Json.createWriter(writer)) {
+      jsonWriter.writeObject(builder.build());
+    }
+    ByteBuffer buffer = StandardCharsets.UTF_8.encode(writer.toString());
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (FileChannel channel =
+          FileChannel.open(
+              temporary,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        // Sync the content before the rename, which may be persisted first
+        channel.force(true);
+      }
+      try {
+        Files.move(
+            temporary,
+            file,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the checkpoint " + file, e);
+    }
+  }
+}
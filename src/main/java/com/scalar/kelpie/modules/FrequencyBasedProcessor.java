@@ -3,6 +3,7 @@ package com.scalar.kelpie.modules;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.exception.ProcessFatalException;
 import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.LongStream;
 
@@ -12,13 +13,18 @@ public abstract class FrequencyBasedProcessor extends Processor {
     super(config);
   }
 
-  /** Runs an {@code operation} repeatedly by {@code num_operations} after ramping up. */
+  /**
+   * Runs an {@code operation} repeatedly by {@code num_operations} after ramping up. The ramp-up
+   * runs by {@code num_operations_for_ramp}, or until the adaptive warm-up finishes if {@code
+   * warmup_mode} is {@code "adaptive"}. The measurement starts when all threads finish ramping up.
+   */
   public final void execute() {
     Stats stats = getStats();
 
     Supplier<Boolean> operation =
         () -> {
           try {
+            clearOperationType();
             executeEach();
             return true;
           } catch (ProcessFatalException e) {
@@ -31,19 +37,30 @@ public abstract class FrequencyBasedProcessor extends Processor {
           }
         };
 
-    long num = config.getNumOperationsForRampUp() / config.getConcurrency();
-    LongStream.range(0, num).forEach(i -> operation.get());
+    if (isAdaptiveWarmup()) {
+      while (!stats.isWarmedUp()) {
+        long start = System.nanoTime();
+        if (operation.get()) {
+          stats.recordWarmupLatency(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+      }
+    } else {
+      long num = config.getNumOperationsForRampUp() / config.getConcurrency();
+      LongStream.range(0, num).forEach(i -> operation.get());
+    }
+    getPhaseClock().awaitMeasurement();
 
-    num = config.getNumOperations() / config.getConcurrency();
+    long num = config.getNumOperations() / config.getConcurrency();
     LongStream.range(0, num)
         .forEach(
             i -> {
-              long start = System.currentTimeMillis();
+              long start = System.nanoTime();
               if (stats != null) {
                 if (operation.get()) {
-                  stats.recordLatency(System.currentTimeMillis() - start);
+                  stats.recordLatency(
+                      getOperationType(), System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 } else {
-                  stats.recordFailure();
+                  stats.recordFailure(getOperationType());
                 }
               }
             });
@@ -0,0 +1,102 @@
+package com.scalar.kelpie.modules;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/** KeyRange is a range of keys from {@code start} (inclusive) to {@code end} (exclusive). */
+@Immutable
+public class KeyRange {
+  private final int index;
+  private final long start;
+  private final long end;
+
+  /**
+   * Constructs a {@code KeyRange}.
+   *
+   * @param start the first key (inclusive)
+   * @param end the last key (exclusive)
+   */
+  public KeyRange(long start, long end) {
+    this(0, start, end);
+  }
+
+  /**
+   * Constructs a {@code KeyRange} as a partition of another range.
+   *
+   * @param index the index of the partition
+   * @param start the first key (inclusive)
+   * @param end the last key (exclusive)
+   */
+  public KeyRange(int index, long start, long end) {
+    if (end < start) {
+      throw new IllegalArgumentException("The end should not be less than the start");
+    }
+    this.index = index;
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns the index of the partition.
+   *
+   * @return the index of the partition
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the first key of the range.
+   *
+   * @return the first key (inclusive)
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the end of the range.
+   *
+   * @return the last key (exclusive)
+   */
+  public long getEnd() {
+    return end;
+  }
+
+  /**
+   * Returns the number of keys in the range.
+   *
+   * @return the number of keys
+   */
+  public long size() {
+    return end - start;
+  }
+
+  /**
+   * Splits this range into partitions of almost the same size. The number of partitions is less
+   * than the given number if this range has fewer keys.
+   *
+   * @param numPartitions the number of partitions
+   * @return a list of partitions
+   */
+  public List<KeyRange> split(int numPartitions) {
+    int n = (int) Math.max(Math.min(numPartitions, size()), 1L);
+    long base = size() / n;
+    long remainder = size() % n;
+
+    List<KeyRange> partitions = new ArrayList<>(n);
+    long partitionStart = start;
+    for (int i = 0; i < n; i++) {
+      long partitionEnd = partitionStart + base + (i < remainder ? 1 : 0);
+      partitions.add(new KeyRange(i, partitionStart, partitionEnd));
+      partitionStart = partitionEnd;
+    }
+    return partitions;
+  }
+
+  @Override
+  public String toString() {
+    return "partition " + index + " [" + start + ", " + end + ")";
+  }
+}
@@ -1,6 +1,8 @@
 package com.scalar.kelpie.modules;
 
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.state.RecordStore;
+import com.scalar.kelpie.state.StateStore;
 import javax.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +15,7 @@ public abstract class Module implements AutoCloseable {
   protected Config config;
   private JsonObject state;
   private JsonObject previousState;
+  private StateStore stateStore;
 
   /**
    * Constructs a {@code Module} with {@link Config}.
@@ -64,6 +67,54 @@ public abstract class Module implements AutoCloseable {
     this.previousState = previousState;
   }
 
+  /**
+   * Sets {@link StateStore} shared by all modules of the job. Only {@link
+   * com.scalar.kelpie.executor.KelpieExecutor} invokes this method. Record stores which this module
+   * created before, for example, in its constructor, are taken over by the shared {@code
+   * StateStore}, so that the next module opens the same stores and they are flushed at the end of
+   * the job.
+   *
+   * @param stateStore {@link StateStore}
+   */
+  public final synchronized void setStateStore(StateStore stateStore) {
+    if (this.stateStore != null) {
+      stateStore.adopt(this.stateStore);
+    }
+    this.stateStore = stateStore;
+  }
+
+  /**
+   * Creates an empty {@link RecordStore} in {@code state_dir} to pass a large state to the next
+   * module, or the next job executed with {@code --only-*} options. Existing records with the same
+   * name are deleted. This method should be invoked before threads start appending records, for
+   * example, in the constructor.
+   *
+   * @param name the name of the store which consists of alphanumerics, '-' and '_'
+   * @param width the number of {@code long} values in a record
+   * @return {@link RecordStore}
+   */
+  protected RecordStore createRecordStore(String name, int width) {
+    return getStateStore().create(name, width);
+  }
+
+  /**
+   * Opens a {@link RecordStore} created by a previous module.
+   *
+   * @param name the name of the store
+   * @return {@link RecordStore}
+   * @throws IllegalArgumentException if the store doesn't exist
+   */
+  protected RecordStore openRecordStore(String name) {
+    return getStateStore().open(name);
+  }
+
+  private synchronized StateStore getStateStore() {
+    if (stateStore == null) {
+      stateStore = new StateStore(config);
+    }
+    return stateStore;
+  }
+
   /**
    * Outputs a log for logging level {@code TRACE}.
    *
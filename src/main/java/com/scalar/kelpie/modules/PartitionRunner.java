@@ -0,0 +1,180 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PartitionRunner runs a task for each partition of a key range on a thread pool of {@code
+ * [partition] concurrency}. A failed partition is retried up to {@code max_retries} times, and the
+ * progress is reported every {@code progress_interval_sec}.
+ */
+@ThreadSafe
+class PartitionRunner {
+  /** A task executed for each partition. */
+  @FunctionalInterface
+  interface PartitionTask {
+    void run(KeyRange partition) throws Exception;
+  }
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final String name;
+  private final Config config;
+  private final LongAdder completedPartitions = new LongAdder();
+  private final LongAdder completedKeys = new LongAdder();
+  private final AtomicLong startTime = new AtomicLong();
+  private final AtomicLong endTime = new AtomicLong();
+
+  /**
+   * Constructs a {@code PartitionRunner}.
+   *
+   * @param name the name of the process shown in the progress report such as {@code "load"}
+   * @param config {@link Config}
+   */
+  PartitionRunner(String name, Config config) {
+    this.name = name;
+    this.config = config;
+  }
+
+  /**
+   * Runs the task for all partitions and waits for their completion.
+   *
+   * @param partitions partitions to be processed
+   * @param task a task executed for each partition
+   * @return partitions which failed even after the retries
+   */
+  List<KeyRange> run(List<KeyRange> partitions, PartitionTask task) {
+    return run(partitions, task, p -> {});
+  }
+
+  /**
+   * Runs the task for all partitions and waits for their completion.
+   *
+   * @param partitions partitions to be processed
+   * @param task a task executed for each partition
+   * @param onCompleted a callback invoked when a partition is completed
+   * @return partitions which failed even after the retries
+   */
+  List<KeyRange> run(
+      List<KeyRange> partitions, PartitionTask task, Consumer<KeyRange> onCompleted) {
+    long totalKeys = partitions.stream().mapToLong(KeyRange::size).sum();
+    ConcurrentLinkedQueue<KeyRange> failed = new ConcurrentLinkedQueue<>();
+    ExecutorService workers = Executors.newFixedThreadPool((int) config.getPartitionConcurrency());
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+
+    startTime.set(System.currentTimeMillis());
+    long interval = config.getPartitionProgressIntervalSec();
+    reporter.scheduleAtFixedRate(
+        () -> reportProgress(partitions.size(), totalKeys), interval, interval, TimeUnit.SECONDS);
+
+    try {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (KeyRange partition : partitions) {
+        futures.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  if (runWithRetries(partition, task)) {
+                    completedPartitions.increment();
+                    completedKeys.add(partition.size());
+                    onCompleted.accept(partition);
+                  } else {
+                    failed.add(partition);
+                  }
+                },
+                workers));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+    } finally {
+      endTime.set(System.currentTimeMillis());
+      reporter.shutdownNow();
+      workers.shutdown();
+    }
+
+    logger.info(
+        String.format(
+            "The %s processed %d keys of %d partitions in %.1f sec (%.1f keys/sec), %d"
+                + " partitions failed",
+            name,
+            getCompletedKeys(),
+            completedPartitions.sum(),
+            getElapsedSec(),
+            getThroughput(),
+            failed.size()));
+
+    List<KeyRange> result = new ArrayList<>(failed);
+    result.sort(Comparator.comparingInt(KeyRange::getIndex));
+    return result;
+  }
+
+  /**
+   * Returns the number of keys in the completed partitions.
+   *
+   * @return the number of keys
+   */
+  long getCompletedKeys() {
+    return completedKeys.sum();
+  }
+
+  /**
+   * Returns the elapsed time since the start.
+   *
+   * @return the elapsed time in seconds
+   */
+  double getElapsedSec() {
+    long end = endTime.get() == 0L ? System.currentTimeMillis() : endTime.get();
+    return (end - startTime.get()) / 1000.0;
+  }
+
+  /**
+   * Returns the number of keys processed per second.
+   *
+   * @return throughput (keys per second)
+   */
+  double getThroughput() {
+    return getCompletedKeys() / Math.max(getElapsedSec(), 0.001);
+  }
+
+  private boolean runWithRetries(KeyRange partition, PartitionTask task) {
+    long maxRetries = config.getPartitionMaxRetries();
+    for (long attempt = 0; ; attempt++) {
+      try {
+        task.run(partition);
+        return true;
+      } catch (Exception e) {
+        if (attempt >= maxRetries) {
+          logger.error("The " + name + " of " + partition + " failed", e);
+          return false;
+        }
+        logger.warn(
+            "The " + name + " of " + partition + " failed. Retrying (" + (attempt + 1) + ")", e);
+      }
+    }
+  }
+
+  private void reportProgress(int totalPartitions, long totalKeys) {
+    long keys = getCompletedKeys();
+    logger.info(
+        String.format(
+            "Progress of the %s: %d/%d partitions, %d/%d keys (%.1f %%), %.1f keys/sec",
+            name,
+            completedPartitions.sum(),
+            totalPartitions,
+            keys,
+            totalKeys,
+            totalKeys == 0 ? 100.0 : keys * 100.0 / totalKeys,
+            getThroughput()));
+  }
+}
@@ -0,0 +1,127 @@
+package com.scalar.kelpie.modules;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * PartitionVerification collects the result of verifying a partition in {@link
+ * VerificationPostProcessor}. The result is counted only when the verification of the partition
+ * finishes without an exception, so that a retried partition isn't counted twice.
+ *
+ * <p>Mismatches are spilled to a temporary file of the attempt as they are found, so that a broken
+ * partition doesn't hold all of them in memory. The file is appended to the mismatch report when
+ * the attempt succeeds, and it is deleted either way.
+ */
+@NotThreadSafe
+public class PartitionVerification {
+  private final KeyRange partition;
+  private Path mismatchFile;
+  private BufferedWriter mismatches;
+  private long passedCount = 0L;
+  private long mismatchCount = 0L;
+
+  PartitionVerification(KeyRange partition) {
+    this.partition = partition;
+  }
+
+  /**
+   * Returns the partition being verified.
+   *
+   * @return {@link KeyRange}
+   */
+  public KeyRange getPartition() {
+    return partition;
+  }
+
+  /** Records a record which has passed the verification. */
+  public void pass() {
+    pass(1L);
+  }
+
+  /**
+   * Records records which have passed the verification.
+   *
+   * @param count the number of passed records
+   */
+  public void pass(long count) {
+    passedCount += count;
+  }
+
+  /**
+   * Records a record which doesn't match the expected one. It is written to the mismatch report.
+   *
+   * @param key the key of the record
+   * @param detail the description of the mismatch such as the expected and actual values
+   */
+  public void mismatch(long key, String detail) {
+    try {
+      if (mismatches == null) {
+        mismatchFile = Files.createTempFile("kelpie_mismatches_" + partition.getIndex(), ".csv");
+        mismatches = Files.newBufferedWriter(mismatchFile, StandardCharsets.UTF_8);
+      }
+      mismatches.write(partition.getIndex() + "," + key + "," + escape(detail));
+      mismatches.write("\n");
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write a mismatch of " + partition, e);
+    }
+    mismatchCount++;
+  }
+
+  long getPassedCount() {
+    return passedCount;
+  }
+
+  long getMismatchCount() {
+    return mismatchCount;
+  }
+
+  /**
+   * Appends the mismatches found in this attempt to the report.
+   *
+   * @param report the mismatch report
+   * @throws IOException if the mismatches can't be read or written
+   */
+  void writeMismatches(Writer report) throws IOException {
+    if (mismatches == null) {
+      return;
+    }
+    mismatches.close();
+    try (BufferedReader reader = Files.newBufferedReader(mismatchFile, StandardCharsets.UTF_8)) {
+      char[] buffer = new char[8192];
+      int length;
+      while ((length = reader.read(buffer)) >= 0) {
+        report.write(buffer, 0, length);
+      }
+    }
+  }
+
+  /** Deletes the temporary file of the mismatches. */
+  void discard() {
+    if (mismatches == null) {
+      return;
+    }
+    try {
+      mismatches.close();
+      Files.deleteIfExists(mismatchFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete " + mismatchFile, e);
+    }
+  }
+
+  private static String escape(String detail) {
+    if (detail == null) {
+      return "";
+    }
+    if (detail.contains(",") || detail.contains("\"") || detail.contains("\n")) {
+      return "\"" + detail.replace("\"", "\"\"") + "\"";
+    }
+    return detail;
+  }
+}
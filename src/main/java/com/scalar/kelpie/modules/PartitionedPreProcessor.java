@@ -0,0 +1,105 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.PreProcessException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * PartitionedPreProcessor loads data in parallel. The key range given by {@link #getKeyRange()} is
+ * split into {@code [partition] num_partitions} partitions, and {@link #loadPartition(KeyRange)} is
+ * executed for each partition by {@code [partition] concurrency} threads. A failed partition is
+ * retried up to {@code [partition] max_retries} times, so that {@code loadPartition} should be
+ * idempotent.
+ *
+ * <p>Completed partitions are saved to the checkpoint file, and they are skipped when the job is
+ * executed again with {@code --resume}. If all partitions have been completed, nothing is loaded.
+ */
+public abstract class PartitionedPreProcessor extends PreProcessor {
+  private final PartitionRunner runner;
+
+  public PartitionedPreProcessor(Config config) {
+    super(config);
+    this.runner = new PartitionRunner("load", config);
+  }
+
+  /**
+   * Returns the whole range of keys to be loaded.
+   *
+   * @return {@link KeyRange}
+   */
+  protected abstract KeyRange getKeyRange();
+
+  /**
+   * Loads data of keys in a partition. This method is executed by multiple threads concurrently,
+   * so that it should be thread-safe.
+   *
+   * @param partition a partition of the key range
+   * @throws Exception if the load fails. The partition will be retried.
+   */
+  protected abstract void loadPartition(KeyRange partition) throws Exception;
+
+  /**
+   * Loads all partitions and waits for their completion.
+   *
+   * @throws PreProcessException if any partition fails even after the retries
+   */
+  @Override
+  public final void execute() {
+    KeyRange range = getKeyRange();
+    List<KeyRange> partitions = range.split((int) config.getNumPartitions());
+    Checkpoint checkpoint = getCheckpointFile();
+    Set<Integer> completed = checkpoint.startPartitions(range, partitions.size());
+    if (completed.size() == partitions.size()) {
+      logWarn(
+          "All "
+              + completed.size()
+              + " partitions have already been completed according to the checkpoint "
+              + config.getCheckpointFile()
+              + ". Nothing is loaded. Execute the job without --resume to load the data again");
+      return;
+    }
+    if (!completed.isEmpty()) {
+      logInfo("Resuming the load. " + completed.size() + " partitions have been completed");
+      partitions =
+          partitions.stream()
+              .filter(p -> !completed.contains(p.getIndex()))
+              .collect(Collectors.toList());
+    }
+    logInfo(
+        "Loading "
+            + partitions.stream().mapToLong(KeyRange::size).sum()
+            + " keys in "
+            + partitions.size()
+            + " partitions with "
+            + config.getPartitionConcurrency()
+            + " threads");
+
+    List<KeyRange> failed =
+        runner.run(partitions, this::loadPartition, checkpoint::completePartition);
+    if (!failed.isEmpty()) {
+      String indexes =
+          failed.stream().map(p -> String.valueOf(p.getIndex())).collect(Collectors.joining(","));
+      throw new PreProcessException("Failed to load partitions: " + indexes);
+    }
+  }
+
+  /**
+   * Returns the number of loaded keys.
+   *
+   * @return the number of keys in the loaded partitions
+   */
+  public long getLoadedKeys() {
+    return runner.getCompletedKeys();
+  }
+
+  /**
+   * Returns the load throughput.
+   *
+   * @return the number of loaded keys per second
+   */
+  public double getLoadThroughput() {
+    return runner.getThroughput();
+  }
+}
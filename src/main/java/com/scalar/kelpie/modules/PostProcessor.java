@@ -1,14 +1,22 @@
 package com.scalar.kelpie.modules;
 
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.PostProcessException;
+import com.scalar.kelpie.state.Accumulator;
 import com.scalar.kelpie.stats.Stats;
+import java.io.File;
+import java.util.List;
 
 /** PostProcessor executes a process after {@link Processor#execute()} finishes. */
 public abstract class PostProcessor extends Module {
   private Stats stats;
+  private Accumulator previousAccumulator;
+  private boolean baselineChecked;
 
   public PostProcessor(Config config) {
     super(config);
+    this.previousAccumulator = new Accumulator();
+    this.previousAccumulator.close();
   }
 
   public abstract void execute();
@@ -31,6 +39,25 @@ public abstract class PostProcessor extends Module {
     this.stats = stats;
   }
 
+  /**
+   * Returns {@link Accumulator} of {@link Processor} with the results recorded by all threads.
+   *
+   * @return {@link Accumulator}
+   */
+  public Accumulator getPreviousAccumulator() {
+    return previousAccumulator;
+  }
+
+  /**
+   * Sets {@link Accumulator} of {@link Processor}. Only {@link
+   * com.scalar.kelpie.executor.KelpieExecutor} invokes this method after the processor finishes.
+   *
+   * @param previousAccumulator {@link Accumulator}
+   */
+  public void setPreviousAccumulator(Accumulator previousAccumulator) {
+    this.previousAccumulator = previousAccumulator;
+  }
+
   /** Outputs the summary of the statistics. */
   protected void getSummary() {
     if (stats == null) {
@@ -39,4 +66,41 @@ public abstract class PostProcessor extends Module {
 
     logInfo(stats.getSummary());
   }
+
+  /**
+   * Compares the statistics with the result of a previous run specified by {@code baseline_file} of
+   * {@code [stats]}. Nothing is checked if {@code baseline_file} isn't specified. {@link
+   * com.scalar.kelpie.executor.KelpieExecutor} compares them after {@link #execute()}, so that you
+   * need to invoke this method only to compare them at a specific point of the post-process.
+   *
+   * @throws PostProcessException if the performance regresses from the baseline
+   */
+  protected final void checkBaseline() {
+    if (stats == null || !config.getBaselineFile().isPresent()) {
+      return;
+    }
+    baselineChecked = true;
+
+    List<String> regressions = stats.compareWithBaseline(new File(config.getBaselineFile().get()));
+    if (regressions.isEmpty()) {
+      logInfo("No performance regression from the baseline");
+      return;
+    }
+
+    regressions.forEach(this::logError);
+    throw new PostProcessException(
+        "Performance regressed from the baseline: " + String.join(", ", regressions));
+  }
+
+  /**
+   * Compares the statistics with the baseline if {@link #checkBaseline()} hasn't been invoked. Only
+   * {@link com.scalar.kelpie.executor.KelpieExecutor} invokes this method after {@link #execute()}.
+   *
+   * @throws PostProcessException if the performance regresses from the baseline
+   */
+  public final void checkBaselineIfNotChecked() {
+    if (!baselineChecked) {
+      checkBaseline();
+    }
+  }
 }
@@ -1,13 +1,45 @@
 package com.scalar.kelpie.modules;
 
 import com.scalar.kelpie.config.Config;
+import java.util.Optional;
+import javax.json.JsonObject;
 
 /** PreProcessor executes a process before {@link Processor#execute()}. */
 public abstract class PreProcessor extends Module {
+  private Checkpoint checkpoint;
 
   public PreProcessor(Config config) {
     super(config);
   }
 
   public abstract void execute();
+
+  /**
+   * Saves the progress of this pre-process to the checkpoint file. When the job is executed again
+   * with {@code --resume}, it can be restored with {@link #getCheckpoint()} to skip the completed
+   * work.
+   *
+   * @param checkpoint the progress as a {@code JsonObject}
+   */
+  protected final void saveCheckpoint(JsonObject checkpoint) {
+    getCheckpointFile().saveUserCheckpoint(checkpoint);
+  }
+
+  /**
+   * Returns the last progress saved with {@link #saveCheckpoint(JsonObject)}. When the job is
+   * resumed, it is the progress of the previous execution until this execution saves a new one.
+   *
+   * @return an {@code Optional} with the progress, or an empty {@code Optional} if no progress has
+   *     been saved
+   */
+  protected final Optional<JsonObject> getCheckpoint() {
+    return getCheckpointFile().getUserCheckpoint();
+  }
+
+  synchronized Checkpoint getCheckpointFile() {
+    if (checkpoint == null) {
+      checkpoint = new Checkpoint(config.getCheckpointFile(), config.isResumeEnabled());
+    }
+    return checkpoint;
+  }
 }
@@ -1,14 +1,31 @@
 package com.scalar.kelpie.modules;
 
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.state.Accumulator;
 import com.scalar.kelpie.stats.Stats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 /** Processor executes operations. */
 public abstract class Processor extends Module {
+  private final ThreadLocal<String> operationType = new ThreadLocal<>();
   private Stats stats;
+  private PhaseClock phaseClock;
+  private final Accumulator accumulator = new Accumulator();
+  private final ThreadLocal<SplittableRandom> random = new ThreadLocal<>();
+  private final SplittableRandom rootRandom;
+  private final SplittableRandom otherRandom;
+  private final List<SplittableRandom> workerRandoms = new ArrayList<>();
 
   public Processor(Config config) {
     super(config);
+    this.phaseClock = new PhaseClock(config, null, 1, true);
+    this.rootRandom = new SplittableRandom(config.getSeed());
+    // Generators for non-worker threads are split from another generator so that they don't
+    // change the generators of workers
+    this.otherRandom = rootRandom.split();
   }
 
   public abstract void execute();
@@ -31,6 +48,96 @@ public abstract class Processor extends Module {
     this.stats = stats;
   }
 
+  /**
+   * Returns {@link com.scalar.kelpie.executor.PhaseClock} shared by all threads executing this
+   * processor.
+   *
+   * @return {@link com.scalar.kelpie.executor.PhaseClock}
+   */
+  public PhaseClock getPhaseClock() {
+    return phaseClock;
+  }
+
+  /**
+   * Sets {@link com.scalar.kelpie.executor.PhaseClock}.
+   *
+   * @param phaseClock {@link com.scalar.kelpie.executor.PhaseClock}
+   */
+  public void setPhaseClock(PhaseClock phaseClock) {
+    this.phaseClock = phaseClock;
+  }
+
+  /**
+   * Returns the random number generator of the current thread. Each worker thread has its own
+   * generator split from {@code seed} of {@code [common]} in the order of the worker IDs, so that
+   * threads don't contend on it and each worker generates the same sequence with the same seed.
+   *
+   * @return {@code SplittableRandom} of the current thread
+   */
+  protected final SplittableRandom getRandom() {
+    SplittableRandom r = random.get();
+    if (r == null) {
+      // A thread which isn't a worker, such as a callback thread, gets a new generator
+      synchronized (otherRandom) {
+        r = otherRandom.split();
+      }
+      random.set(r);
+    }
+    return r;
+  }
+
+  /**
+   * Sets the ID of the worker which the current thread executes. Only {@link
+   * com.scalar.kelpie.executor.KelpieExecutor} invokes this method before the thread executes this
+   * processor.
+   *
+   * @param workerId the ID of the worker starting with 0
+   */
+  public final void setWorkerId(int workerId) {
+    synchronized (rootRandom) {
+      while (workerRandoms.size() <= workerId) {
+        workerRandoms.add(rootRandom.split());
+      }
+      random.set(workerRandoms.get(workerId));
+    }
+  }
+
+  /**
+   * Returns {@link Accumulator} to which all threads executing this processor can record their
+   * results concurrently. It is given to {@link PostProcessor} after this processor finishes.
+   *
+   * @return {@link Accumulator}
+   */
+  public Accumulator getAccumulator() {
+    return accumulator;
+  }
+
+  /**
+   * Sets the type of the operation which the current thread is executing. When this is invoked in
+   * {@code executeEach()} of {@link TimeBasedProcessor}, {@link FrequencyBasedProcessor}, {@link
+   * RateBasedProcessor} or {@link AsyncProcessor}, the latency or the failure of the operation is
+   * recorded under the type. The type has to be registered with {@code operation_types} of {@code
+   * [stats]}.
+   *
+   * @param name an operation type
+   */
+  protected final void setOperationType(String name) {
+    operationType.set(name);
+  }
+
+  final String getOperationType() {
+    return operationType.get();
+  }
+
+  final void clearOperationType() {
+    // Setting null instead of removing keeps the entry to avoid an allocation for each operation
+    operationType.set(null);
+  }
+
+  final boolean isAdaptiveWarmup() {
+    return stats != null && config.getWarmupMode().equals(Config.ADAPTIVE_WARMUP);
+  }
+
   @Override
   protected void logTrace(String message) {
     super.logTrace(prependThreadId(message));
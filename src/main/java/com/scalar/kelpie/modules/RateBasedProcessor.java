@@ -0,0 +1,117 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import com.scalar.kelpie.exception.ProcessFatalException;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.executor.PhaseClock.Phase;
+import com.scalar.kelpie.stats.Stats;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * RateBasedProcessor executes operations at the configured rate for the configured time. Unlike
+ * {@link TimeBasedProcessor}, an operation is issued at its scheduled time regardless of whether
+ * the previous one has finished on time, and the latency is measured from the scheduled time. A
+ * stall of the target system is therefore reflected in the latencies of all operations which
+ * should have been issued during the stall.
+ */
+public abstract class RateBasedProcessor extends Processor {
+  public RateBasedProcessor(Config config) {
+    super(config);
+    if (config.getLoadStages().isEmpty()
+        && !config.isSaturationSearchEnabled()
+        && config.getTargetRate() <= 0) {
+      throw new IllegalConfigException("common.target_rate is required for RateBasedProcessor");
+    }
+    if (config.getLoadStages().stream().anyMatch(s -> s.getTargetRate() <= 0)) {
+      throw new IllegalConfigException(
+          "target_rate of each stage is required for RateBasedProcessor");
+    }
+  }
+
+  /**
+   * Runs an {@code operation} at {@code target_rate} for {@code run_for_sec} after ramping up. The
+   * rate is divided equally among all threads. With a load profile, the rate of the current stage
+   * is used. The ramp-up runs for {@code ramp_for_sec}, or until the adaptive warm-up finishes if
+   * {@code warmup_mode} is {@code "adaptive"}.
+   */
+  public final void execute() {
+    Stats stats = getStats();
+
+    Supplier<Boolean> operation =
+        () -> {
+          try {
+            clearOperationType();
+            executeEach();
+            return true;
+          } catch (ProcessFatalException e) {
+            throw e;
+          } catch (Exception e) {
+            if (config.isLogEnabledWhenError()) {
+              logError("An error occurred during executing the processor.", e);
+            }
+            return false;
+          }
+        };
+
+    PhaseClock clock = getPhaseClock();
+    LoadStage stage = clock.getStage();
+    double intervalNanos =
+        TimeUnit.SECONDS.toNanos(1) * (double) stage.getConcurrency() / stage.getTargetRate();
+
+    // The arrivals are generated with the generator of the worker to be reproducible by the seed
+    SplittableRandom random = getRandom();
+
+    // Spread the first operations of threads over an interval to avoid a burst
+    long intended = System.nanoTime() + (long) (random.nextDouble() * intervalNanos);
+
+    while (clock.getPhase(intended) == Phase.RAMP_UP) {
+      waitUntil(intended);
+      if (operation.get() && stats != null) {
+        stats.recordWarmupLatency(System.nanoTime() - intended, TimeUnit.NANOSECONDS);
+      }
+      intended += nextInterval(random, intervalNanos);
+    }
+
+    while (clock.getPhase(intended) == Phase.MEASURE) {
+      waitUntil(intended);
+      if (stats != null) {
+        if (operation.get()) {
+          stats.recordLatency(
+              getOperationType(), System.nanoTime() - intended, TimeUnit.NANOSECONDS);
+        } else {
+          stats.recordFailure(getOperationType());
+        }
+      }
+      intended += nextInterval(random, intervalNanos);
+    }
+  }
+
+  /**
+   * Execute an operation. This method is invoked in {@link #execute()} at {@code target_rate} for
+   * {@code run_for_sec}. If a failure which you don't want to record its latency happens, this
+   * method should throw an exception. The exception will be caught in {@link #execute()}.
+   *
+   * @throws Exception This exception will be caught in {@link #execute()}
+   */
+  protected abstract void executeEach() throws Exception;
+
+  private long nextInterval(SplittableRandom random, double meanNanos) {
+    if (config.getArrivalDistribution().equals(Config.POISSON_ARRIVAL)) {
+      // Exponentially distributed inter-arrival times make a Poisson process
+      return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+    }
+    return (long) meanNanos;
+  }
+
+  private void waitUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
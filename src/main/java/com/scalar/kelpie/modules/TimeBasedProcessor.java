@@ -2,7 +2,10 @@ package com.scalar.kelpie.modules;
 
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.exception.ProcessFatalException;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.executor.PhaseClock.Phase;
 import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /** TimeBasedProcessor executes operations for the configured time. */
@@ -11,13 +14,18 @@ public abstract class TimeBasedProcessor extends Processor {
     super(config);
   }
 
-  /** Runs an {@code operation} repeatedly for {@code run_for_sec} after ramping up. */
+  /**
+   * Runs an {@code operation} repeatedly for {@code run_for_sec} after ramping up. The ramp-up runs
+   * for {@code ramp_for_sec}, or until the adaptive warm-up finishes if {@code warmup_mode} is
+   * {@code "adaptive"}. The phases are decided by {@link PhaseClock} shared by all threads.
+   */
   public final void execute() {
     Stats stats = getStats();
 
     Supplier<Boolean> operation =
         () -> {
           try {
+            clearOperationType();
             executeEach();
             return true;
           } catch (ProcessFatalException e) {
@@ -30,19 +38,21 @@ public abstract class TimeBasedProcessor extends Processor {
           }
         };
 
-    long end = System.currentTimeMillis() + config.getRampForSec() * 1000L;
-    while (System.currentTimeMillis() < end) {
-      operation.get();
+    PhaseClock clock = getPhaseClock();
+    while (clock.getPhase() == Phase.RAMP_UP) {
+      long start = System.nanoTime();
+      if (operation.get() && stats != null) {
+        stats.recordWarmupLatency(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
     }
 
-    end = System.currentTimeMillis() + config.getRunForSec() * 1000L;
-    while (System.currentTimeMillis() < end) {
-      long start = System.currentTimeMillis();
+    while (clock.getPhase() == Phase.MEASURE) {
+      long start = System.nanoTime();
       if (stats != null) {
         if (operation.get()) {
-          stats.recordLatency(System.currentTimeMillis() - start);
+          stats.recordLatency(getOperationType(), System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } else {
-          stats.recordFailure();
+          stats.recordFailure(getOperationType());
         }
       }
     }
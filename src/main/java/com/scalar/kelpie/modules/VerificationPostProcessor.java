@@ -0,0 +1,137 @@
+package com.scalar.kelpie.modules;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.PostProcessException;
+import com.scalar.kelpie.stats.VerificationResult;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * VerificationPostProcessor verifies records in parallel. The key range given by {@link
+ * #getKeyRange()} is split into {@code [partition] num_partitions} partitions, and {@link
+ * #verifyPartition(KeyRange, PartitionVerification)} is executed for each partition by {@code
+ * [partition] concurrency} threads. A partition which throws an exception is retried up to {@code
+ * [partition] max_retries} times.
+ *
+ * <p>Mismatches are written to {@code [partition] mismatch_report_file} as CSV while the
+ * verification is running, each time a partition has been verified. The numbers of passed and
+ * mismatched records are recorded in {@link com.scalar.kelpie.stats.Stats} and included in the
+ * exported result.
+ */
+public abstract class VerificationPostProcessor extends PostProcessor {
+  private final PartitionRunner runner;
+
+  public VerificationPostProcessor(Config config) {
+    super(config);
+    this.runner = new PartitionRunner("verification", config);
+  }
+
+  /**
+   * Returns the whole range of keys to be verified.
+   *
+   * @return {@link KeyRange}
+   */
+  protected abstract KeyRange getKeyRange();
+
+  /**
+   * Verifies records of keys in a partition. This method is executed by multiple threads
+   * concurrently, so that it should be thread-safe.
+   *
+   * @param partition a partition of the key range
+   * @param verification {@link PartitionVerification} to which passed and mismatched records are
+   *     reported
+   * @throws Exception if the verification fails. The partition will be retried.
+   */
+  protected abstract void verifyPartition(KeyRange partition, PartitionVerification verification)
+      throws Exception;
+
+  /**
+   * Verifies all partitions. You can override this method to do something before or after {@link
+   * #verify()}, for example, to output the summary with {@link #getSummary()}.
+   *
+   * @throws PostProcessException if a mismatch is found or any partition fails
+   */
+  @Override
+  public void execute() {
+    verify();
+  }
+
+  /**
+   * Verifies all partitions and waits for their completion.
+   *
+   * @return {@link VerificationResult}
+   * @throws PostProcessException if a mismatch is found or any partition fails
+   */
+  protected final VerificationResult verify() {
+    List<KeyRange> partitions = getKeyRange().split((int) config.getNumPartitions());
+    logInfo(
+        "Verifying "
+            + getKeyRange().size()
+            + " keys in "
+            + partitions.size()
+            + " partitions with "
+            + config.getPartitionConcurrency()
+            + " threads");
+
+    LongAdder passed = new LongAdder();
+    LongAdder mismatched = new LongAdder();
+    List<KeyRange> failed;
+    Path reportFile = Paths.get(config.getMismatchReportFile());
+    try (BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+      report.write("partition,key,detail\n");
+      failed =
+          runner.run(
+              partitions,
+              partition -> {
+                PartitionVerification verification = new PartitionVerification(partition);
+                try {
+                  verifyPartition(partition, verification);
+                  synchronized (report) {
+                    verification.writeMismatches(report);
+                    report.flush();
+                  }
+                  passed.add(verification.getPassedCount());
+                  mismatched.add(verification.getMismatchCount());
+                } finally {
+                  verification.discard();
+                }
+              });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the mismatch report", e);
+    }
+
+    VerificationResult result =
+        new VerificationResult(passed.sum(), mismatched.sum(), failed.size());
+    if (getStats() != null) {
+      getStats().recordVerification(result);
+      getStats().exportResult();
+    }
+
+    logInfo(
+        "Verification result: "
+            + result.getPassedCount()
+            + " passed, "
+            + result.getMismatchCount()
+            + " mismatched, "
+            + result.getFailedPartitionCount()
+            + " partitions failed");
+    if (!result.isPassed()) {
+      throw new PostProcessException(
+          "Verification failed: "
+              + result.getMismatchCount()
+              + " mismatches (see "
+              + config.getMismatchReportFile()
+              + "), "
+              + result.getFailedPartitionCount()
+              + " failed partitions");
+    }
+    return result;
+  }
+}
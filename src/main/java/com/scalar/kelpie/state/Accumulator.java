@@ -0,0 +1,197 @@
+package com.scalar.kelpie.state;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Accumulator accumulates results of operations executed by multiple threads of {@link
+ * com.scalar.kelpie.modules.Processor} without external synchronization. It has three kinds of
+ * named containers of primitive values.
+ *
+ * <ul>
+ *   <li>Counters, which are striped with {@link LongAdder}
+ *   <li>Sets of {@code long} values, which are {@link ConcurrentLongSet}s
+ *   <li>Lists of {@code long} values, which are appended to the buffer of each thread and merged
+ *       when this accumulator is closed
+ * </ul>
+ *
+ * <p>{@link com.scalar.kelpie.executor.KelpieExecutor} closes the accumulator after the processor
+ * finishes and gives it to {@link com.scalar.kelpie.modules.PostProcessor}.
+ */
+@ThreadSafe
+public class Accumulator implements AutoCloseable {
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private final Map<String, ConcurrentLongSet> sets = new ConcurrentHashMap<>();
+  private final Queue<Map<String, LongBuffer>> threadBuffers = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<Map<String, LongBuffer>> buffers =
+      ThreadLocal.withInitial(
+          () -> {
+            Map<String, LongBuffer> buffer = new HashMap<>();
+            threadBuffers.add(buffer);
+            return buffer;
+          });
+  private volatile Map<String, long[]> lists;
+
+  /**
+   * Adds a delta to a counter.
+   *
+   * @param counter the name of the counter
+   * @param delta a delta
+   */
+  public void add(String counter, long delta) {
+    LongAdder adder = counters.get(counter);
+    if (adder == null) {
+      adder = counters.computeIfAbsent(counter, c -> new LongAdder());
+    }
+    adder.add(delta);
+  }
+
+  /**
+   * Increments a counter.
+   *
+   * @param counter the name of the counter
+   */
+  public void increment(String counter) {
+    add(counter, 1L);
+  }
+
+  /**
+   * Returns the value of a counter.
+   *
+   * @param counter the name of the counter
+   * @return the value, or 0 if nothing has been added to the counter
+   */
+  public long getCounter(String counter) {
+    LongAdder adder = counters.get(counter);
+    return adder == null ? 0L : adder.sum();
+  }
+
+  /**
+   * Returns the values of all counters.
+   *
+   * @return a map of counter names and their values
+   */
+  public Map<String, Long> getCounters() {
+    Map<String, Long> values = new TreeMap<>();
+    counters.forEach((name, adder) -> values.put(name, adder.sum()));
+    return values;
+  }
+
+  /**
+   * Adds a value to a set.
+   *
+   * @param set the name of the set
+   * @param value a value
+   * @return true if the value has been added, false if it already exists
+   */
+  public boolean addToSet(String set, long value) {
+    return getSet(set).add(value);
+  }
+
+  /**
+   * Returns a set. An empty set is created if it doesn't exist.
+   *
+   * @param set the name of the set
+   * @return {@link ConcurrentLongSet}
+   */
+  public ConcurrentLongSet getSet(String set) {
+    ConcurrentLongSet values = sets.get(set);
+    if (values == null) {
+      values = sets.computeIfAbsent(set, s -> new ConcurrentLongSet());
+    }
+    return values;
+  }
+
+  /**
+   * Appends a value to a list. The value is stored in the buffer of the current thread, and it can
+   * be read with {@link #getList(String)} after this accumulator is closed.
+   *
+   * @param list the name of the list
+   * @param value a value
+   * @throws IllegalStateException if this accumulator has been closed
+   */
+  public void append(String list, long value) {
+    if (lists != null) {
+      throw new IllegalStateException("The accumulator has been closed");
+    }
+    Map<String, LongBuffer> buffer = buffers.get();
+    LongBuffer values = buffer.get(list);
+    if (values == null) {
+      values = new LongBuffer();
+      buffer.put(list, values);
+    }
+    values.add(value);
+  }
+
+  /**
+   * Returns the values of a list appended by all threads. The values appended by a thread are in
+   * the appended order, but the values of different threads are concatenated in no particular
+   * order.
+   *
+   * @param list the name of the list
+   * @return the values, or an empty array if nothing has been appended to the list
+   * @throws IllegalStateException if this accumulator hasn't been closed
+   */
+  public long[] getList(String list) {
+    Map<String, long[]> merged = lists;
+    if (merged == null) {
+      throw new IllegalStateException("The lists can be read after the accumulator is closed");
+    }
+    return merged.getOrDefault(list, new long[0]);
+  }
+
+  /**
+   * Merges the buffers of all threads into lists. It should be invoked after all threads finish
+   * appending values.
+   */
+  @Override
+  public synchronized void close() {
+    if (lists != null) {
+      return;
+    }
+
+    Map<String, Integer> sizes = new HashMap<>();
+    for (Map<String, LongBuffer> buffer : threadBuffers) {
+      buffer.forEach((name, values) -> sizes.merge(name, values.size, Integer::sum));
+    }
+
+    Map<String, long[]> merged = new HashMap<>();
+    Map<String, Integer> positions = new HashMap<>();
+    sizes.forEach(
+        (name, size) -> {
+          merged.put(name, new long[size]);
+          positions.put(name, 0);
+        });
+    for (Map<String, LongBuffer> buffer : threadBuffers) {
+      buffer.forEach(
+          (name, values) -> {
+            int position = positions.get(name);
+            System.arraycopy(values.values, 0, merged.get(name), position, values.size);
+            positions.put(name, position + values.size);
+          });
+    }
+
+    threadBuffers.clear();
+    lists = Collections.unmodifiableMap(merged);
+  }
+
+  private static class LongBuffer {
+    private long[] values = new long[64];
+    private int size = 0;
+
+    void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+}
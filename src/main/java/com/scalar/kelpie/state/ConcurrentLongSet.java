@@ -0,0 +1,169 @@
+package com.scalar.kelpie.state;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * ConcurrentLongSet is a set of primitive {@code long} values which multiple threads can update
+ * concurrently. Values are stored in open-addressing tables of stripes selected by the hash of the
+ * value, so that adding a value doesn't allocate an object and threads rarely contend on a stripe.
+ */
+@ThreadSafe
+public class ConcurrentLongSet {
+  private static final int DEFAULT_STRIPES = 64;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Stripe[] stripes;
+  private final int shift;
+  // 0 is used as the empty slot of the tables
+  private final AtomicBoolean hasZero = new AtomicBoolean(false);
+
+  public ConcurrentLongSet() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * Constructs a {@code ConcurrentLongSet}.
+   *
+   * @param numStripes the number of stripes. It is rounded up to a power of two.
+   */
+  public ConcurrentLongSet(int numStripes) {
+    int n = Integer.highestOneBit(Math.max(numStripes, 1) * 2 - 1);
+    this.stripes = new Stripe[n];
+    for (int i = 0; i < n; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.shift = 64 - Integer.numberOfTrailingZeros(n);
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value a value
+   * @return true if the value has been added, false if it already exists
+   */
+  public boolean add(long value) {
+    if (value == 0L) {
+      return hasZero.compareAndSet(false, true);
+    }
+    long hash = mix(value);
+    return stripeOf(hash).add(value, hash);
+  }
+
+  /**
+   * Returns true if the set has the value.
+   *
+   * @param value a value
+   * @return true if the set has the value
+   */
+  public boolean contains(long value) {
+    if (value == 0L) {
+      return hasZero.get();
+    }
+    long hash = mix(value);
+    return stripeOf(hash).contains(value, hash);
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return the number of values
+   */
+  public long size() {
+    long size = hasZero.get() ? 1L : 0L;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /**
+   * Performs the action for each value in no particular order.
+   *
+   * @param action an action for each value
+   */
+  public void forEach(LongConsumer action) {
+    if (hasZero.get()) {
+      action.accept(0L);
+    }
+    for (Stripe stripe : stripes) {
+      stripe.forEach(action);
+    }
+  }
+
+  private Stripe stripeOf(long hash) {
+    return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> shift)];
+  }
+
+  private static long mix(long value) {
+    // The finalizer of MurmurHash3
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static class Stripe {
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    synchronized boolean add(long value, long hash) {
+      int mask = table.length - 1;
+      for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+        if (table[i] == value) {
+          return false;
+        }
+        if (table[i] == 0L) {
+          table[i] = value;
+          if (++size * 2 > table.length) {
+            resize();
+          }
+          return true;
+        }
+      }
+    }
+
+    synchronized boolean contains(long value, long hash) {
+      int mask = table.length - 1;
+      for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+        if (table[i] == value) {
+          return true;
+        }
+        if (table[i] == 0L) {
+          return false;
+        }
+      }
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void forEach(LongConsumer action) {
+      for (long value : table) {
+        if (value != 0L) {
+          action.accept(value);
+        }
+      }
+    }
+
+    private void resize() {
+      long[] old = table;
+      table = new long[old.length * 2];
+      int mask = table.length - 1;
+      for (long value : old) {
+        if (value != 0L) {
+          int i = (int) mix(value) & mask;
+          while (table[i] != 0L) {
+            i = (i + 1) & mask;
+          }
+          table[i] = value;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.scalar.kelpie.state;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * RecordCursor iterates over records of a {@link RecordStore} in the appended order. It reads
+ * records from the memory-mapped files one by one, so that it doesn't load all records on the heap.
+ *
+ * <pre>{@code
+ * RecordCursor cursor = store.cursor();
+ * while (cursor.next()) {
+ *   long id = cursor.get(0);
+ *   long balance = cursor.get(1);
+ * }
+ * }</pre>
+ */
+@NotThreadSafe
+public class RecordCursor {
+  private final RecordStore store;
+  private final long end;
+  private long index = -1L;
+
+  RecordCursor(RecordStore store, long end) {
+    this.store = store;
+    this.end = end;
+  }
+
+  /**
+   * Moves the cursor to the next record.
+   *
+   * @return true if the cursor points to a record, false if no record remains
+   */
+  public boolean next() {
+    if (index + 1 >= end) {
+      index = end;
+      return false;
+    }
+    index++;
+    return true;
+  }
+
+  /**
+   * Returns the index of the current record.
+   *
+   * @return the index of the record
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns a value of the current record.
+   *
+   * @param field the position of the value in the record
+   * @return the value
+   */
+  public long get(int field) {
+    return store.get(index, field);
+  }
+}
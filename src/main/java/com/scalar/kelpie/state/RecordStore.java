@@ -0,0 +1,286 @@
+package com.scalar.kelpie.state;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonWriter;
+
+/**
+ * RecordStore is an append-only store of fixed-width records of {@code long} values. Records are
+ * written to memory-mapped segment files, so that the store doesn't consume the heap even if it has
+ * a huge number of records, and it can be read by another process after it is closed.
+ *
+ * <p>Multiple threads can append records concurrently. Records should be read with {@link
+ * #cursor()} or {@link #get(long, int)} after all appends finish.
+ */
+@ThreadSafe
+public class RecordStore implements AutoCloseable {
+  static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String META_SUFFIX = ".meta";
+
+  private final Path dir;
+  private final String name;
+  private final int width;
+  private final int recordsPerSegment;
+  private final AtomicLong size;
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+  private volatile boolean isClosed = false;
+
+  private RecordStore(Path dir, String name, int width, int recordsPerSegment, long size) {
+    this.dir = dir;
+    this.name = name;
+    this.width = width;
+    this.recordsPerSegment = recordsPerSegment;
+    this.size = new AtomicLong(size);
+  }
+
+  /**
+   * Creates an empty store. Existing records with the same name are deleted.
+   *
+   * @param dir the directory of the store
+   * @param name the name of the store
+   * @param width the number of {@code long} values in a record
+   * @param segmentBytes the size of a segment file in bytes
+   * @return {@code RecordStore}
+   */
+  static RecordStore create(Path dir, String name, int width, long segmentBytes) {
+    if (width <= 0) {
+      throw new IllegalArgumentException("The width of a record should be positive");
+    }
+    int recordsPerSegment = (int) (Math.min(segmentBytes, Integer.MAX_VALUE) / (width * 8L));
+    if (recordsPerSegment <= 0) {
+      throw new IllegalArgumentException("A segment is too small for a record");
+    }
+
+    delete(dir, name);
+    RecordStore store = new RecordStore(dir, name, width, recordsPerSegment, 0L);
+    store.flush();
+    return store;
+  }
+
+  /**
+   * Opens an existing store.
+   *
+   * @param dir the directory of the store
+   * @param name the name of the store
+   * @return {@code RecordStore}
+   * @throws IllegalArgumentException if the store doesn't exist
+   */
+  static RecordStore open(Path dir, String name) {
+    Path meta = dir.resolve(name + META_SUFFIX);
+    if (!Files.exists(meta)) {
+      throw new IllegalArgumentException("The record store " + name + " doesn't exist in " + dir);
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      JsonObject json = jsonReader.readObject();
+      return new RecordStore(
+          dir,
+          name,
+          json.getInt("width"),
+          json.getInt("records_per_segment"),
+          json.getJsonNumber("size").longValue());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open the record store " + name, e);
+    }
+  }
+
+  /**
+   * Deletes the files of a store.
+   *
+   * @param dir the directory of the store
+   * @param name the name of the store
+   */
+  static void delete(Path dir, String name) {
+    try {
+      Files.deleteIfExists(dir.resolve(name + META_SUFFIX));
+      for (int i = 0; Files.deleteIfExists(segmentPath(dir, name, i)); i++) {
+        // delete all segments
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete the record store " + name, e);
+    }
+  }
+
+  /**
+   * Returns the name of the store.
+   *
+   * @return the name of the store
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of {@code long} values in a record.
+   *
+   * @return the width of a record
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the number of records.
+   *
+   * @return the number of records
+   */
+  public long size() {
+    return size.get();
+  }
+
+  /**
+   * Appends a record of a single value. The width of the store should be 1.
+   *
+   * @param value a value
+   * @return the index of the record
+   */
+  public long append(long value) {
+    checkWidth(1);
+    long index = size.getAndIncrement();
+    getSegment(index).putLong(offset(index), value);
+    return index;
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @param values values of the record. The number of values should be the width of the store.
+   * @return the index of the record
+   */
+  public long append(long... values) {
+    checkWidth(values.length);
+    long index = size.getAndIncrement();
+    MappedByteBuffer segment = getSegment(index);
+    int offset = offset(index);
+    for (int i = 0; i < width; i++) {
+      segment.putLong(offset + i * 8, values[i]);
+    }
+    return index;
+  }
+
+  /**
+   * Returns a value of a record.
+   *
+   * @param index the index of the record
+   * @param field the position of the value in the record
+   * @return the value
+   */
+  public long get(long index, int field) {
+    if (index < 0 || index >= size.get() || field < 0 || field >= width) {
+      throw new IndexOutOfBoundsException("record " + index + ", field " + field);
+    }
+    return getSegment(index).getLong(offset(index) + field * 8);
+  }
+
+  /**
+   * Returns a cursor which iterates over the records appended so far in the appended order.
+   *
+   * @return {@link RecordCursor}
+   */
+  public RecordCursor cursor() {
+    return new RecordCursor(this, size.get());
+  }
+
+  /** Writes the appended records and the number of records to the files. */
+  public synchronized void flush() {
+    for (MappedByteBuffer segment : segments) {
+      if (segment != null) {
+        segment.force();
+      }
+    }
+
+    try {
+      Files.createDirectories(dir);
+      Path meta = dir.resolve(name + META_SUFFIX);
+      Path temporary = dir.resolve(name + META_SUFFIX + ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8);
+          JsonWriter jsonWriter = Json.createWriter(writer)) {
+        jsonWriter.writeObject(
+            Json.createObjectBuilder()
+                .add("width", width)
+                .add("records_per_segment", recordsPerSegment)
+                .add("size", size.get())
+                .build());
+      }
+      Files.move(temporary, meta, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to flush the record store " + name, e);
+    }
+  }
+
+  /** Flushes and closes the store. */
+  @Override
+  public synchronized void close() {
+    if (isClosed) {
+      return;
+    }
+    flush();
+    segments = new MappedByteBuffer[0];
+    isClosed = true;
+  }
+
+  private void checkWidth(int numValues) {
+    if (numValues != width) {
+      throw new IllegalArgumentException(
+          "The record store " + name + " has " + width + " values in a record");
+    }
+    if (isClosed) {
+      throw new IllegalStateException("The record store " + name + " has been closed");
+    }
+  }
+
+  private int offset(long index) {
+    return (int) (index % recordsPerSegment) * width * 8;
+  }
+
+  private MappedByteBuffer getSegment(long index) {
+    int i = (int) (index / recordsPerSegment);
+    MappedByteBuffer[] current = segments;
+    if (i < current.length && current[i] != null) {
+      return current[i];
+    }
+    return mapSegment(i);
+  }
+
+  private synchronized MappedByteBuffer mapSegment(int i) {
+    MappedByteBuffer[] mapped = Arrays.copyOf(segments, Math.max(i + 1, segments.length));
+    if (mapped[i] != null) {
+      return mapped[i];
+    }
+
+    long bytes = (long) recordsPerSegment * width * 8;
+    try {
+      Files.createDirectories(dir);
+      try (RandomAccessFile file = new RandomAccessFile(segmentPath(dir, name, i).toFile(), "rw");
+          FileChannel channel = file.getChannel()) {
+        // The mapping remains valid after the channel is closed
+        mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map a segment of the record store " + name, e);
+    }
+    segments = mapped;
+    return mapped[i];
+  }
+
+  private static Path segmentPath(Path dir, String name, int i) {
+    return dir.resolve(String.format("%s-%05d%s", name, i, SEGMENT_SUFFIX));
+  }
+}
@@ -0,0 +1,115 @@
+package com.scalar.kelpie.state;
+
+import com.scalar.kelpie.config.Config;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * StateStore manages named {@link RecordStore}s in {@code state_dir} of {@code [common]}. It is
+ * shared by all modules of a job, so that a module can stream a large state to a store and the next
+ * module can iterate over it with bounded memory instead of passing a huge {@code JsonObject}.
+ */
+@ThreadSafe
+public class StateStore implements AutoCloseable {
+  private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+  private final Path dir;
+  private final long segmentBytes;
+  private final Map<String, RecordStore> stores = new HashMap<>();
+
+  /**
+   * Constructs a {@code StateStore}.
+   *
+   * @param config {@link Config}
+   */
+  public StateStore(Config config) {
+    this(Paths.get(config.getStateDir()), RecordStore.DEFAULT_SEGMENT_BYTES);
+  }
+
+  /**
+   * Constructs a {@code StateStore} with a directory and the size of segment files.
+   *
+   * @param dir the directory of record stores
+   * @param segmentBytes the size of a segment file in bytes
+   */
+  public StateStore(Path dir, long segmentBytes) {
+    this.dir = dir;
+    this.segmentBytes = segmentBytes;
+  }
+
+  /**
+   * Creates an empty {@link RecordStore}. Existing records with the same name are deleted.
+   *
+   * @param name the name of the store which consists of alphanumerics, '-' and '_'
+   * @param width the number of {@code long} values in a record
+   * @return {@link RecordStore}
+   */
+  public synchronized RecordStore create(String name, int width) {
+    checkName(name);
+    RecordStore existing = stores.remove(name);
+    if (existing != null) {
+      existing.close();
+    }
+
+    RecordStore store = RecordStore.create(dir, name, width, segmentBytes);
+    stores.put(name, store);
+    return store;
+  }
+
+  /**
+   * Opens a {@link RecordStore} created by this process or a previous process.
+   *
+   * @param name the name of the store
+   * @return {@link RecordStore}
+   * @throws IllegalArgumentException if the store doesn't exist
+   */
+  public synchronized RecordStore open(String name) {
+    checkName(name);
+    return stores.computeIfAbsent(name, n -> RecordStore.open(dir, n));
+  }
+
+  /**
+   * Takes over the record stores opened by another {@code StateStore}, for example, the stores
+   * which a module created in its constructor before the shared {@code StateStore} was given. They
+   * are flushed and closed when this {@code StateStore} is closed.
+   *
+   * @param other {@code StateStore} whose record stores are taken over
+   */
+  public void adopt(StateStore other) {
+    if (other == this) {
+      return;
+    }
+
+    Map<String, RecordStore> adopted;
+    synchronized (other) {
+      adopted = new HashMap<>(other.stores);
+      other.stores.clear();
+    }
+    synchronized (this) {
+      adopted.forEach(
+          (name, store) -> {
+            RecordStore replaced = stores.put(name, store);
+            if (replaced != null && replaced != store) {
+              replaced.close();
+            }
+          });
+    }
+  }
+
+  /** Flushes and closes all record stores. */
+  @Override
+  public synchronized void close() {
+    stores.values().forEach(RecordStore::close);
+    stores.clear();
+  }
+
+  private void checkName(String name) {
+    if (!NAME_PATTERN.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid name of a record store: " + name);
+    }
+  }
+}
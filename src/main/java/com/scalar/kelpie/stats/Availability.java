@@ -0,0 +1,172 @@
+package com.scalar.kelpie.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Availability is the availability of the target system calculated with the series of reporting
+ * intervals between the first and the last intervals in which any operation succeeded. An interval
+ * is degraded when an operation failed in it or its throughput is lower than the baseline by more
+ * than {@code degradation_threshold_percent} of {@code [stats]}. The baseline is the median
+ * throughput of the intervals before the first injection, or of all intervals if no injector ran.
+ */
+@Immutable
+public class Availability {
+  private final List<IntervalSample> samples;
+  private final double baselineThroughput;
+  private final double degradedThroughput;
+  private final long degradedMillis;
+  private final long longestOutageMillis;
+
+  /**
+   * Calculates the availability with the reporting intervals and the injection events.
+   *
+   * @param intervals {@link IntervalSample}s of the reporting intervals
+   * @param events {@link InjectionEvent}s, whose first injection ends the baseline
+   * @param thresholdPercent {@code degradation_threshold_percent} of {@code [stats]}
+   * @return {@code Availability}
+   */
+  static Availability of(
+      List<IntervalSample> intervals, List<InjectionEvent> events, long thresholdPercent) {
+    long firstInjectTime =
+        events.stream().mapToLong(InjectionEvent::getInjectTime).min().orElse(Long.MAX_VALUE);
+    return new Availability(intervals, firstInjectTime, thresholdPercent);
+  }
+
+  Availability(List<IntervalSample> intervals, long firstInjectTime, long thresholdPercent) {
+    this.samples = trim(intervals);
+
+    List<Double> throughputs = new ArrayList<>();
+    for (IntervalSample sample : samples) {
+      if (middle(sample) < firstInjectTime) {
+        throughputs.add(sample.getThroughput());
+      }
+    }
+    if (throughputs.isEmpty()) {
+      samples.forEach(s -> throughputs.add(s.getThroughput()));
+    }
+    Collections.sort(throughputs);
+    this.baselineThroughput = throughputs.isEmpty() ? 0.0 : throughputs.get(throughputs.size() / 2);
+    this.degradedThroughput = baselineThroughput * (100 - thresholdPercent) / 100.0;
+
+    long degraded = 0L;
+    long longest = 0L;
+    long outage = 0L;
+    for (IntervalSample sample : samples) {
+      if (isDegraded(sample)) {
+        degraded += duration(sample);
+      }
+      outage = sample.getSuccessCount() == 0 ? outage + duration(sample) : 0L;
+      longest = Math.max(longest, outage);
+    }
+    this.degradedMillis = degraded;
+    this.longestOutageMillis = longest;
+  }
+
+  /**
+   * Returns the baseline throughput.
+   *
+   * @return throughput (operation per second)
+   */
+  public double getBaselineThroughput() {
+    return baselineThroughput;
+  }
+
+  /**
+   * Returns the total time of the degraded intervals.
+   *
+   * @return the time in milliseconds
+   */
+  public long getDegradedMillis() {
+    return degradedMillis;
+  }
+
+  /**
+   * Returns the longest time in which no operation succeeded.
+   *
+   * @return the time in milliseconds
+   */
+  public long getLongestOutageMillis() {
+    return longestOutageMillis;
+  }
+
+  /**
+   * Returns the time from an injection until the end of the first degraded interval after it.
+   *
+   * @param event {@link InjectionEvent}
+   * @param until the end of the time to search degraded intervals such as the next injection
+   * @return the time in milliseconds, or an empty {@code OptionalLong} if no interval is degraded
+   */
+  OptionalLong getTimeToDetectMillis(InjectionEvent event, long until) {
+    for (IntervalSample sample : samples) {
+      if (isInWindow(sample, event.getInjectTime(), until) && isDegraded(sample)) {
+        return OptionalLong.of(Math.max(sample.getEndTime() - event.getInjectTime(), 0L));
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Returns the time from an ejection until the end of the last degraded interval after the
+   * injection. It is 0 if the system recovered before the ejection.
+   *
+   * @param event {@link InjectionEvent}
+   * @param until the end of the time to search degraded intervals such as the next injection
+   * @return the time in milliseconds, or an empty {@code OptionalLong} if the system didn't
+   *     recover until the end of the process
+   */
+  OptionalLong getTimeToRecoverMillis(InjectionEvent event, long until) {
+    IntervalSample lastDegraded = null;
+    for (IntervalSample sample : samples) {
+      if (isInWindow(sample, event.getInjectTime(), until) && isDegraded(sample)) {
+        lastDegraded = sample;
+      }
+    }
+    if (lastDegraded == null) {
+      return OptionalLong.of(0L);
+    }
+    if (lastDegraded == samples.get(samples.size() - 1)) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(Math.max(lastDegraded.getEndTime() - event.getEjectTime(), 0L));
+  }
+
+  private boolean isDegraded(IntervalSample sample) {
+    return sample.getFailureCount() > 0 || sample.getThroughput() < degradedThroughput;
+  }
+
+  // An interval belongs to the window which has the middle of the interval
+  static boolean isInWindow(IntervalSample sample, long from, long to) {
+    long middle = middle(sample);
+    return middle >= from && middle < to;
+  }
+
+  private static long middle(IntervalSample sample) {
+    return sample.getStartTime() + duration(sample) / 2;
+  }
+
+  private static long duration(IntervalSample sample) {
+    return sample.getEndTime() - sample.getStartTime();
+  }
+
+  // Removes the intervals of the ramp-up and the cool-down, in which no operation is recorded. An
+  // interval with only failures is kept since it is an outage
+  private static List<IntervalSample> trim(List<IntervalSample> intervals) {
+    int first = 0;
+    while (first < intervals.size() && isEmpty(intervals.get(first))) {
+      first++;
+    }
+    int last = intervals.size() - 1;
+    while (last >= first && isEmpty(intervals.get(last))) {
+      last--;
+    }
+    return new ArrayList<>(intervals.subList(first, last + 1));
+  }
+
+  private static boolean isEmpty(IntervalSample sample) {
+    return sample.getSuccessCount() + sample.getFailureCount() == 0;
+  }
+}
@@ -0,0 +1,150 @@
+package com.scalar.kelpie.stats;
+
+import com.scalar.kelpie.exception.IllegalConfigException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+/**
+ * BaselineComparator compares a result with the result of a previous run exported by {@link
+ * Stats#exportResult()}. The throughput and the latencies at 50, 90 and 99 percentiles of all
+ * operations and each operation type are compared.
+ */
+class BaselineComparator {
+  private static final String[] LATENCY_KEYS = {"latency_50", "latency_90", "latency_99"};
+
+  private final long throughputTolerance;
+  private final long latencyTolerance;
+
+  BaselineComparator(long throughputTolerance, long latencyTolerance) {
+    this.throughputTolerance = throughputTolerance;
+    this.latencyTolerance = latencyTolerance;
+  }
+
+  /**
+   * Loads a result exported as JSON.
+   *
+   * @param file a result file
+   * @return the result as a {@code JsonObject}
+   */
+  static JsonObject load(File file) {
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      return jsonReader.readObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the baseline result " + file, e);
+    }
+  }
+
+  /**
+   * Compares the result with the baseline.
+   *
+   * @param baseline the result of a previous run
+   * @param current the result of this run
+   * @return descriptions of regressions, or an empty list if no regression is found
+   * @throws IllegalConfigException if either result doesn't have the summary with the throughput
+   */
+  List<String> compare(JsonObject baseline, JsonObject current) {
+    List<String> regressions = new ArrayList<>();
+    long baselineUnit = toNanos(baseline.getString("latency_unit", "ms"));
+    long currentUnit = toNanos(current.getString("latency_unit", "ms"));
+
+    // A result without the summary can't show a regression, so it fails instead of passing
+    compare(
+        "all",
+        getSummary(baseline, "baseline"),
+        baselineUnit,
+        getSummary(current, "current"),
+        currentUnit,
+        regressions);
+
+    JsonObject baselineOperations = baseline.getJsonObject("operations");
+    JsonObject currentOperations = current.getJsonObject("operations");
+    if (baselineOperations != null && currentOperations != null) {
+      for (String operation : currentOperations.keySet()) {
+        if (baselineOperations.containsKey(operation)) {
+          compare(
+              operation,
+              baselineOperations.getJsonObject(operation),
+              baselineUnit,
+              currentOperations.getJsonObject(operation),
+              currentUnit,
+              regressions);
+        }
+      }
+    }
+
+    return regressions;
+  }
+
+  private void compare(
+      String name,
+      JsonObject baseline,
+      long baselineUnit,
+      JsonObject current,
+      long currentUnit,
+      List<String> regressions) {
+    double baselineThroughput = getThroughput(baseline, name, "baseline");
+    double currentThroughput = getThroughput(current, name, "current");
+    if (currentThroughput < baselineThroughput * (100 - throughputTolerance) / 100.0) {
+      regressions.add(
+          String.format(
+              "[%s] throughput %.2f ops is lower than the baseline %.2f ops",
+              name, currentThroughput, baselineThroughput));
+    }
+
+    for (String key : LATENCY_KEYS) {
+      double baselineLatency = getValue(baseline, key) * baselineUnit;
+      double currentLatency = getValue(current, key) * currentUnit;
+      if (baselineLatency > 0
+          && currentLatency > baselineLatency * (100 + latencyTolerance) / 100.0) {
+        regressions.add(
+            String.format(
+                "[%s] %s %.0f ns is higher than the baseline %.0f ns",
+                name, key, currentLatency, baselineLatency));
+      }
+    }
+  }
+
+  private static JsonObject getSummary(JsonObject result, String side) {
+    JsonValue summary = result.get("summary");
+    if (!(summary instanceof JsonObject)) {
+      throw new IllegalConfigException("The " + side + " result doesn't have the summary");
+    }
+    return (JsonObject) summary;
+  }
+
+  private static double getThroughput(JsonObject result, String name, String side) {
+    if (!(result.get("throughput") instanceof JsonNumber)) {
+      throw new IllegalConfigException(
+          "The " + side + " result doesn't have the throughput of " + name);
+    }
+    return result.getJsonNumber("throughput").doubleValue();
+  }
+
+  private static double getValue(JsonObject result, String key) {
+    JsonNumber value = result.getJsonNumber(key);
+    return value == null ? 0.0 : value.doubleValue();
+  }
+
+  private static long toNanos(String unitName) {
+    switch (unitName) {
+      case "ns":
+        return 1L;
+      case "us":
+        return 1_000L;
+      default:
+        return 1_000_000L;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.scalar.kelpie.stats;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * CsvReporter writes a report to a CSV file. Each report has a row of all operations, whose {@code
+ * operation} is empty, and a row of each operation type.
+ */
+class CsvReporter implements Reporter {
+  private static final String HEADER =
+      "end_time,operation,interval_ms,throughput,succeeded,failed,mean_latency,"
+          + "latency_50,latency_90,latency_99,max_latency,total_succeeded,total_failed\n";
+
+  private final File file;
+  private final Writer writer;
+
+  CsvReporter(File file) {
+    this.file = file;
+    try {
+      this.writer = new BufferedWriter(new FileWriter(file));
+      writer.write(HEADER);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open the report file " + file, e);
+    }
+  }
+
+  @Override
+  public void report(Report report) {
+    StringBuilder rows = new StringBuilder();
+    appendRow(rows, report, "", report.getInterval());
+    for (Map.Entry<String, IntervalSample> operation : report.getOperations().entrySet()) {
+      appendRow(rows, report, operation.getKey(), operation.getValue());
+    }
+
+    try {
+      writer.write(rows.toString());
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the report file " + file, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close the report file " + file, e);
+    }
+  }
+
+  private void appendRow(StringBuilder rows, Report report, String name, IntervalSample interval) {
+    rows.append(interval.getEndTime())
+        .append(',')
+        .append(name)
+        .append(',')
+        .append(interval.getEndTime() - interval.getStartTime())
+        .append(',')
+        .append(report.round(interval.getThroughput()))
+        .append(',')
+        .append(interval.getSuccessCount())
+        .append(',')
+        .append(interval.getFailureCount())
+        .append(',')
+        .append(report.toLatencyUnit(interval.getMeanLatencyNanos()))
+        .append(',')
+        .append(report.toLatencyUnit(interval.getLatency50Nanos()))
+        .append(',')
+        .append(report.toLatencyUnit(interval.getLatency90Nanos()))
+        .append(',')
+        .append(report.toLatencyUnit(interval.getLatency99Nanos()))
+        .append(',')
+        .append(report.toLatencyUnit(interval.getMaxLatencyNanos()))
+        .append(',')
+        .append(report.getTotalSuccessCount())
+        .append(',')
+        .append(report.getTotalFailureCount())
+        .append('\n');
+  }
+}
@@ -0,0 +1,137 @@
+package com.scalar.kelpie.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * FaultImpact is the statistics of operations before, during and after an {@link InjectionEvent}.
+ * The windows before and after the event have the same length as the event. An interval belongs
+ * to the window which has the middle of the interval. The time to detect and the time to recover
+ * are calculated with the degraded intervals defined by {@link Availability} until the next event.
+ */
+@Immutable
+public class FaultImpact {
+  private final InjectionEvent event;
+  private final WindowResult before;
+  private final WindowResult during;
+  private final WindowResult after;
+  private final OptionalLong timeToDetectMillis;
+  private final OptionalLong timeToRecoverMillis;
+
+  FaultImpact(
+      InjectionEvent event,
+      WindowResult before,
+      WindowResult during,
+      WindowResult after,
+      OptionalLong timeToDetectMillis,
+      OptionalLong timeToRecoverMillis) {
+    this.event = event;
+    this.before = before;
+    this.during = during;
+    this.after = after;
+    this.timeToDetectMillis = timeToDetectMillis;
+    this.timeToRecoverMillis = timeToRecoverMillis;
+  }
+
+  /**
+   * Calculates the impact of each injection event with the reporting intervals.
+   *
+   * @param intervals {@link IntervalSample}s of the reporting intervals
+   * @param events {@link InjectionEvent}s in the order they were recorded
+   * @param availability {@link Availability} calculated with the same intervals
+   * @param significantDigits the number of significant digits of the histograms
+   * @return a list of {@code FaultImpact}s
+   */
+  static List<FaultImpact> of(
+      List<IntervalSample> intervals,
+      List<InjectionEvent> events,
+      Availability availability,
+      int significantDigits) {
+    List<FaultImpact> impacts = new ArrayList<>();
+    for (int i = 0; i < events.size(); i++) {
+      InjectionEvent event = events.get(i);
+      long inject = event.getInjectTime();
+      long eject = event.getEjectTime();
+      long length = eject - inject;
+      long next = i + 1 < events.size() ? events.get(i + 1).getInjectTime() : Long.MAX_VALUE;
+      impacts.add(
+          new FaultImpact(
+              event,
+              new WindowResult(filter(intervals, inject - length, inject), significantDigits),
+              new WindowResult(filter(intervals, inject, eject), significantDigits),
+              new WindowResult(filter(intervals, eject, eject + length), significantDigits),
+              availability.getTimeToDetectMillis(event, next),
+              availability.getTimeToRecoverMillis(event, next)));
+    }
+    return impacts;
+  }
+
+  private static List<IntervalSample> filter(List<IntervalSample> intervals, long from, long to) {
+    List<IntervalSample> filtered = new ArrayList<>();
+    for (IntervalSample interval : intervals) {
+      if (Availability.isInWindow(interval, from, to)) {
+        filtered.add(interval);
+      }
+    }
+    return filtered;
+  }
+
+  /**
+   * Returns the injection event.
+   *
+   * @return {@link InjectionEvent}
+   */
+  public InjectionEvent getEvent() {
+    return event;
+  }
+
+  /**
+   * Returns the statistics before the injection.
+   *
+   * @return {@link WindowResult}
+   */
+  public WindowResult getBefore() {
+    return before;
+  }
+
+  /**
+   * Returns the statistics while the injector was injected.
+   *
+   * @return {@link WindowResult}
+   */
+  public WindowResult getDuring() {
+    return during;
+  }
+
+  /**
+   * Returns the statistics after the ejection.
+   *
+   * @return {@link WindowResult}
+   */
+  public WindowResult getAfter() {
+    return after;
+  }
+
+  /**
+   * Returns the time from the injection until the end of the first degraded interval.
+   *
+   * @return an {@code OptionalLong} with the time in milliseconds, or an empty {@code OptionalLong}
+   *     if the injection didn't degrade the system
+   */
+  public OptionalLong getTimeToDetectMillis() {
+    return timeToDetectMillis;
+  }
+
+  /**
+   * Returns the time from the ejection until the end of the last degraded interval. It is 0 if the
+   * system recovered before the ejection.
+   *
+   * @return an {@code OptionalLong} with the time in milliseconds, or an empty {@code OptionalLong}
+   *     if the system didn't recover until the end of the process
+   */
+  public OptionalLong getTimeToRecoverMillis() {
+    return timeToRecoverMillis;
+  }
+}
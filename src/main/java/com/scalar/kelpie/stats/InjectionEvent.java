@@ -0,0 +1,51 @@
+package com.scalar.kelpie.stats;
+
+import javax.annotation.concurrent.Immutable;
+
+/** InjectionEvent is a period while an {@link com.scalar.kelpie.modules.Injector} was injected. */
+@Immutable
+public class InjectionEvent {
+  private final String name;
+  private final long injectTime;
+  private final long ejectTime;
+
+  /**
+   * Constructs an {@code InjectionEvent}.
+   *
+   * @param name the name of the injector
+   * @param injectTime the time of the injection in milliseconds since the epoch
+   * @param ejectTime the time of the ejection in milliseconds since the epoch
+   */
+  public InjectionEvent(String name, long injectTime, long ejectTime) {
+    this.name = name;
+    this.injectTime = injectTime;
+    this.ejectTime = ejectTime;
+  }
+
+  /**
+   * Returns the name of the injector.
+   *
+   * @return the name of the injector
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the time of the injection.
+   *
+   * @return the time in milliseconds since the epoch
+   */
+  public long getInjectTime() {
+    return injectTime;
+  }
+
+  /**
+   * Returns the time of the ejection.
+   *
+   * @return the time in milliseconds since the epoch
+   */
+  public long getEjectTime() {
+    return ejectTime;
+  }
+}
@@ -0,0 +1,144 @@
+package com.scalar.kelpie.stats;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import javax.annotation.concurrent.Immutable;
+import org.HdrHistogram.Histogram;
+
+/**
+ * IntervalSample is the statistics of operations in a reporting interval. It keeps the latency
+ * histogram of the interval in the compressed form to merge intervals in a time window.
+ */
+@Immutable
+public class IntervalSample {
+  private final long startTime;
+  private final long endTime;
+  private final long successCount;
+  private final long failureCount;
+  private final double meanLatencyNanos;
+  private final long latency50Nanos;
+  private final long latency90Nanos;
+  private final long latency99Nanos;
+  private final long maxLatencyNanos;
+  private final byte[] compressedHistogram;
+
+  IntervalSample(Histogram interval, long failureCount) {
+    this.startTime = interval.getStartTimeStamp();
+    this.endTime = interval.getEndTimeStamp();
+    this.successCount = interval.getTotalCount();
+    this.failureCount = failureCount;
+    this.meanLatencyNanos = interval.getMean();
+    this.latency50Nanos = interval.getValueAtPercentile(50.0);
+    this.latency90Nanos = interval.getValueAtPercentile(90.0);
+    this.latency99Nanos = interval.getValueAtPercentile(99.0);
+    this.maxLatencyNanos = interval.getMaxValue();
+
+    ByteBuffer buffer = ByteBuffer.allocate(interval.getNeededByteBufferCapacity());
+    int length = interval.encodeIntoCompressedByteBuffer(buffer);
+    this.compressedHistogram = Arrays.copyOf(buffer.array(), length);
+  }
+
+  /**
+   * Returns the start time of the interval.
+   *
+   * @return the start time in milliseconds since the epoch
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the end time of the interval.
+   *
+   * @return the end time in milliseconds since the epoch
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Returns the number of operations which succeeded in the interval.
+   *
+   * @return success count
+   */
+  public long getSuccessCount() {
+    return successCount;
+  }
+
+  /**
+   * Returns the number of operations which failed in the interval.
+   *
+   * @return failure count
+   */
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  /**
+   * Returns the throughput in the interval.
+   *
+   * @return throughput (operation per second)
+   */
+  public double getThroughput() {
+    return successCount * 1000.0 / Math.max(endTime - startTime, 1L);
+  }
+
+  /**
+   * Returns an average latency in the interval.
+   *
+   * @return average latency in nanoseconds
+   */
+  public double getMeanLatencyNanos() {
+    return meanLatencyNanos;
+  }
+
+  /**
+   * Returns the latency at 50 percentile in the interval.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency50Nanos() {
+    return latency50Nanos;
+  }
+
+  /**
+   * Returns the latency at 90 percentile in the interval.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency90Nanos() {
+    return latency90Nanos;
+  }
+
+  /**
+   * Returns the latency at 99 percentile in the interval.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency99Nanos() {
+    return latency99Nanos;
+  }
+
+  /**
+   * Returns the maximum latency in the interval.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+
+  /**
+   * Returns the latency histogram of the interval.
+   *
+   * @return a new {@code Histogram} of latencies in nanoseconds
+   */
+  Histogram getHistogram() {
+    try {
+      return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressedHistogram), 0);
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Failed to decode the histogram of an interval", e);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.scalar.kelpie.stats;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonWriter;
+
+/** JsonLinesReporter writes a report as a line of JSON to a file. */
+class JsonLinesReporter implements Reporter {
+  private final File file;
+  private final Writer writer;
+
+  JsonLinesReporter(File file) {
+    this.file = file;
+    try {
+      this.writer = new BufferedWriter(new FileWriter(file));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open the report file " + file, e);
+    }
+  }
+
+  @Override
+  public void report(Report report) {
+    JsonObjectBuilder operations = Json.createObjectBuilder();
+    for (Map.Entry<String, IntervalSample> operation : report.getOperations().entrySet()) {
+      operations.add(operation.getKey(), toJson(report, operation.getValue()));
+    }
+    JsonObjectBuilder json =
+        toJson(report, report.getInterval())
+            .add("total_succeeded", report.getTotalSuccessCount())
+            .add("total_failed", report.getTotalFailureCount())
+            .add("latency_unit", Stats.getUnitName(report.getLatencyUnit()))
+            .add("operations", operations);
+
+    StringWriter line = new StringWriter();
+    try (JsonWriter jsonWriter = Json.createWriter(line)) {
+      jsonWriter.writeObject(json.build());
+    }
+    try {
+      writer.write(line.toString());
+      writer.write('\n');
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the report file " + file, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close the report file " + file, e);
+    }
+  }
+
+  private JsonObjectBuilder toJson(Report report, IntervalSample interval) {
+    return Json.createObjectBuilder()
+        .add("start_time", interval.getStartTime())
+        .add("end_time", interval.getEndTime())
+        .add("throughput", report.round(interval.getThroughput()))
+        .add("succeeded", interval.getSuccessCount())
+        .add("failed", interval.getFailureCount())
+        .add("mean_latency", report.toLatencyUnit(interval.getMeanLatencyNanos()))
+        .add("latency_50", report.toLatencyUnit(interval.getLatency50Nanos()))
+        .add("latency_90", report.toLatencyUnit(interval.getLatency90Nanos()))
+        .add("latency_99", report.toLatencyUnit(interval.getLatency99Nanos()))
+        .add("max_latency", report.toLatencyUnit(interval.getMaxLatencyNanos()));
+  }
+}
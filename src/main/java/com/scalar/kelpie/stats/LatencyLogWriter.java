@@ -0,0 +1,151 @@
+package com.scalar.kelpie.stats;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LatencyLogWriter writes each latency with its timestamp to a CSV file. Recording threads hand
+ * records to a background thread through a bounded lock-free ring buffer, and the background
+ * thread writes them in batches. When the ring buffer is full, records are dropped instead of
+ * blocking the recording threads.
+ */
+@ThreadSafe
+class LatencyLogWriter {
+  private static final int BATCH_SIZE = 4096;
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final File file;
+  private final int mask;
+  private final long[] timestamps;
+  private final long[] latencies;
+  private final AtomicLongArray published;
+  private final AtomicLong tail = new AtomicLong(0L);
+  private final LongAdder droppedCount = new LongAdder();
+  private final Thread thread;
+  private final StringBuilder batch = new StringBuilder();
+  private volatile long head = 0L;
+  private volatile boolean closed = false;
+  private volatile boolean failed = false;
+  private long writtenCount = 0L;
+
+  /**
+   * Constructs a {@code LatencyLogWriter} and starts its background thread.
+   *
+   * @param file a CSV file to which latencies are written
+   * @param bufferSize the number of records which can be buffered. It is rounded up to a power of
+   *     two.
+   */
+  LatencyLogWriter(File file, int bufferSize) {
+    int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) * 2 - 1);
+    this.file = file;
+    this.mask = capacity - 1;
+    this.timestamps = new long[capacity];
+    this.latencies = new long[capacity];
+    // A slot for the sequence n becomes readable when n + 1 is published to it
+    this.published = new AtomicLongArray(capacity);
+
+    this.thread = new Thread(this::run, "kelpie-latency-log");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Hands a record to the background thread. The record is dropped if the buffer is full.
+   *
+   * @param timestampMillis the time when the operation finished
+   * @param latencyNanos the latency of the operation in nanoseconds
+   */
+  void write(long timestampMillis, long latencyNanos) {
+    long sequence;
+    do {
+      sequence = tail.get();
+      if (sequence - head > mask || failed) {
+        droppedCount.increment();
+        return;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+
+    int index = (int) sequence & mask;
+    timestamps[index] = timestampMillis;
+    latencies[index] = latencyNanos;
+    published.lazySet(index, sequence + 1);
+  }
+
+  /**
+   * Returns the number of records dropped because the buffer was full.
+   *
+   * @return the number of dropped records
+   */
+  long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /** Writes all buffered records and stops the background thread. */
+  void close() {
+    closed = true;
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    long dropped = getDroppedCount();
+    if (dropped > 0) {
+      logger.warn(dropped + " latency records were dropped since the latency log was too busy");
+    }
+    logger.info(writtenCount + " latency records were written to " + file);
+  }
+
+  private void run() {
+    try (Writer writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+      writer.write("timestamp,latency_ns\n");
+      while (true) {
+        int count = drain(writer);
+        if (count > 0) {
+          writer.flush();
+        } else if (closed && head == tail.get()) {
+          break;
+        } else {
+          LockSupport.parkNanos(IDLE_WAIT_NANOS);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Failed to write the latency log to " + file, e);
+      failed = true;
+    }
+  }
+
+  private int drain(Writer writer) throws IOException {
+    batch.setLength(0);
+    long sequence = head;
+    int count = 0;
+    while (count < BATCH_SIZE) {
+      int index = (int) sequence & mask;
+      if (published.get(index) != sequence + 1) {
+        break;
+      }
+      batch.append(timestamps[index]).append(',').append(latencies[index]).append('\n');
+      sequence++;
+      count++;
+      head = sequence;
+    }
+
+    if (count > 0) {
+      writer.write(batch.toString());
+      writtenCount += count;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,49 @@
+package com.scalar.kelpie.stats;
+
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** LogReporter outputs a report as a line of the log. */
+class LogReporter implements Reporter {
+  private static final Logger logger = LoggerFactory.getLogger(Stats.class);
+
+  @Override
+  public void report(Report report) {
+    IntervalSample interval = report.getInterval();
+    String unitName = Stats.getUnitName(report.getLatencyUnit());
+    StringBuilder line =
+        new StringBuilder()
+            .append("Throughput: ")
+            .append(report.round(interval.getThroughput()))
+            .append(" ops")
+            .append("  Mean latency: ")
+            .append(report.toLatencyUnit(interval.getMeanLatencyNanos()))
+            .append(" ")
+            .append(unitName)
+            .append("  Latency at 50/90/99 percentile: ")
+            .append(report.toLatencyUnit(interval.getLatency50Nanos()))
+            .append("/")
+            .append(report.toLatencyUnit(interval.getLatency90Nanos()))
+            .append("/")
+            .append(report.toLatencyUnit(interval.getLatency99Nanos()))
+            .append(" ")
+            .append(unitName)
+            .append("  Total success: ")
+            .append(report.getTotalSuccessCount())
+            .append("  Total failure: ")
+            .append(report.getTotalFailureCount());
+    for (Map.Entry<String, IntervalSample> operation : report.getOperations().entrySet()) {
+      line.append("  [")
+          .append(operation.getKey())
+          .append("] ")
+          .append(report.round(operation.getValue().getThroughput()))
+          .append(" ops ")
+          .append(report.toLatencyUnit(operation.getValue().getMeanLatencyNanos()))
+          .append(" ")
+          .append(unitName);
+    }
+
+    logger.info(line.toString());
+  }
+}
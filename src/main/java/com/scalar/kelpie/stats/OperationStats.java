@@ -0,0 +1,53 @@
+package com.scalar.kelpie.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+import org.HdrHistogram.Histogram;
+
+/** OperationStats holds latencies and the number of failures of one type of operations. */
+@ThreadSafe
+class OperationStats {
+  private final String name;
+  private final StripedRecorder recorder;
+  private final LongAdder failureCount = new LongAdder();
+
+  OperationStats(String name, int numWriters, int significantDigits) {
+    this.name = name;
+    this.recorder = new StripedRecorder(numWriters, significantDigits);
+  }
+
+  String getName() {
+    return name;
+  }
+
+  void recordLatency(long latencyNanos) {
+    recorder.recordValue(latencyNanos);
+  }
+
+  void recordFailure() {
+    failureCount.increment();
+  }
+
+  void merge(Histogram latencies, long failures) {
+    recorder.add(latencies);
+    failureCount.add(failures);
+  }
+
+  long getSuccessCount() {
+    return recorder.getTotalCount();
+  }
+
+  long getFailureCount() {
+    return failureCount.sum();
+  }
+
+  Histogram getAccumulatedHistogram() {
+    return recorder.getAccumulatedHistogram();
+  }
+
+  Histogram getIntervalHistogram() {
+    Histogram interval = recorder.getIntervalHistogram();
+    interval.setTag(name);
+    return interval;
+  }
+}
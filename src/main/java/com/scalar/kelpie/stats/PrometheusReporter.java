@@ -0,0 +1,137 @@
+package com.scalar.kelpie.stats;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrometheusReporter exposes the last report in the Prometheus text exposition format at {@code
+ * /metrics} of an HTTP port. Latencies are exposed in seconds regardless of {@code latency_unit} as
+ * a summary whose quantiles are of the last interval and whose {@code _sum} and {@code _count} are
+ * accumulated since the start of the process, as Prometheus expects them to be counters.
+ */
+class PrometheusReporter implements Reporter {
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1.0};
+
+  private final HttpServer server;
+  private final Map<String, Double> latencySums = new HashMap<>();
+  private final Map<String, Long> latencyCounts = new HashMap<>();
+  private volatile byte[] metrics = new byte[0];
+
+  PrometheusReporter(String host, int port) {
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open " + host + ":" + port + " for metrics", e);
+    }
+    server.createContext("/metrics", this::handle);
+    server.start();
+  }
+
+  @Override
+  public synchronized void report(Report report) {
+    StringBuilder text = new StringBuilder();
+    IntervalSample interval = report.getInterval();
+    Map<String, IntervalSample> operations = report.getOperations();
+
+    appendType(text, "kelpie_throughput", "Operations per second in the last interval", "gauge");
+    appendSample(text, "kelpie_throughput", null, null, interval.getThroughput());
+    operations.forEach(
+        (k, v) -> appendSample(text, "kelpie_throughput", k, null, v.getThroughput()));
+
+    appendType(text, "kelpie_interval_failed", "Failed operations in the last interval", "gauge");
+    appendSample(text, "kelpie_interval_failed", null, null, interval.getFailureCount());
+    operations.forEach(
+        (k, v) -> appendSample(text, "kelpie_interval_failed", k, null, v.getFailureCount()));
+
+    appendType(text, "kelpie_latency_seconds", "Latencies of succeeded operations", "summary");
+    appendLatencies(text, null, interval);
+    operations.forEach((k, v) -> appendLatencies(text, k, v));
+
+    appendType(text, "kelpie_succeeded_total", "Succeeded operations", "counter");
+    appendSample(text, "kelpie_succeeded_total", null, null, report.getTotalSuccessCount());
+    appendType(text, "kelpie_failed_total", "Failed operations", "counter");
+    appendSample(text, "kelpie_failed_total", null, null, report.getTotalFailureCount());
+
+    metrics = text.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    byte[] body = metrics;
+    exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private void appendLatencies(StringBuilder text, String operation, IntervalSample interval) {
+    long[] latencies = {
+      interval.getLatency50Nanos(),
+      interval.getLatency90Nanos(),
+      interval.getLatency99Nanos(),
+      interval.getMaxLatencyNanos()
+    };
+    for (int i = 0; i < QUANTILES.length; i++) {
+      double seconds = (double) latencies[i] / TimeUnit.SECONDS.toNanos(1);
+      appendSample(text, "kelpie_latency_seconds", operation, QUANTILES[i], seconds);
+    }
+
+    // A HashMap accepts the null key of all operations
+    double sum =
+        latencySums.merge(
+            operation, interval.getMeanLatencyNanos() * interval.getSuccessCount(), Double::sum);
+    long count = latencyCounts.merge(operation, interval.getSuccessCount(), Long::sum);
+    appendSample(
+        text, "kelpie_latency_seconds_sum", operation, null, sum / TimeUnit.SECONDS.toNanos(1));
+    appendSample(text, "kelpie_latency_seconds_count", operation, null, count);
+  }
+
+  /**
+   * Returns the address on which the metrics are exposed.
+   *
+   * @return {@link InetSocketAddress}
+   */
+  InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  private static void appendType(StringBuilder text, String name, String help, String type) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void appendSample(
+      StringBuilder text, String name, String operation, Double quantile, double value) {
+    text.append(name);
+    if (operation != null || quantile != null) {
+      text.append('{');
+      if (operation != null) {
+        text.append("operation=\"").append(escape(operation)).append('"');
+      }
+      if (quantile != null) {
+        text.append(operation != null ? "," : "");
+        text.append("quantile=\"").append(quantile).append('"');
+      }
+      text.append('}');
+    }
+    text.append(' ').append(value).append('\n');
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,98 @@
+package com.scalar.kelpie.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Report is the statistics of a reporting interval given to {@link Reporter}s. It has the
+ * statistics of all operations and each operation type in the interval, and the total numbers of
+ * operations since the start of the process.
+ */
+@Immutable
+public class Report {
+  private final IntervalSample interval;
+  private final Map<String, IntervalSample> operations;
+  private final long totalSuccessCount;
+  private final long totalFailureCount;
+  private final TimeUnit latencyUnit;
+  private final int significantDigits;
+
+  Report(
+      IntervalSample interval,
+      Map<String, IntervalSample> operations,
+      long totalSuccessCount,
+      long totalFailureCount,
+      TimeUnit latencyUnit,
+      int significantDigits) {
+    this.interval = interval;
+    this.operations = Collections.unmodifiableMap(operations);
+    this.totalSuccessCount = totalSuccessCount;
+    this.totalFailureCount = totalFailureCount;
+    this.latencyUnit = latencyUnit;
+    this.significantDigits = significantDigits;
+  }
+
+  /**
+   * Returns the statistics of all operations in the interval.
+   *
+   * @return {@link IntervalSample}
+   */
+  public IntervalSample getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the statistics of each operation type in the interval in the order of {@code
+   * operation_types}.
+   *
+   * @return a map of an operation type to {@link IntervalSample}
+   */
+  public Map<String, IntervalSample> getOperations() {
+    return operations;
+  }
+
+  /**
+   * Returns the number of operations which succeeded since the start of the process.
+   *
+   * @return success count
+   */
+  public long getTotalSuccessCount() {
+    return totalSuccessCount;
+  }
+
+  /**
+   * Returns the number of operations which failed since the start of the process.
+   *
+   * @return failure count
+   */
+  public long getTotalFailureCount() {
+    return totalFailureCount;
+  }
+
+  /**
+   * Returns the time unit of latencies specified with {@code latency_unit}.
+   *
+   * @return {@code TimeUnit} of latencies
+   */
+  public TimeUnit getLatencyUnit() {
+    return latencyUnit;
+  }
+
+  /**
+   * Converts a latency in nanoseconds to {@code latency_unit}.
+   *
+   * @param nanos a latency in nanoseconds
+   * @return the latency in {@code latency_unit}
+   */
+  public double toLatencyUnit(double nanos) {
+    return round(nanos / latencyUnit.toNanos(1));
+  }
+
+  double round(double v) {
+    return new BigDecimal(v).setScale(significantDigits, RoundingMode.HALF_UP).doubleValue();
+  }
+}
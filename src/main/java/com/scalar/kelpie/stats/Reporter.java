@@ -0,0 +1,24 @@
+package com.scalar.kelpie.stats;
+
+/**
+ * Reporter outputs a {@link Report} of each reporting interval while {@link
+ * com.scalar.kelpie.modules.Processor}s run. Reporters are specified with {@code reporters} of
+ * {@code [stats]}. A custom reporter is specified with its class name, and it should have a public
+ * constructor which takes {@link com.scalar.kelpie.config.Config} or no argument.
+ *
+ * <p>{@link #report(Report)} is invoked by the reporting thread, so that a reporter doesn't need to
+ * be thread-safe unless it shares the reports with other threads.
+ */
+public interface Reporter extends AutoCloseable {
+
+  /**
+   * Outputs a report of an interval.
+   *
+   * @param report {@link Report}
+   */
+  void report(Report report);
+
+  /** Releases the resources of the reporter after the last report. */
+  @Override
+  default void close() {}
+}
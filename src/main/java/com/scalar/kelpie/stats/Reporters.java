@@ -0,0 +1,57 @@
+package com.scalar.kelpie.stats;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reporters creates {@link Reporter}s specified with {@code reporters} of {@code [stats]}. */
+final class Reporters {
+
+  private Reporters() {}
+
+  /**
+   * Creates the reporters specified in the config.
+   *
+   * @param config {@link Config}
+   * @return a list of {@link Reporter}s
+   */
+  static List<Reporter> create(Config config) {
+    List<Reporter> reporters = new ArrayList<>();
+    for (String name : config.getReporters()) {
+      reporters.add(create(name, config));
+    }
+    return reporters;
+  }
+
+  private static Reporter create(String name, Config config) {
+    switch (name) {
+      case "log":
+        return new LogReporter();
+      case "csv":
+        return new CsvReporter(new File(config.getReportCsvFile()));
+      case "jsonl":
+        return new JsonLinesReporter(new File(config.getReportJsonLinesFile()));
+      case "prometheus":
+        return new PrometheusReporter(
+            config.getPrometheusHost(), (int) config.getPrometheusPort());
+      default:
+        return load(name, config);
+    }
+  }
+
+  private static Reporter load(String name, Config config) {
+    try {
+      Class<?> clazz = Class.forName(name);
+      try {
+        return (Reporter) clazz.getConstructor(Config.class).newInstance(config);
+      } catch (NoSuchMethodException e) {
+        // A Reporter which doesn't take the config
+      }
+      return (Reporter) clazz.getConstructor().newInstance();
+    } catch (Exception e) {
+      throw new IllegalConfigException("Failed to load the reporter " + name, e);
+    }
+  }
+}
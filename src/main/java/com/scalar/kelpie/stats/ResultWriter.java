@@ -0,0 +1,333 @@
+package com.scalar.kelpie.stats;
+
+import com.scalar.kelpie.config.Config;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import javax.json.stream.JsonGenerator;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+/**
+ * ResultWriter assembles the result of a job from {@link Stats} and writes it as a JSON or CSV
+ * file. Latencies in the result are in {@code latency_unit} of {@code [stats]}.
+ */
+class ResultWriter {
+  static final String JSON_FORMAT = "json";
+  static final String CSV_FORMAT = "csv";
+
+  private final Stats stats;
+  private final Config config;
+  private final TimeUnit unit;
+
+  ResultWriter(Stats stats, Config config) {
+    this.stats = stats;
+    this.config = config;
+    this.unit = config.getLatencyUnit();
+  }
+
+  /**
+   * Returns the result of the process as a {@code JsonObject}.
+   *
+   * @return the result as a {@code JsonObject}
+   */
+  JsonObject getResult() {
+    JsonObjectBuilder operationResults = Json.createObjectBuilder();
+    for (String operation : stats.getOperationTypes()) {
+      operationResults.add(
+          operation,
+          getSummaryResult(
+              stats.getAccumulatedHistogram(operation),
+              stats.getFailureCount(operation),
+              stats.getThroughput(operation)));
+    }
+
+    JsonArrayBuilder stageResults = Json.createArrayBuilder();
+    for (StageResult stage : stats.getStages()) {
+      stageResults.add(
+          Json.createObjectBuilder()
+              .add("name", stage.getStage().getName())
+              .add("concurrency", stage.getStage().getConcurrency())
+              .add("target_rate", stage.getStage().getTargetRate())
+              .add("measured_sec", stage.getMeasuredSec())
+              .add("throughput", round(stage.getThroughput()))
+              .add("succeeded", stage.getSuccessCount())
+              .add("failed", stage.getFailureCount())
+              .add("mean_latency", toUnit(stage.getMeanLatencyNanos()))
+              .add("latency_50", toUnit(stage.getLatency50Nanos()))
+              .add("latency_90", toUnit(stage.getLatency90Nanos()))
+              .add("latency_99", toUnit(stage.getLatency99Nanos()))
+              .add("max_latency", toUnit(stage.getMaxLatencyNanos())));
+    }
+
+    JsonArrayBuilder intervalResults = Json.createArrayBuilder();
+    for (IntervalSample interval : stats.getIntervals()) {
+      intervalResults.add(
+          Json.createObjectBuilder()
+              .add("start_time", interval.getStartTime())
+              .add("end_time", interval.getEndTime())
+              .add("throughput", round(interval.getThroughput()))
+              .add("succeeded", interval.getSuccessCount())
+              .add("failed", interval.getFailureCount())
+              .add("mean_latency", toUnit(interval.getMeanLatencyNanos()))
+              .add("latency_50", toUnit(interval.getLatency50Nanos()))
+              .add("latency_90", toUnit(interval.getLatency90Nanos()))
+              .add("latency_99", toUnit(interval.getLatency99Nanos()))
+              .add("max_latency", toUnit(interval.getMaxLatencyNanos())));
+    }
+
+    JsonObjectBuilder summary =
+        getSummaryResult(
+            stats.getAccumulatedHistogram(), stats.getFailureCount(), stats.getThroughput());
+    JsonObjectBuilder result =
+        Json.createObjectBuilder()
+            .add("config", toJsonValue(config.getToml().toMap()))
+            .add("start_time", stats.getStartTime())
+            .add("end_time", stats.getEndTime())
+            .add("seed", config.getSeed())
+            .add("measured_sec", stats.getMeasuredSec())
+            .add("latency_unit", Stats.getUnitName(unit))
+            .add("summary", summary)
+            .add("operations", operationResults)
+            .add("stages", stageResults)
+            .add("intervals", intervalResults);
+    if (config.isSaturationSearchEnabled()) {
+      result.add("saturation", getSaturationResult());
+    }
+    Availability availability = stats.getAvailability();
+    result.add(
+        "availability",
+        Json.createObjectBuilder()
+            .add("baseline_throughput", round(availability.getBaselineThroughput()))
+            .add("degraded_sec", availability.getDegradedMillis() / 1000.0)
+            .add("longest_outage_sec", availability.getLongestOutageMillis() / 1000.0));
+    List<FaultImpact> impacts = stats.getFaultImpacts();
+    if (!impacts.isEmpty()) {
+      JsonArrayBuilder injectionResults = Json.createArrayBuilder();
+      for (FaultImpact impact : impacts) {
+        JsonObjectBuilder injection =
+            Json.createObjectBuilder()
+                .add("name", impact.getEvent().getName())
+                .add("inject_time", impact.getEvent().getInjectTime())
+                .add("eject_time", impact.getEvent().getEjectTime())
+                .add("before", getWindowResult(impact.getBefore()))
+                .add("during", getWindowResult(impact.getDuring()))
+                .add("after", getWindowResult(impact.getAfter()));
+        addSec(injection, "time_to_detect_sec", impact.getTimeToDetectMillis());
+        addSec(injection, "time_to_recover_sec", impact.getTimeToRecoverMillis());
+        injectionResults.add(injection);
+      }
+      result.add("injections", injectionResults);
+    }
+    stats.getVerificationResult().ifPresent(v -> result.add("verification", toJson(v)));
+    return result.build();
+  }
+
+  private JsonObjectBuilder getSaturationResult() {
+    JsonArrayBuilder steps = Json.createArrayBuilder();
+    for (SaturationStep step : stats.getSaturationSteps()) {
+      StageResult result = step.getResult();
+      steps.add(
+          Json.createObjectBuilder()
+              .add("rate", step.getRate())
+              .add("throughput", round(result.getThroughput()))
+              .add("succeeded", result.getSuccessCount())
+              .add("failed", result.getFailureCount())
+              .add("mean_latency", toUnit(result.getMeanLatencyNanos()))
+              .add("latency_50", toUnit(result.getLatency50Nanos()))
+              .add("latency_90", toUnit(result.getLatency90Nanos()))
+              .add("latency_99", toUnit(result.getLatency99Nanos()))
+              .add("max_latency", toUnit(result.getMaxLatencyNanos()))
+              .add(
+                  "latency_at_slo_percentile",
+                  toUnit(result.getLatencyAtPercentileNanos(config.getSloPercentile())))
+              .add("passed", step.isPassed())
+              .add("reason", step.getReason()));
+    }
+
+    return Json.createObjectBuilder()
+        .add("slo_percentile", config.getSloPercentile())
+        .add("capacity", stats.getCapacity())
+        .add("steps", steps);
+  }
+
+  private JsonObjectBuilder toJson(VerificationResult verification) {
+    return Json.createObjectBuilder()
+        .add("passed", verification.getPassedCount())
+        .add("mismatched", verification.getMismatchCount())
+        .add("failed_partitions", verification.getFailedPartitionCount());
+  }
+
+  private JsonObjectBuilder getWindowResult(WindowResult window) {
+    return Json.createObjectBuilder()
+        .add("throughput", round(window.getThroughput()))
+        .add("succeeded", window.getSuccessCount())
+        .add("failed", window.getFailureCount())
+        .add("latency_50", toUnit(window.getLatency50Nanos()))
+        .add("latency_99", toUnit(window.getLatency99Nanos()))
+        .add("max_latency", toUnit(window.getMaxLatencyNanos()));
+  }
+
+  private JsonObjectBuilder getSummaryResult(
+      Histogram histogram, long failureCount, double throughput) {
+    JsonArrayBuilder distribution = Json.createArrayBuilder();
+    if (histogram.getTotalCount() > 0) {
+      for (HistogramIterationValue v : histogram.percentiles(5)) {
+        distribution.add(
+            Json.createObjectBuilder()
+                .add("percentile", v.getPercentileLevelIteratedTo())
+                .add("latency", toUnit(v.getValueIteratedTo()))
+                .add("count", v.getTotalCountToThisValue()));
+      }
+    }
+
+    return Json.createObjectBuilder()
+        .add("throughput", throughput)
+        .add("succeeded", histogram.getTotalCount())
+        .add("failed", failureCount)
+        .add("mean_latency", toUnit(histogram.getMean()))
+        .add("sd_latency", toUnit(histogram.getStdDeviation()))
+        .add("min_latency", toUnit(Stats.getMinValue(histogram)))
+        .add("max_latency", toUnit(histogram.getMaxValue()))
+        .add("latency_50", toUnit(histogram.getValueAtPercentile(50.0)))
+        .add("latency_90", toUnit(histogram.getValueAtPercentile(90.0)))
+        .add("latency_99", toUnit(histogram.getValueAtPercentile(99.0)))
+        .add("latency_99_9", toUnit(histogram.getValueAtPercentile(99.9)))
+        .add("distribution", distribution);
+  }
+
+  private static JsonObjectBuilder addSec(
+      JsonObjectBuilder builder, String name, OptionalLong millis) {
+    return millis.isPresent()
+        ? builder.add(name, millis.getAsLong() / 1000.0)
+        : builder.addNull(name);
+  }
+
+  private double toUnit(double nanos) {
+    return round(nanos / unit.toNanos(1));
+  }
+
+  private long toUnit(long nanos) {
+    return unit.convert(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  private double round(double v) {
+    return new BigDecimal(v)
+        .setScale((int) config.getSignificantDigits(), RoundingMode.HALF_UP)
+        .doubleValue();
+  }
+
+  /**
+   * Writes the result to the file.
+   *
+   * @param result the result as a {@code JsonObject}
+   * @param file a file to which the result is written
+   * @param format {@code "json"} or {@code "csv"}
+   */
+  static void write(JsonObject result, File file, String format) {
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      if (format.equals(CSV_FORMAT)) {
+        writeCsv(result, new PrintWriter(writer));
+      } else {
+        writeJson(result, writer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the result to " + file, e);
+    }
+  }
+
+  /**
+   * Converts a value of a TOML table into a {@code JsonValue}.
+   *
+   * @param value a value of a TOML table
+   * @return {@code JsonValue}
+   */
+  @SuppressWarnings("unchecked")
+  static JsonValue toJsonValue(Object value) {
+    if (value instanceof Map) {
+      JsonObjectBuilder builder = Json.createObjectBuilder();
+      ((Map<String, Object>) value).forEach((k, v) -> builder.add(k, toJsonValue(v)));
+      return builder.build();
+    } else if (value instanceof List) {
+      JsonArrayBuilder builder = Json.createArrayBuilder();
+      ((List<Object>) value).forEach(v -> builder.add(toJsonValue(v)));
+      return builder.build();
+    } else if (value instanceof Boolean) {
+      return (Boolean) value ? JsonValue.TRUE : JsonValue.FALSE;
+    } else if (value instanceof Long || value instanceof Integer) {
+      return Json.createValue(((Number) value).longValue());
+    } else if (value instanceof Number) {
+      return Json.createValue(((Number) value).doubleValue());
+    } else if (value instanceof Date) {
+      return Json.createValue(((Date) value).toInstant().toString());
+    } else if (value == null) {
+      return JsonValue.NULL;
+    } else {
+      return Json.createValue(value.toString());
+    }
+  }
+
+  private static void writeJson(JsonObject result, Writer writer) {
+    JsonWriter jsonWriter =
+        Json.createWriterFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true))
+            .createWriter(writer);
+    jsonWriter.writeObject(result);
+  }
+
+  private static void writeCsv(JsonObject result, PrintWriter writer) {
+    writer.println("key,value");
+    flatten("", result, writer);
+    writer.flush();
+  }
+
+  private static void flatten(String prefix, JsonValue value, PrintWriter writer) {
+    switch (value.getValueType()) {
+      case OBJECT:
+        ((JsonObject) value).forEach((k, v) -> flatten(prefix + k + ".", v, writer));
+        break;
+      case ARRAY:
+        JsonArray array = (JsonArray) value;
+        for (int i = 0; i < array.size(); i++) {
+          flatten(prefix + i + ".", array.get(i), writer);
+        }
+        break;
+      case STRING:
+        writer.println(toCsvKey(prefix) + "," + quote(((JsonString) value).getString()));
+        break;
+      default:
+        writer.println(toCsvKey(prefix) + "," + value);
+        break;
+    }
+  }
+
+  private static String toCsvKey(String prefix) {
+    return quote(prefix.substring(0, prefix.length() - 1));
+  }
+
+  private static String quote(String s) {
+    if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+      return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+    return s;
+  }
+}
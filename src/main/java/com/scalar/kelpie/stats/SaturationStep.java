@@ -0,0 +1,60 @@
+package com.scalar.kelpie.stats;
+
+import javax.annotation.concurrent.Immutable;
+
+/** SaturationStep is a rate tried by the saturation search and whether the SLO held at it. */
+@Immutable
+public class SaturationStep {
+  private final StageResult result;
+  private final boolean isPassed;
+  private final String reason;
+
+  /**
+   * Constructs a {@code SaturationStep}.
+   *
+   * @param result {@link StageResult} of the step
+   * @param isPassed true if the SLO held
+   * @param reason the reason why the SLO didn't hold, or an empty string if it held
+   */
+  public SaturationStep(StageResult result, boolean isPassed, String reason) {
+    this.result = result;
+    this.isPassed = isPassed;
+    this.reason = reason;
+  }
+
+  /**
+   * Returns the statistics of the step.
+   *
+   * @return {@link StageResult}
+   */
+  public StageResult getResult() {
+    return result;
+  }
+
+  /**
+   * Returns the offered rate of the step.
+   *
+   * @return the rate (operations per second)
+   */
+  public long getRate() {
+    return result.getStage().getTargetRate();
+  }
+
+  /**
+   * Returns true if the SLO held at the rate.
+   *
+   * @return true if the SLO held
+   */
+  public boolean isPassed() {
+    return isPassed;
+  }
+
+  /**
+   * Returns the reason why the SLO didn't hold.
+   *
+   * @return the reason, or an empty string if the SLO held
+   */
+  public String getReason() {
+    return reason;
+  }
+}
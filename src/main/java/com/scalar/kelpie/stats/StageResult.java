@@ -0,0 +1,134 @@
+package com.scalar.kelpie.stats;
+
+import com.scalar.kelpie.config.LoadStage;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.Immutable;
+import org.HdrHistogram.Histogram;
+
+/** StageResult is the statistics of operations in a stage of the load profile. */
+@Immutable
+public class StageResult {
+  private final LoadStage stage;
+  private final Histogram histogram;
+  private final long successCount;
+  private final long failureCount;
+  private final long measuredNanos;
+  private final double meanLatencyNanos;
+  private final long latency50Nanos;
+  private final long latency90Nanos;
+  private final long latency99Nanos;
+  private final long maxLatencyNanos;
+
+  StageResult(LoadStage stage, Histogram histogram, long failureCount, long measuredNanos) {
+    this.stage = stage;
+    this.histogram = histogram;
+    this.successCount = histogram.getTotalCount();
+    this.failureCount = failureCount;
+    this.measuredNanos = measuredNanos;
+    this.meanLatencyNanos = histogram.getMean();
+    this.latency50Nanos = histogram.getValueAtPercentile(50.0);
+    this.latency90Nanos = histogram.getValueAtPercentile(90.0);
+    this.latency99Nanos = histogram.getValueAtPercentile(99.0);
+    this.maxLatencyNanos = histogram.getMaxValue();
+  }
+
+  /**
+   * Returns the stage.
+   *
+   * @return {@link LoadStage}
+   */
+  public LoadStage getStage() {
+    return stage;
+  }
+
+  /**
+   * Returns the number of operations which succeeded in the stage.
+   *
+   * @return success count
+   */
+  public long getSuccessCount() {
+    return successCount;
+  }
+
+  /**
+   * Returns the number of operations which failed in the stage.
+   *
+   * @return failure count
+   */
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  /**
+   * Returns the actual measured time of the stage.
+   *
+   * @return the measured time in seconds
+   */
+  public double getMeasuredSec() {
+    return (double) measuredNanos / TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * Returns the throughput in the stage.
+   *
+   * @return throughput (operation per second)
+   */
+  public double getThroughput() {
+    return successCount * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(measuredNanos, 1L);
+  }
+
+  /**
+   * Returns an average latency in the stage.
+   *
+   * @return average latency in nanoseconds
+   */
+  public double getMeanLatencyNanos() {
+    return meanLatencyNanos;
+  }
+
+  /**
+   * Returns the latency at 50 percentile in the stage.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency50Nanos() {
+    return latency50Nanos;
+  }
+
+  /**
+   * Returns the latency at 90 percentile in the stage.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency90Nanos() {
+    return latency90Nanos;
+  }
+
+  /**
+   * Returns the latency at 99 percentile in the stage.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency99Nanos() {
+    return latency99Nanos;
+  }
+
+  /**
+   * Returns the latency at the given percentile in the stage.
+   *
+   * @param percentile a percentile
+   * @return the latency in nanoseconds
+   */
+  public long getLatencyAtPercentileNanos(double percentile) {
+    return histogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Returns the maximum latency in the stage.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+}
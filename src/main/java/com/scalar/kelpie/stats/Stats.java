@@ -1,25 +1,68 @@
 package com.scalar.kelpie.stats;
 
 import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
-import org.HdrHistogram.ConcurrentHistogram;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
 import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Stats manages some statistics such as success count, failure count, throughput and latencies of
- * operations.
+ * operations. Latencies are recorded in nanoseconds and reported in {@code latency_unit} of {@code
+ * [stats]}. Each thread records latencies into one of striped histograms to avoid contention, and
+ * they are merged when the statistics are read.
+ *
+ * <p>Operations can be recorded under the operation types registered with {@code operation_types}
+ * of {@code [stats]} to get the statistics of each type separately. The statistics without an
+ * operation type are of all operations.
  */
 public class Stats {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final Config config;
-  private final Histogram histogram;
-  private final AtomicLong failureCount = new AtomicLong(0L);
+  private final OperationStats defaultOperation;
+  private final Map<String, OperationStats> operations;
+  private final List<OperationStats> allOperations;
+  private final TimeUnit unit;
+  private final LatencyLogWriter latencyLogWriter;
+  private final HistogramLogWriter histogramLogWriter;
+  private final WarmupDetector warmupDetector;
+  private final List<IntervalSample> intervals = new ArrayList<>();
+  private volatile long startTime;
+  private volatile long endTime;
+  private volatile long measurementStart;
+  private volatile long measuredNanos = 0L;
+  private final List<StageResult> stages = new ArrayList<>();
+  private final List<SaturationStep> saturationSteps = new ArrayList<>();
+  private volatile Optional<VerificationResult> verificationResult = Optional.empty();
+  private final List<InjectionEvent> injections = new ArrayList<>();
+  private LoadStage currentStage;
+  private Histogram stageStartHistogram;
+  private long stageStartFailureCount;
+  private long stageStartMeasuredNanos;
 
   /**
    * Constructs a {@code Stats} with {@link Config}.
@@ -28,24 +71,474 @@ public class Stats {
    */
   public Stats(Config config) {
     this.config = config;
-    this.histogram = new ConcurrentHistogram((int) config.getSignificantDigits());
+    int numWriters = (int) config.getMaxConcurrency();
+    int digits = (int) config.getSignificantDigits();
+
+    this.defaultOperation = new OperationStats(null, numWriters, digits);
+    Map<String, OperationStats> operations = new LinkedHashMap<>();
+    config
+        .getOperationTypes()
+        .forEach(name -> operations.put(name, new OperationStats(name, numWriters, digits)));
+    this.operations = Collections.unmodifiableMap(operations);
+    List<OperationStats> allOperations = new ArrayList<>();
+    allOperations.add(defaultOperation);
+    allOperations.addAll(operations.values());
+    this.allOperations = Collections.unmodifiableList(allOperations);
+
+    this.unit = config.getLatencyUnit();
+    if (config.isLatencyLogEnabled()) {
+      this.latencyLogWriter =
+          new LatencyLogWriter(
+              new File(config.getLatencyLogFile()), (int) config.getLatencyLogBufferSize());
+    } else {
+      this.latencyLogWriter = null;
+    }
+    this.histogramLogWriter =
+        config.getHistogramLogFile().map(this::openHistogramLog).orElse(null);
+
+    if (config.getWarmupMode().equals(Config.ADAPTIVE_WARMUP)) {
+      this.warmupDetector =
+          new WarmupDetector(
+              numWriters,
+              digits,
+              config.getWarmupTolerance(),
+              config.getWarmupStableIntervals(),
+              config.getWarmupMaxSec());
+    } else {
+      this.warmupDetector = null;
+    }
   }
 
   /**
-   * Records a latency.
+   * Records a latency in milliseconds.
    *
    * @param latencyMillis a latency to be recorded
    */
   public void recordLatency(long latencyMillis) {
-    histogram.recordValue(latencyMillis);
-    if (config.isLatencyLogEnabled()) {
-      logger.info("[Latency] " + System.currentTimeMillis() + " " + latencyMillis);
+    recordLatency(latencyMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Records a latency in the given time unit. Use {@code TimeUnit.NANOSECONDS} with a latency
+   * measured by {@code System.nanoTime()} to record sub-millisecond latencies precisely.
+   *
+   * @param latency a latency to be recorded
+   * @param latencyUnit the time unit of {@code latency}
+   */
+  public void recordLatency(long latency, TimeUnit latencyUnit) {
+    recordLatency(defaultOperation, latencyUnit.toNanos(latency));
+  }
+
+  /**
+   * Records a latency of an operation of the given type.
+   *
+   * @param operation an operation type registered with {@code operation_types}. If it is null,
+   *     the latency is recorded without an operation type.
+   * @param latency a latency to be recorded
+   * @param latencyUnit the time unit of {@code latency}
+   * @throws IllegalArgumentException if the operation type isn't registered
+   */
+  public void recordLatency(String operation, long latency, TimeUnit latencyUnit) {
+    recordLatency(getOperation(operation), latencyUnit.toNanos(latency));
+  }
+
+  /**
+   * Records a latency of a ramp-up operation for the adaptive warm-up. It isn't included in the
+   * statistics. Nothing is recorded if {@code warmup_mode} of {@code [common]} isn't {@code
+   * "adaptive"}.
+   *
+   * @param latency a latency to be recorded
+   * @param latencyUnit the time unit of {@code latency}
+   */
+  public void recordWarmupLatency(long latency, TimeUnit latencyUnit) {
+    if (warmupDetector != null) {
+      warmupDetector.recordLatency(latencyUnit.toNanos(latency));
     }
   }
 
+  /**
+   * Returns true if the adaptive warm-up has finished. The throughput and the 99th percentile
+   * latency of ramp-up operations are checked every second, and the warm-up finishes when both of
+   * them change by at most {@code warmup_tolerance_percent} of {@code [common]} for {@code
+   * warmup_stable_intervals} consecutive intervals, or when {@code warmup_max_sec} elapses. It
+   * always returns true if {@code warmup_mode} isn't {@code "adaptive"}.
+   *
+   * @return true if the warm-up has finished
+   */
+  public boolean isWarmedUp() {
+    return warmupDetector == null || warmupDetector.isWarmedUp();
+  }
+
   /** Records a failure. */
   public void recordFailure() {
-    failureCount.incrementAndGet();
+    defaultOperation.recordFailure();
+  }
+
+  /**
+   * Records a failure of an operation of the given type.
+   *
+   * @param operation an operation type registered with {@code operation_types}. If it is null,
+   *     the failure is recorded without an operation type.
+   * @throws IllegalArgumentException if the operation type isn't registered
+   */
+  public void recordFailure(String operation) {
+    getOperation(operation).recordFailure();
+  }
+
+  /**
+   * Returns the registered operation types.
+   *
+   * @return a list of the operation types
+   */
+  public List<String> getOperationTypes() {
+    return new ArrayList<>(operations.keySet());
+  }
+
+  /**
+   * Starts the measurement. The start time of the measurement is recorded, and the first reporting
+   * interval starts.
+   */
+  public void start() {
+    allOperations.forEach(OperationStats::getIntervalHistogram);
+    startTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Closes the outputs of this {@code Stats} such as the latency log, and records the end time of
+   * the measurement. The recorded statistics can be read even after this is invoked.
+   */
+  public void close() {
+    endTime = System.currentTimeMillis();
+    if (latencyLogWriter != null) {
+      latencyLogWriter.close();
+    }
+    if (histogramLogWriter != null) {
+      histogramLogWriter.close();
+    }
+  }
+
+  /**
+   * Returns the number of latency records dropped from the latency log since it couldn't keep up
+   * with the operations.
+   *
+   * @return the number of dropped latency records
+   */
+  public long getDroppedLatencyLogCount() {
+    return latencyLogWriter == null ? 0L : latencyLogWriter.getDroppedCount();
+  }
+
+  /**
+   * Returns the start time of the measurement.
+   *
+   * @return the start time in milliseconds since the epoch
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the end time of the measurement.
+   *
+   * @return the end time in milliseconds since the epoch
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Returns the statistics of each reporting interval.
+   *
+   * @return a list of {@link IntervalSample}s
+   */
+  public List<IntervalSample> getIntervals() {
+    synchronized (intervals) {
+      return new ArrayList<>(intervals);
+    }
+  }
+
+  /**
+   * Sets the start of the measurement phase. It is set by {@link
+   * com.scalar.kelpie.executor.PhaseClock}.
+   *
+   * @param nanoTime the start time given by {@code System.nanoTime()}
+   */
+  public void startMeasurement(long nanoTime) {
+    measurementStart = nanoTime;
+  }
+
+  /**
+   * Sets the end of the measurement phase. It is set by {@link
+   * com.scalar.kelpie.executor.PhaseClock} when the last thread finishes the process. When the
+   * process runs in multiple stages, the measured time of each stage is added up. Nothing is added
+   * if the process finished before the measurement started since no operation was measured.
+   *
+   * @param nanoTime the end time given by {@code System.nanoTime()}
+   */
+  public void finishMeasurement(long nanoTime) {
+    long nanos = nanoTime - measurementStart;
+    if (nanos > 0) {
+      measuredNanos += nanos;
+    }
+  }
+
+  /**
+   * Returns the actual time of the measurement phase.
+   *
+   * @return the measured time in seconds, or {@code run_for_sec} of {@code [common]} if the
+   *     measurement hasn't finished
+   */
+  public double getMeasuredSec() {
+    long nanos = measuredNanos;
+    if (nanos == 0L) {
+      return config.getRunForSec();
+    }
+    return (double) nanos / TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * Starts recording the statistics of a stage of the load profile. It is invoked by {@link
+   * com.scalar.kelpie.executor.KelpieExecutor} before the stage starts.
+   *
+   * @param stage {@link LoadStage}
+   */
+  public void startStage(LoadStage stage) {
+    synchronized (stages) {
+      currentStage = stage;
+      stageStartHistogram = getAccumulatedHistogram();
+      stageStartFailureCount = getFailureCount();
+      stageStartMeasuredNanos = measuredNanos;
+    }
+  }
+
+  /**
+   * Finishes recording the statistics of the current stage of the load profile. It is invoked by
+   * {@link com.scalar.kelpie.executor.KelpieExecutor} after all threads finish the stage.
+   */
+  public void finishStage() {
+    finishStage(true);
+  }
+
+  /**
+   * Finishes recording the statistics of the current stage and returns them. A step of the
+   * saturation search isn't listed in {@link #getStages()} since it is recorded as a {@link
+   * SaturationStep}.
+   *
+   * @param isListed true if the result is listed in {@link #getStages()}
+   * @return {@link StageResult} of the stage, or null if no stage has started
+   */
+  public StageResult finishStage(boolean isListed) {
+    synchronized (stages) {
+      if (currentStage == null) {
+        return null;
+      }
+      Histogram histogram = getAccumulatedHistogram();
+      histogram.subtract(stageStartHistogram);
+      StageResult result =
+          new StageResult(
+              currentStage,
+              histogram,
+              getFailureCount() - stageStartFailureCount,
+              measuredNanos - stageStartMeasuredNanos);
+      if (isListed) {
+        stages.add(result);
+      }
+      currentStage = null;
+      stageStartHistogram = null;
+      return result;
+    }
+  }
+
+  /**
+   * Returns the statistics of each finished stage of the load profile.
+   *
+   * @return a list of {@link StageResult}s
+   */
+  public List<StageResult> getStages() {
+    synchronized (stages) {
+      return new ArrayList<>(stages);
+    }
+  }
+
+  /**
+   * Returns a snapshot of the recorded statistics to be merged into {@code Stats} of another
+   * process with {@link #mergeSnapshot(JsonObject)}. The latencies are encoded as compressed
+   * HdrHistograms.
+   *
+   * @return the snapshot as a {@code JsonObject}
+   */
+  public JsonObject getSnapshot() {
+    JsonArrayBuilder operationSnapshots = Json.createArrayBuilder();
+    for (OperationStats operation : allOperations) {
+      Histogram histogram = operation.getAccumulatedHistogram();
+      ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+      int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+      operationSnapshots.add(
+          Json.createObjectBuilder()
+              .add(
+                  "name",
+                  operation.getName() == null
+                      ? JsonValue.NULL
+                      : Json.createValue(operation.getName()))
+              .add(
+                  "histogram",
+                  Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)))
+              .add("failed", operation.getFailureCount()));
+    }
+
+    return Json.createObjectBuilder()
+        .add("measured_nanos", measuredNanos)
+        .add("operations", operationSnapshots)
+        .build();
+  }
+
+  /**
+   * Merges a snapshot of {@code Stats} of another process. The measured time becomes the longest
+   * one of the merged processes since they run at the same time.
+   *
+   * @param snapshot a snapshot given by {@link #getSnapshot()}
+   * @throws IllegalArgumentException if the snapshot is broken or has an unregistered operation
+   *     type
+   */
+  public void mergeSnapshot(JsonObject snapshot) {
+    for (JsonValue value : snapshot.getJsonArray("operations")) {
+      JsonObject operation = (JsonObject) value;
+      String name = operation.isNull("name") ? null : operation.getString("name");
+      byte[] bytes = Base64.getDecoder().decode(operation.getString("histogram"));
+      Histogram histogram;
+      try {
+        histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+      } catch (DataFormatException e) {
+        throw new IllegalArgumentException("Failed to decode a histogram", e);
+      }
+      getOperation(name).merge(histogram, operation.getJsonNumber("failed").longValue());
+    }
+
+    synchronized (stages) {
+      measuredNanos =
+          Math.max(measuredNanos, snapshot.getJsonNumber("measured_nanos").longValue());
+    }
+  }
+
+  /**
+   * Records a step of the saturation search. It is invoked by {@link
+   * com.scalar.kelpie.executor.SaturationSearch}.
+   *
+   * @param step {@link SaturationStep}
+   */
+  public void recordSaturationStep(SaturationStep step) {
+    synchronized (saturationSteps) {
+      saturationSteps.add(step);
+    }
+  }
+
+  /**
+   * Returns the steps of the saturation search in the order they were tried.
+   *
+   * @return a list of {@link SaturationStep}s
+   */
+  public List<SaturationStep> getSaturationSteps() {
+    synchronized (saturationSteps) {
+      return new ArrayList<>(saturationSteps);
+    }
+  }
+
+  /**
+   * Returns the highest rate at which the SLO held in the saturation search.
+   *
+   * @return the rate (operations per second), or 0 if the SLO didn't hold at any rate
+   */
+  public long getCapacity() {
+    return getSaturationSteps().stream()
+        .filter(SaturationStep::isPassed)
+        .mapToLong(SaturationStep::getRate)
+        .max()
+        .orElse(0L);
+  }
+
+  /**
+   * Records a period while an injector was injected. It is invoked by {@link
+   * com.scalar.kelpie.executor.TimelineInjectionExecutor}.
+   *
+   * @param event {@link InjectionEvent}
+   */
+  public void recordInjection(InjectionEvent event) {
+    synchronized (injections) {
+      injections.add(event);
+    }
+  }
+
+  /**
+   * Returns the recorded injection events in the order they were recorded.
+   *
+   * @return a list of {@link InjectionEvent}s
+   */
+  public List<InjectionEvent> getInjections() {
+    synchronized (injections) {
+      return new ArrayList<>(injections);
+    }
+  }
+
+  /**
+   * Returns the statistics before, during and after each injection event calculated with the
+   * reporting intervals.
+   *
+   * @return a list of {@link FaultImpact}s
+   */
+  public List<FaultImpact> getFaultImpacts() {
+    List<IntervalSample> samples = getIntervals();
+    List<InjectionEvent> events = getInjections();
+    Availability availability = Availability.of(samples, events, config.getDegradationThreshold());
+    return FaultImpact.of(samples, events, availability, (int) config.getSignificantDigits());
+  }
+
+  /**
+   * Returns the availability of the target system calculated with the reporting intervals.
+   *
+   * @return {@link Availability}
+   */
+  public Availability getAvailability() {
+    return Availability.of(getIntervals(), getInjections(), config.getDegradationThreshold());
+  }
+
+  /**
+   * Records the result of the verification by a post-process. It is included in the summary and
+   * the exported result.
+   *
+   * @param result {@link VerificationResult}
+   */
+  public void recordVerification(VerificationResult result) {
+    verificationResult = Optional.of(result);
+  }
+
+  /**
+   * Returns the result of the verification by a post-process.
+   *
+   * @return an {@code Optional} with {@link VerificationResult}, or an empty {@code Optional} if no
+   *     verification has been recorded
+   */
+  public Optional<VerificationResult> getVerificationResult() {
+    return verificationResult;
+  }
+
+  /**
+   * Returns a throughput calculated with the number of succeeded operations and the actual time of
+   * the measurement phase.
+   *
+   * @return throughput (operation per second)
+   */
+  public double getThroughput() {
+    return round(getSuccessCount() / getMeasuredSec());
+  }
+
+  /**
+   * Returns a throughput of operations of the given type calculated with the actual time of the
+   * measurement phase.
+   *
+   * @param operation an operation type
+   * @return throughput (operation per second)
+   */
+  public double getThroughput(String operation) {
+    return round(getSuccessCount(operation) / getMeasuredSec());
   }
 
   /**
@@ -55,7 +548,18 @@ public class Stats {
    * @return throughput (operation per second)
    */
   public double getThroughput(long runForSec) {
-    return round((double) histogram.getTotalCount() / runForSec);
+    return round((double) getSuccessCount() / runForSec);
+  }
+
+  /**
+   * Returns a throughput of operations of the given type.
+   *
+   * @param operation an operation type
+   * @param runForSec time in second for which latencies are recorded
+   * @return throughput (operation per second)
+   */
+  public double getThroughput(String operation, long runForSec) {
+    return round((double) getSuccessCount(operation) / runForSec);
   }
 
   /**
@@ -64,7 +568,17 @@ public class Stats {
    * @return success count
    */
   public long getSuccessCount() {
-    return histogram.getTotalCount();
+    return allOperations.stream().mapToLong(OperationStats::getSuccessCount).sum();
+  }
+
+  /**
+   * Returns the number of success of operations of the given type.
+   *
+   * @param operation an operation type
+   * @return success count
+   */
+  public long getSuccessCount(String operation) {
+    return getOperation(operation).getSuccessCount();
   }
 
   /**
@@ -73,53 +587,95 @@ public class Stats {
    * @return failure count
    */
   public long getFailureCount() {
-    return failureCount.get();
+    return allOperations.stream().mapToLong(OperationStats::getFailureCount).sum();
+  }
+
+  /**
+   * Returns the number of failure of operations of the given type.
+   *
+   * @param operation an operation type
+   * @return failure count
+   */
+  public long getFailureCount(String operation) {
+    return getOperation(operation).getFailureCount();
   }
 
   /**
    * Returns an average latency.
    *
-   * @return average latency in millisecond
+   * @return average latency in {@code latency_unit}
    */
   public double getMeanLatency() {
-    return round(histogram.getMean());
+    return toUnit(getAccumulatedHistogram().getMean());
+  }
+
+  /**
+   * Returns an average latency of operations of the given type.
+   *
+   * @param operation an operation type
+   * @return average latency in {@code latency_unit}
+   */
+  public double getMeanLatency(String operation) {
+    return toUnit(getOperation(operation).getAccumulatedHistogram().getMean());
   }
 
   /**
    * Returns a standard deviation of latencies.
    *
-   * @return standard deviation of latencies in millisecond
+   * @return standard deviation of latencies in {@code latency_unit}
    */
   public double getStandardDeviation() {
-    return round(histogram.getStdDeviation());
+    return toUnit(getAccumulatedHistogram().getStdDeviation());
   }
 
   /**
    * Returns the maximum latency.
    *
-   * @return the maximum latency in millisecond
+   * @return the maximum latency in {@code latency_unit}
    */
   public long getMaxLatency() {
-    return histogram.getMaxValue();
+    return toUnit(getAccumulatedHistogram().getMaxValue());
+  }
+
+  /**
+   * Returns the maximum latency of operations of the given type.
+   *
+   * @param operation an operation type
+   * @return the maximum latency in {@code latency_unit}
+   */
+  public long getMaxLatency(String operation) {
+    return toUnit(getOperation(operation).getAccumulatedHistogram().getMaxValue());
   }
 
   /**
    * Returns the minimum latency.
    *
-   * @return the minimum latency in millisecond
+   * @return the minimum latency in {@code latency_unit}
    */
   public long getMinLatency() {
-    return histogram.getMinValue();
+    return toUnit(getMinValue(getAccumulatedHistogram()));
   }
 
   /**
    * Returns the latency at the given percentile.
    *
    * @param percentile a percentile of latencies
-   * @return a latency at the given percentile in millisecond
+   * @return a latency at the given percentile in {@code latency_unit}
    */
   public long getLatencyAtPercentile(double percentile) {
-    return histogram.getValueAtPercentile(percentile);
+    return toUnit(getAccumulatedHistogram().getValueAtPercentile(percentile));
+  }
+
+  /**
+   * Returns the latency at the given percentile of operations of the given type.
+   *
+   * @param operation an operation type
+   * @param percentile a percentile of latencies
+   * @return a latency at the given percentile in {@code latency_unit}
+   */
+  public long getLatencyAtPercentile(String operation, double percentile) {
+    Histogram histogram = getOperation(operation).getAccumulatedHistogram();
+    return toUnit(histogram.getValueAtPercentile(percentile));
   }
 
   /**
@@ -128,34 +684,281 @@ public class Stats {
    * @return a summary of the statistics
    */
   public String getSummary() {
-    return "==== Statistics Summary ====\n"
-        + "Throughput: "
-        + getThroughput(config.getRunForSec())
-        + " ops\n"
-        + "Succeeded operations: "
-        + getSuccessCount()
-        + "\n"
-        + "Failed operations: "
-        + getFailureCount()
-        + "\n"
-        + "Mean latency: "
-        + getMeanLatency()
-        + " ms\n"
-        + "SD of latency: "
-        + getStandardDeviation()
-        + " ms\n"
-        + "Max latency: "
-        + getMaxLatency()
-        + " ms\n"
-        + "Latency at 50 percentile: "
-        + getLatencyAtPercentile(50.0)
-        + " ms\n"
-        + "Latency at 90 percentile: "
-        + getLatencyAtPercentile(90.0)
-        + " ms\n"
-        + "Latency at 99 percentile: "
-        + getLatencyAtPercentile(99.0)
-        + " ms\n";
+    String unitName = " " + getUnitName(unit) + "\n";
+    StringBuilder summary =
+        new StringBuilder()
+            .append("==== Statistics Summary ====\n")
+            .append("Throughput: ")
+            .append(getThroughput())
+            .append(" ops\n")
+            .append("Measured time: ")
+            .append(round(getMeasuredSec()))
+            .append(" sec\n")
+            .append("Succeeded operations: ")
+            .append(getSuccessCount())
+            .append("\n")
+            .append("Failed operations: ")
+            .append(getFailureCount())
+            .append("\n")
+            .append("Mean latency: ")
+            .append(getMeanLatency())
+            .append(unitName)
+            .append("SD of latency: ")
+            .append(getStandardDeviation())
+            .append(unitName)
+            .append("Max latency: ")
+            .append(getMaxLatency())
+            .append(unitName)
+            .append("Latency at 50 percentile: ")
+            .append(getLatencyAtPercentile(50.0))
+            .append(unitName)
+            .append("Latency at 90 percentile: ")
+            .append(getLatencyAtPercentile(90.0))
+            .append(unitName)
+            .append("Latency at 99 percentile: ")
+            .append(getLatencyAtPercentile(99.0))
+            .append(unitName);
+
+    for (String operation : operations.keySet()) {
+      summary
+          .append("---- Operation: ")
+          .append(operation)
+          .append(" ----\n")
+          .append("Throughput: ")
+          .append(getThroughput(operation))
+          .append(" ops\n")
+          .append("Succeeded operations: ")
+          .append(getSuccessCount(operation))
+          .append("\n")
+          .append("Failed operations: ")
+          .append(getFailureCount(operation))
+          .append("\n")
+          .append("Mean latency: ")
+          .append(getMeanLatency(operation))
+          .append(unitName)
+          .append("Max latency: ")
+          .append(getMaxLatency(operation))
+          .append(unitName)
+          .append("Latency at 50 percentile: ")
+          .append(getLatencyAtPercentile(operation, 50.0))
+          .append(unitName)
+          .append("Latency at 90 percentile: ")
+          .append(getLatencyAtPercentile(operation, 90.0))
+          .append(unitName)
+          .append("Latency at 99 percentile: ")
+          .append(getLatencyAtPercentile(operation, 99.0))
+          .append(unitName);
+    }
+
+    for (StageResult stage : getStages()) {
+      summary
+          .append("---- Stage: ")
+          .append(stage.getStage().getName())
+          .append(" ----\n")
+          .append("Concurrency: ")
+          .append(stage.getStage().getConcurrency())
+          .append("\n");
+      if (stage.getStage().getTargetRate() > 0) {
+        summary.append("Target rate: ").append(stage.getStage().getTargetRate()).append(" ops\n");
+      }
+      summary
+          .append("Throughput: ")
+          .append(round(stage.getThroughput()))
+          .append(" ops\n")
+          .append("Succeeded operations: ")
+          .append(stage.getSuccessCount())
+          .append("\n")
+          .append("Failed operations: ")
+          .append(stage.getFailureCount())
+          .append("\n")
+          .append("Mean latency: ")
+          .append(toUnit(stage.getMeanLatencyNanos()))
+          .append(unitName)
+          .append("Latency at 99 percentile: ")
+          .append(toUnit(stage.getLatency99Nanos()))
+          .append(unitName);
+    }
+
+    List<SaturationStep> steps = getSaturationSteps();
+    if (!steps.isEmpty()) {
+      summary.append("==== Saturation Search ====\n");
+      for (SaturationStep step : steps) {
+        summary
+            .append("Rate ")
+            .append(step.getRate())
+            .append(" ops: throughput ")
+            .append(round(step.getResult().getThroughput()))
+            .append(" ops, ")
+            .append(config.getSloPercentile())
+            .append(" percentile latency ")
+            .append(toUnit(step.getResult().getLatencyAtPercentileNanos(config.getSloPercentile())))
+            .append(" ")
+            .append(getUnitName(unit))
+            .append(step.isPassed() ? ", passed\n" : ", failed (" + step.getReason() + ")\n");
+      }
+      summary.append("Maximum sustainable rate: ").append(getCapacity()).append(" ops\n");
+    }
+
+    if (!getIntervals().isEmpty()) {
+      Availability availability = getAvailability();
+      summary
+          .append("==== Availability ====\n")
+          .append("Baseline throughput: ")
+          .append(round(availability.getBaselineThroughput()))
+          .append(" ops\n")
+          .append("Degraded time: ")
+          .append(availability.getDegradedMillis() / 1000.0)
+          .append(" sec\n")
+          .append("Longest outage: ")
+          .append(availability.getLongestOutageMillis() / 1000.0)
+          .append(" sec\n");
+    }
+
+    List<FaultImpact> impacts = getFaultImpacts();
+    if (!impacts.isEmpty()) {
+      summary.append("==== Fault Injections ====\n");
+      for (FaultImpact impact : impacts) {
+        InjectionEvent event = impact.getEvent();
+        summary
+            .append(event.getName())
+            .append(" at ")
+            .append((event.getInjectTime() - startTime) / 1000.0)
+            .append(" sec for ")
+            .append((event.getEjectTime() - event.getInjectTime()) / 1000.0)
+            .append(" sec\n");
+        appendWindow(summary, "  Before: ", impact.getBefore());
+        appendWindow(summary, "  During: ", impact.getDuring());
+        appendWindow(summary, "  After:  ", impact.getAfter());
+        summary
+            .append("  Time to detect: ")
+            .append(formatMillis(impact.getTimeToDetectMillis(), "not degraded"))
+            .append(", time to recover: ")
+            .append(formatMillis(impact.getTimeToRecoverMillis(), "not recovered"))
+            .append("\n");
+      }
+    }
+
+    return summary.toString();
+  }
+
+  /**
+   * Returns the result of the process as a {@code JsonObject}. It includes the config, the seed,
+   * the start and end time, the summary, the percentile distribution of latencies, the statistics
+   * of each operation type, each stage of the load profile, each reporting interval, the
+   * availability and the impact of each fault injection. Latencies are in {@code latency_unit}.
+   *
+   * @return the result as a {@code JsonObject}
+   */
+  public JsonObject getResult() {
+    return new ResultWriter(this, config).getResult();
+  }
+
+  /**
+   * Exports the result of the process to {@code result_file} of {@code [stats]} in {@code
+   * result_format}. Nothing is exported if {@code result_file} isn't specified.
+   */
+  public void exportResult() {
+    if (!config.getResultFile().isPresent()) {
+      return;
+    }
+    File file = new File(config.getResultFile().get());
+    ResultWriter.write(getResult(), file, config.getResultFormat());
+    logger.info("The result has been exported to " + file);
+  }
+
+  /**
+   * Compares the result of the process with the result of a previous run exported as JSON. A
+   * regression is reported when the throughput decreases by more than {@code
+   * throughput_tolerance_percent} of {@code [stats]} or a latency at 50, 90 or 99 percentile
+   * increases by more than {@code latency_tolerance_percent}.
+   *
+   * @param baselineFile a result file of a previous run
+   * @return descriptions of regressions, or an empty list if no regression is found
+   */
+  public List<String> compareWithBaseline(File baselineFile) {
+    BaselineComparator comparator =
+        new BaselineComparator(config.getThroughputTolerance(), config.getLatencyTolerance());
+    return comparator.compare(BaselineComparator.load(baselineFile), getResult());
+  }
+
+  private void appendWindow(StringBuilder summary, String label, WindowResult window) {
+    summary
+        .append(label)
+        .append(round(window.getThroughput()))
+        .append(" ops, ")
+        .append(window.getFailureCount())
+        .append(" failures, latency at 50/99 percentile ")
+        .append(toUnit(window.getLatency50Nanos()))
+        .append("/")
+        .append(toUnit(window.getLatency99Nanos()))
+        .append(" ")
+        .append(getUnitName(unit))
+        .append("\n");
+  }
+
+  private static String formatMillis(OptionalLong millis, String absent) {
+    return millis.isPresent() ? (millis.getAsLong() / 1000.0) + " sec" : absent;
+  }
+
+  private void recordLatency(OperationStats operation, long latencyNanos) {
+    operation.recordLatency(latencyNanos);
+    if (latencyLogWriter != null) {
+      latencyLogWriter.write(System.currentTimeMillis(), latencyNanos);
+    }
+  }
+
+  private OperationStats getOperation(String name) {
+    if (name == null) {
+      return defaultOperation;
+    }
+    OperationStats operation = operations.get(name);
+    if (operation == null) {
+      throw new IllegalArgumentException(
+          "Operation type " + name + " isn't registered in stats.operation_types");
+    }
+    return operation;
+  }
+
+  // Like getMaxValue(), it returns the highest value equivalent to the recorded minimum, so that a
+  // latency of exactly 1 ms isn't reported as 0 ms
+  static long getMinValue(Histogram histogram) {
+    if (histogram.getTotalCount() == 0) {
+      return 0L;
+    }
+    return histogram.highestEquivalentValue(histogram.getMinValue());
+  }
+
+  Histogram getAccumulatedHistogram() {
+    Histogram histogram = new Histogram((int) config.getSignificantDigits());
+    allOperations.forEach(o -> histogram.add(o.getAccumulatedHistogram()));
+    return histogram;
+  }
+
+  Histogram getAccumulatedHistogram(String operation) {
+    return getOperation(operation).getAccumulatedHistogram();
+  }
+
+  private HistogramLogWriter openHistogramLog(String file) {
+    try {
+      HistogramLogWriter writer = new HistogramLogWriter(file);
+      long now = System.currentTimeMillis();
+      writer.outputLogFormatVersion();
+      writer.outputComment("Latencies are recorded in nanoseconds");
+      writer.outputStartTime(now);
+      writer.setBaseTime(now);
+      writer.outputLegend();
+      return writer;
+    } catch (FileNotFoundException e) {
+      throw new UncheckedIOException("Failed to open the histogram log " + file, e);
+    }
+  }
+
+  private double toUnit(double nanos) {
+    return round(nanos / unit.toNanos(1));
+  }
+
+  private long toUnit(long nanos) {
+    return unit.convert(nanos, TimeUnit.NANOSECONDS);
   }
 
   private double round(double v) {
@@ -164,42 +967,116 @@ public class Stats {
         .doubleValue();
   }
 
-  public class RealtimeReport implements Runnable {
-    private AtomicBoolean isDone;
+  static String getUnitName(TimeUnit unit) {
+    switch (unit) {
+      case NANOSECONDS:
+        return "ns";
+      case MICROSECONDS:
+        return "us";
+      default:
+        return "ms";
+    }
+  }
 
-    public RealtimeReport(AtomicBoolean isDone) {
-      this.isDone = isDone;
+  /**
+   * RealtimeReport collects the statistics of each interval while {@link
+   * com.scalar.kelpie.modules.Processor}s run. {@link #tick()} should be invoked every {@code
+   * report_interval_ms}. It keeps the statistics as {@link IntervalSample}s, and outputs them to
+   * the {@link Reporter}s of {@code reporters} if {@code realtime_report_enabled} is true and to
+   * the HdrHistogram interval log if {@code histogram_log_file} is specified.
+   */
+  public class RealtimeReport implements AutoCloseable {
+    private final List<Reporter> reporters;
+    private final Map<OperationStats, Long> prevOperationFailureCounts = new HashMap<>();
+    private long prevFailureCount = 0L;
+    private boolean isClosed = false;
+
+    public RealtimeReport() {
+      this.reporters =
+          config.isRealtimeReportEnabled() ? Reporters.create(config) : Collections.emptyList();
     }
 
-    @Override
-    public void run() {
-      long prevCount = 0L;
-      long prevTime = System.currentTimeMillis();
+    /** Collects and reports the statistics of the interval since the last tick. */
+    public synchronized void tick() {
+      if (isClosed) {
+        return;
+      }
 
-      while (!isDone.get()) {
+      Report report = collect(!reporters.isEmpty());
+      for (Reporter reporter : reporters) {
+        try {
+          reporter.report(report);
+        } catch (RuntimeException e) {
+          logger.warn("Failed to report by " + reporter.getClass().getName(), e);
+        }
+      }
+    }
+
+    /** Reports the last interval and closes the reporters. */
+    @Override
+    public synchronized void close() {
+      if (isClosed) {
+        return;
+      }
+      tick();
+      isClosed = true;
+      for (Reporter reporter : reporters) {
         try {
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
+          reporter.close();
+        } catch (RuntimeException e) {
+          logger.warn("Failed to close " + reporter.getClass().getName(), e);
         }
+      }
+    }
 
-        long currentCount = histogram.getTotalCount();
-        long currentTime = System.currentTimeMillis();
+    private Report collect(boolean isReported) {
+      Histogram interval = new Histogram((int) config.getSignificantDigits());
+      List<OperationStats> typedOperations = new ArrayList<>();
+      List<Histogram> operationIntervals = new ArrayList<>();
+      for (OperationStats operation : allOperations) {
+        Histogram operationInterval = operation.getIntervalHistogram();
+        interval.add(operationInterval);
+        interval.setStartTimeStamp(operationInterval.getStartTimeStamp());
+        interval.setEndTimeStamp(operationInterval.getEndTimeStamp());
+        if (operation != defaultOperation) {
+          typedOperations.add(operation);
+          operationIntervals.add(operationInterval);
+        }
+      }
 
-        double throughput = (currentCount - prevCount) * 1000.0 / (currentTime - prevTime);
+      long failureCount = getFailureCount();
+      IntervalSample sample = new IntervalSample(interval, failureCount - prevFailureCount);
+      synchronized (intervals) {
+        intervals.add(sample);
+      }
+      prevFailureCount = failureCount;
 
-        logger.info(
-            "Throughput: "
-                + round(throughput)
-                + " ops"
-                + "  Total success: "
-                + getSuccessCount()
-                + "  Total failure: "
-                + getFailureCount());
+      if (histogramLogWriter != null) {
+        histogramLogWriter.outputIntervalHistogram(interval);
+        operationIntervals.forEach(histogramLogWriter::outputIntervalHistogram);
+      }
+      if (!isReported) {
+        return null;
+      }
 
-        prevCount = currentCount;
-        prevTime = currentTime;
+      Map<String, IntervalSample> operationSamples = new LinkedHashMap<>();
+      for (int i = 0; i < typedOperations.size(); i++) {
+        OperationStats operation = typedOperations.get(i);
+        long operationFailureCount = operation.getFailureCount();
+        long prev = prevOperationFailureCounts.getOrDefault(operation, 0L);
+        prevOperationFailureCounts.put(operation, operationFailureCount);
+        operationSamples.put(
+            operation.getName(),
+            new IntervalSample(operationIntervals.get(i), operationFailureCount - prev));
       }
+
+      return new Report(
+          sample,
+          operationSamples,
+          getSuccessCount(),
+          failureCount,
+          unit,
+          (int) config.getSignificantDigits());
     }
   }
 }
@@ -0,0 +1,111 @@
+package com.scalar.kelpie.stats;
+
+import javax.annotation.concurrent.ThreadSafe;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * StripedRecorder records values into one of multiple {@link Recorder}s selected by the recording
+ * thread, so that concurrent threads rarely write to the same recorder. The recorded values are
+ * merged when they are read.
+ */
+@ThreadSafe
+class StripedRecorder {
+  private static final int MAX_STRIPES = 1024;
+
+  private final int significantDigits;
+  private final Recorder[] stripes;
+  private final Histogram[] recycled;
+  private final int mask;
+  private final Histogram accumulated;
+  private Histogram interval;
+  private long intervalStartTime;
+
+  /**
+   * Constructs a {@code StripedRecorder}.
+   *
+   * @param numWriters the expected number of threads recording values concurrently
+   * @param significantDigits the number of significant digits of recorded values
+   */
+  StripedRecorder(int numWriters, int significantDigits) {
+    int writers = Math.min(numWriters, Runtime.getRuntime().availableProcessors() * 2);
+    int numStripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(writers, 1) * 2 - 1));
+
+    this.significantDigits = significantDigits;
+    this.stripes = new Recorder[numStripes];
+    this.recycled = new Histogram[numStripes];
+    this.mask = numStripes - 1;
+    for (int i = 0; i < numStripes; i++) {
+      stripes[i] = new Recorder(significantDigits);
+    }
+    this.accumulated = new Histogram(significantDigits);
+    this.interval = new Histogram(significantDigits);
+    this.intervalStartTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value a value to be recorded
+   */
+  void recordValue(long value) {
+    stripes[(int) Thread.currentThread().getId() & mask].recordValue(value);
+  }
+
+  /**
+   * Adds values recorded in another histogram, for example, by another process.
+   *
+   * @param histogram a histogram to be added
+   */
+  synchronized void add(Histogram histogram) {
+    harvest();
+    accumulated.add(histogram);
+    interval.add(histogram);
+  }
+
+  /**
+   * Returns a copy of the histogram of all values recorded so far.
+   *
+   * @return a histogram of all recorded values
+   */
+  synchronized Histogram getAccumulatedHistogram() {
+    harvest();
+    return accumulated.copy();
+  }
+
+  /**
+   * Returns the number of all values recorded so far.
+   *
+   * @return the number of recorded values
+   */
+  synchronized long getTotalCount() {
+    harvest();
+    return accumulated.getTotalCount();
+  }
+
+  /**
+   * Returns the histogram of values recorded since the last invocation of this method. The start
+   * and end time stamps of the returned histogram are set to the interval.
+   *
+   * @return a histogram of values recorded in the interval
+   */
+  synchronized Histogram getIntervalHistogram() {
+    harvest();
+    Histogram result = interval;
+    result.setStartTimeStamp(intervalStartTime);
+    result.setEndTimeStamp(System.currentTimeMillis());
+
+    interval = new Histogram(significantDigits);
+    intervalStartTime = result.getEndTimeStamp();
+
+    return result;
+  }
+
+  private void harvest() {
+    for (int i = 0; i < stripes.length; i++) {
+      recycled[i] = stripes[i].getIntervalHistogram(recycled[i]);
+      accumulated.add(recycled[i]);
+      interval.add(recycled[i]);
+    }
+  }
+}
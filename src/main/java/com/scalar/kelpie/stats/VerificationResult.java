@@ -0,0 +1,60 @@
+package com.scalar.kelpie.stats;
+
+import javax.annotation.concurrent.Immutable;
+
+/** VerificationResult is the number of records verified by a post-process. */
+@Immutable
+public class VerificationResult {
+  private final long passedCount;
+  private final long mismatchCount;
+  private final long failedPartitionCount;
+
+  /**
+   * Constructs a {@code VerificationResult}.
+   *
+   * @param passedCount the number of records which passed the verification
+   * @param mismatchCount the number of records which didn't match the expected ones
+   * @param failedPartitionCount the number of partitions which couldn't be verified
+   */
+  public VerificationResult(long passedCount, long mismatchCount, long failedPartitionCount) {
+    this.passedCount = passedCount;
+    this.mismatchCount = mismatchCount;
+    this.failedPartitionCount = failedPartitionCount;
+  }
+
+  /**
+   * Returns the number of records which passed the verification.
+   *
+   * @return the number of passed records
+   */
+  public long getPassedCount() {
+    return passedCount;
+  }
+
+  /**
+   * Returns the number of records which didn't match the expected ones.
+   *
+   * @return the number of mismatched records
+   */
+  public long getMismatchCount() {
+    return mismatchCount;
+  }
+
+  /**
+   * Returns the number of partitions which couldn't be verified even after the retries.
+   *
+   * @return the number of failed partitions
+   */
+  public long getFailedPartitionCount() {
+    return failedPartitionCount;
+  }
+
+  /**
+   * Returns true if all records have been verified without a mismatch.
+   *
+   * @return true if the verification passed
+   */
+  public boolean isPassed() {
+    return mismatchCount == 0 && failedPartitionCount == 0;
+  }
+}
@@ -0,0 +1,139 @@
+package com.scalar.kelpie.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.ThreadSafe;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WarmupDetector decides when the adaptive warm-up finishes. Latencies of ramp-up operations are
+ * recorded separately from the measured ones, and the throughput and the 99th percentile latency
+ * of each interval are compared with those of the previous interval. The warm-up finishes when
+ * both of them change within the tolerance for the configured number of consecutive intervals, or
+ * when the maximum time elapses.
+ *
+ * <p>All threads share one detector so that they start the measurement at the same time. The
+ * detector is evaluated by a thread which checks it after an interval has elapsed, and the other
+ * threads don't wait for the evaluation.
+ */
+@ThreadSafe
+class WarmupDetector {
+  private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final StripedRecorder recorder;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final long tolerance;
+  private final long stableIntervals;
+  private final long maxNanos;
+  private volatile boolean warmedUp = false;
+
+  // Guarded by lock
+  private boolean started = false;
+  private long startNanos;
+  private long intervalStartNanos;
+  private double prevThroughput = -1.0;
+  private long prevLatency99 = -1L;
+  private long stableCount = 0L;
+
+  WarmupDetector(
+      int numWriters, int significantDigits, long tolerance, long stableIntervals, long maxSec) {
+    this.recorder = new StripedRecorder(numWriters, significantDigits);
+    this.tolerance = tolerance;
+    this.stableIntervals = stableIntervals;
+    this.maxNanos = TimeUnit.SECONDS.toNanos(maxSec);
+  }
+
+  void recordLatency(long latencyNanos) {
+    recorder.recordValue(latencyNanos);
+  }
+
+  boolean isWarmedUp() {
+    return isWarmedUp(System.nanoTime());
+  }
+
+  /**
+   * Returns true if the warm-up has finished at the given time. The current interval is evaluated
+   * if it has elapsed.
+   *
+   * @param now the current time given by {@code System.nanoTime()}
+   * @return true if the warm-up has finished
+   */
+  boolean isWarmedUp(long now) {
+    if (warmedUp) {
+      return true;
+    }
+    if (!lock.tryLock()) {
+      return false;
+    }
+
+    try {
+      if (!started) {
+        started = true;
+        startNanos = now;
+        intervalStartNanos = now;
+        recorder.getIntervalHistogram();
+        return false;
+      }
+      if (now - intervalStartNanos < INTERVAL_NANOS) {
+        return false;
+      }
+
+      Histogram interval = recorder.getIntervalHistogram();
+      evaluate(interval, now - intervalStartNanos);
+      intervalStartNanos = now;
+
+      if (stableCount >= stableIntervals) {
+        logger.info(
+            "Warm-up finished in "
+                + TimeUnit.NANOSECONDS.toMillis(now - startNanos)
+                + " ms after "
+                + stableCount
+                + " stable intervals");
+        warmedUp = true;
+      } else if (now - startNanos >= maxNanos) {
+        logger.warn(
+            "The throughput and the latency didn't become stable within "
+                + TimeUnit.NANOSECONDS.toSeconds(maxNanos)
+                + " seconds of the warm-up");
+        warmedUp = true;
+      }
+      return warmedUp;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evaluate(Histogram interval, long elapsedNanos) {
+    if (interval.getTotalCount() == 0) {
+      prevThroughput = -1.0;
+      stableCount = 0;
+      return;
+    }
+
+    double throughput = interval.getTotalCount() * (double) INTERVAL_NANOS / elapsedNanos;
+    long latency99 = interval.getValueAtPercentile(99.0);
+    if (prevThroughput > 0.0
+        && isWithinTolerance(throughput, prevThroughput)
+        && isWithinTolerance(latency99, prevLatency99)) {
+      stableCount++;
+    } else {
+      stableCount = 0;
+    }
+
+    logger.debug(
+        "Warm-up interval: throughput "
+            + throughput
+            + " ops, 99th percentile latency "
+            + latency99
+            + " ns");
+    prevThroughput = throughput;
+    prevLatency99 = latency99;
+  }
+
+  private boolean isWithinTolerance(double current, double prev) {
+    return Math.abs(current - prev) <= prev * tolerance / 100.0;
+  }
+}
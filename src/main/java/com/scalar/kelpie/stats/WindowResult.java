@@ -0,0 +1,97 @@
+package com.scalar.kelpie.stats;
+
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+import org.HdrHistogram.Histogram;
+
+/** WindowResult is the statistics of operations in reporting intervals of a time window. */
+@Immutable
+public class WindowResult {
+  private final long durationMillis;
+  private final long successCount;
+  private final long failureCount;
+  private final long latency50Nanos;
+  private final long latency99Nanos;
+  private final long maxLatencyNanos;
+
+  WindowResult(List<IntervalSample> intervals, int significantDigits) {
+    Histogram histogram = new Histogram(significantDigits);
+    long duration = 0L;
+    long failures = 0L;
+    for (IntervalSample interval : intervals) {
+      histogram.add(interval.getHistogram());
+      duration += interval.getEndTime() - interval.getStartTime();
+      failures += interval.getFailureCount();
+    }
+
+    this.durationMillis = duration;
+    this.successCount = histogram.getTotalCount();
+    this.failureCount = failures;
+    this.latency50Nanos = histogram.getValueAtPercentile(50.0);
+    this.latency99Nanos = histogram.getValueAtPercentile(99.0);
+    this.maxLatencyNanos = histogram.getMaxValue();
+  }
+
+  /**
+   * Returns the total time of the intervals in the window.
+   *
+   * @return the time in milliseconds
+   */
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * Returns the number of operations which succeeded in the window.
+   *
+   * @return success count
+   */
+  public long getSuccessCount() {
+    return successCount;
+  }
+
+  /**
+   * Returns the number of operations which failed in the window.
+   *
+   * @return failure count
+   */
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  /**
+   * Returns the throughput in the window.
+   *
+   * @return throughput (operation per second)
+   */
+  public double getThroughput() {
+    return successCount * 1000.0 / Math.max(durationMillis, 1L);
+  }
+
+  /**
+   * Returns the latency at 50 percentile in the window.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency50Nanos() {
+    return latency50Nanos;
+  }
+
+  /**
+   * Returns the latency at 99 percentile in the window.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getLatency99Nanos() {
+    return latency99Nanos;
+  }
+
+  /**
+   * Returns the maximum latency in the window.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+}
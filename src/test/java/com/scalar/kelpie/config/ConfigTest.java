@@ -5,8 +5,10 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.scalar.kelpie.exception.IllegalConfigException;
 import java.io.File;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 public class ConfigTest {
@@ -18,6 +20,7 @@ public class ConfigTest {
   static final String ANY_INJECTOR2_PATH = "/path/to/Injector2";
   static final String ANY_INJECTION_EXECUTOR = "com.scalar.kelpie.executor.Test";
   static final long ANY_CONCURRENCY = 8L;
+  static final long ANY_TARGET_RATE = 1000L;
   static final String MY_CONFIG_TABLE = "my_config";
   static final String WRONG_CONFIG_TABLE = "no_config";
   static final String LONG_PARAMETER = "my_long_parameter";
@@ -190,6 +193,36 @@ public class ConfigTest {
     assertThat(executor).isEqualTo(ANY_INJECTION_EXECUTOR);
   }
 
+  @Test
+  public void getTargetRate_ShouldGetProperly() {
+    // Arrange
+    Config config =
+        new Config(
+            "[common]\n"
+                + "target_rate = "
+                + ANY_TARGET_RATE
+                + "\n"
+                + "arrival_distribution = \"poisson\"");
+
+    // Act
+    long targetRate = config.getTargetRate();
+    String arrival = config.getArrivalDistribution();
+
+    // Assert
+    assertThat(targetRate).isEqualTo(ANY_TARGET_RATE);
+    assertThat(arrival).isEqualTo(Config.POISSON_ARRIVAL);
+  }
+
+  @Test
+  public void getArrivalDistribution_WrongValueGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "arrival_distribution = \"uniform\"");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
   @Test
   public void getUserLong_ShouldGetProperly() {
     // Arrange
@@ -358,4 +391,239 @@ public class ConfigTest {
     // Assert
     assertThat(significantDigits).isEqualTo(ANY_SIGNIFICANT_DIGITS);
   }
+
+  @Test
+  public void getLatencyUnit_NoValueGiven_ShouldGetMilliseconds() {
+    // Arrange
+    Config config = new Config(tomlText);
+
+    // Act
+    TimeUnit unit = config.getLatencyUnit();
+
+    // Assert
+    assertThat(unit).isEqualTo(TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void getLatencyUnit_ShouldGetProperly() {
+    // Arrange
+    Config config = new Config("[common]\n" + "[stats]\n" + "latency_unit = \"us\"");
+
+    // Act
+    TimeUnit unit = config.getLatencyUnit();
+
+    // Assert
+    assertThat(unit).isEqualTo(TimeUnit.MICROSECONDS);
+  }
+
+  @Test
+  public void getLatencyUnit_WrongValueGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "[stats]\n" + "latency_unit = \"sec\"");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getExecutionMode_NoValueGiven_ShouldGetPlatform() {
+    // Arrange
+    Config config = new Config(tomlText);
+
+    // Act
+    String mode = config.getExecutionMode();
+
+    // Assert
+    assertThat(mode).isEqualTo(Config.PLATFORM_EXECUTION);
+  }
+
+  @Test
+  public void getExecutionMode_WrongValueGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "execution_mode = \"green\"");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getResultFormat_NoValueGiven_ShouldGetJson() {
+    // Arrange
+    Config config = new Config(tomlText);
+
+    // Act
+    String format = config.getResultFormat();
+
+    // Assert
+    assertThat(format).isEqualTo("json");
+    assertThat(config.getResultFile().isPresent()).isFalse();
+  }
+
+  @Test
+  public void getResultFormat_WrongValueGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "[stats]\n" + "result_format = \"xml\"");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getWarmupMode_NoValueGiven_ShouldGetFixed() {
+    // Arrange
+    Config config = new Config(tomlText);
+
+    // Act
+    String mode = config.getWarmupMode();
+
+    // Assert
+    assertThat(mode).isEqualTo(Config.FIXED_WARMUP);
+  }
+
+  @Test
+  public void getWarmupStableIntervals_ZeroGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config(
+                  "[common]\n" + "warmup_mode = \"adaptive\"\n" + "warmup_stable_intervals = 0");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getLoadStages_StagesGiven_ShouldGetProperly() {
+    // Arrange
+    Config config =
+        new Config(
+            "[common]\n"
+                + "concurrency = 4\n"
+                + "[load_profile]\n"
+                + "[[load_profile.stages]]\n"
+                + "duration_sec = 10\n"
+                + "[[load_profile.stages]]\n"
+                + "name = \"spike\"\n"
+                + "concurrency = 16\n"
+                + "target_rate = 1000\n"
+                + "duration_sec = 5");
+
+    // Act
+    List<LoadStage> stages = config.getLoadStages();
+
+    // Assert
+    assertThat(stages).hasSize(2);
+    assertThat(stages.get(0).getName()).isEqualTo("stage-1");
+    assertThat(stages.get(0).getConcurrency()).isEqualTo(4L);
+    assertThat(stages.get(0).getDurationSec()).isEqualTo(10L);
+    assertThat(stages.get(1).getName()).isEqualTo("spike");
+    assertThat(stages.get(1).getTargetRate()).isEqualTo(1000L);
+    assertThat(config.getMaxConcurrency()).isEqualTo(16L);
+  }
+
+  @Test
+  public void getLoadStages_NoDurationGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config(
+                  "[common]\n"
+                      + "[load_profile]\n"
+                      + "[[load_profile.stages]]\n"
+                      + "concurrency = 4");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void isSaturationSearchEnabled_SaturationGiven_ShouldGetSloProperly() {
+    // Arrange
+    Config config =
+        new Config(
+            "[common]\n"
+                + "[saturation]\n"
+                + "max_rate = 10000\n"
+                + "slo_latency_ms = 20\n"
+                + "slo_error_rate_percent = 0.5");
+
+    // Act
+    boolean enabled = config.isSaturationSearchEnabled();
+
+    // Assert
+    assertThat(enabled).isTrue();
+    assertThat(config.getSaturationMinRate()).isEqualTo(1L);
+    assertThat(config.getSaturationRateResolution()).isEqualTo(100L);
+    assertThat(config.getSloLatencyMillis()).isEqualTo(Optional.of(20.0));
+    assertThat(config.getSloErrorRatePercent()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void isSaturationSearchEnabled_NoMaxRateGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "[saturation]\n" + "min_rate = 100");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getNumPartitions_NoPartitionGiven_ShouldDeriveFromConcurrency() {
+    // Arrange
+    Config config = new Config("[common]\n" + "concurrency = 8");
+
+    // Act
+    long numPartitions = config.getNumPartitions();
+
+    // Assert
+    assertThat(numPartitions).isEqualTo(32L);
+    assertThat(config.getPartitionConcurrency()).isEqualTo(8L);
+    assertThat(config.getPartitionMaxRetries()).isEqualTo(3L);
+  }
+
+  @Test
+  public void getNumPartitions_ZeroPartitionsGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "[partition]\n" + "num_partitions = 0");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getSeed_SeedGiven_ShouldGetProperly() {
+    // Arrange
+    Config config = new Config("[common]\n" + "seed = 12345");
+
+    // Act
+    long seed = config.getSeed();
+
+    // Assert
+    assertThat(seed).isEqualTo(12345L);
+  }
+
+  @Test
+  public void getReportIntervalMillis_TooShortIntervalGiven_ShouldThrowIllegalConfigException() {
+    // Act Assert
+    assertThatThrownBy(
+            () -> {
+              new Config("[common]\n" + "[stats]\n" + "report_interval_ms = 50");
+            })
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getPrometheusHost_NoHostGiven_ShouldReturnLoopbackAddress() {
+    // Arrange
+    Config config = new Config("[common]\n" + "[stats]\n" + "reporters = [\"prometheus\"]");
+
+    // Act
+    String host = config.getPrometheusHost();
+
+    // Assert
+    assertThat(host).isEqualTo("127.0.0.1");
+  }
 }
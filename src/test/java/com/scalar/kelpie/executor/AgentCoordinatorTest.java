@@ -0,0 +1,116 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.ProcessException;
+import com.scalar.kelpie.modules.Processor;
+import com.scalar.kelpie.stats.Stats;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AgentCoordinatorTest {
+  static final String ANY_SECRET = "secret";
+  static final int NUM_AGENTS = 2;
+  static final int NUM_SUCCEEDED = 10;
+  static final int NUM_FAILED = 2;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final List<KelpieAgent> agents = new ArrayList<>();
+  private final List<String> addresses = new ArrayList<>();
+
+  public static class CountingProcessor extends Processor {
+    public CountingProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void execute() {
+      for (int i = 0; i < NUM_SUCCEEDED; i++) {
+        getStats().recordLatency(1L, TimeUnit.MILLISECONDS);
+      }
+      for (int i = 0; i < NUM_FAILED; i++) {
+        getStats().recordFailure();
+      }
+      setState(Json.createObjectBuilder().add("recorded", NUM_SUCCEEDED).build());
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < NUM_AGENTS; i++) {
+      KelpieAgent agent = new KelpieAgent(InetAddress.getLoopbackAddress(), 0, ANY_SECRET);
+      agent.listen();
+      executor.execute(agent::run);
+      agents.add(agent);
+      addresses.add("127.0.0.1:" + agent.getPort());
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    for (KelpieAgent agent : agents) {
+      agent.close();
+    }
+    executor.shutdownNow();
+  }
+
+  private Config createConfig() {
+    Config config =
+        new Config(
+            "[modules]\n"
+                + "[modules.processor]\n"
+                + "name = \"com.scalar.kelpie.executor.AgentCoordinatorTest$CountingProcessor\"\n"
+                + "path = \"unused.jar\"\n"
+                + "[common]\n"
+                + "concurrency = 1\n"
+                + "ramp_for_sec = 0\n"
+                + "run_for_sec = 1");
+    config.setAgents(addresses);
+    return config;
+  }
+
+  @Test
+  public void execute_TwoAgentsOnLoopbackGiven_ShouldMergeTheirStatsAndStates() {
+    // Arrange
+    Config config = createConfig();
+    Stats stats = new Stats(config);
+    AgentCoordinator coordinator = new AgentCoordinator(config, stats, ANY_SECRET, true);
+
+    // Act
+    JsonObject states = coordinator.execute(Json.createObjectBuilder().build());
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isEqualTo(NUM_AGENTS * NUM_SUCCEEDED);
+    assertThat(stats.getFailureCount()).isEqualTo(NUM_AGENTS * NUM_FAILED);
+    assertThat(states.keySet()).hasSize(NUM_AGENTS);
+    for (String address : addresses) {
+      assertThat(states.getJsonObject(address).getInt("recorded")).isEqualTo(NUM_SUCCEEDED);
+    }
+  }
+
+  @Test
+  public void execute_WrongSecretGiven_ShouldThrowProcessException() {
+    // Arrange
+    Config config = createConfig();
+    AgentCoordinator coordinator = new AgentCoordinator(config, new Stats(config), "wrong", true);
+
+    // Act Assert
+    assertThatThrownBy(() -> coordinator.execute(Json.createObjectBuilder().build()))
+        .isInstanceOf(ProcessException.class);
+  }
+}
@@ -0,0 +1,110 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.Injector;
+import com.scalar.kelpie.modules.PostProcessor;
+import com.scalar.kelpie.modules.PreProcessor;
+import com.scalar.kelpie.modules.Processor;
+import java.io.IOException;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class KelpieExecutorTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Config createConfig() throws IOException {
+    return new Config(
+        "[common]\n"
+            + "concurrency = 2\n"
+            + "run_for_sec = 60\n"
+            + "injection_executor = \"com.scalar.kelpie.executor.OnetimeInjectionExecutor\"\n"
+            + "state_dir = \""
+            + folder.newFolder().getAbsolutePath()
+            + "\"");
+  }
+
+  private static class NopPreProcessor extends PreProcessor {
+    public NopPreProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void execute() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private static class FailingProcessor extends Processor {
+    public FailingProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void execute() {
+      throw new IllegalStateException("failed");
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static class NopPostProcessor extends PostProcessor {
+    public NopPostProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void execute() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private static class RecordingInjector extends Injector {
+    private volatile boolean isEjected;
+    private volatile boolean isClosed;
+
+    public RecordingInjector(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void inject() {}
+
+    @Override
+    public void eject() {
+      isEjected = true;
+    }
+
+    @Override
+    public void close() {
+      isClosed = true;
+    }
+  }
+
+  @Test
+  public void execute_ProcessorFails_ShouldEjectAndCloseInjectors() throws IOException {
+    // Arrange
+    Config config = createConfig();
+    RecordingInjector injector = new RecordingInjector(config);
+    KelpieExecutor executor =
+        new KelpieExecutor(
+            config,
+            new NopPreProcessor(config),
+            new FailingProcessor(config),
+            new NopPostProcessor(config),
+            Collections.singletonList(injector));
+
+    // Act Assert
+    assertThatThrownBy(executor::execute).isInstanceOf(RuntimeException.class);
+    assertThat(injector.isEjected).isTrue();
+    assertThat(injector.isClosed).isTrue();
+    assertThat(executor.getStats().getEndTime()).isPositive();
+  }
+}
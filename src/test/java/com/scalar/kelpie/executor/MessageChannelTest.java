@@ -0,0 +1,94 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.exception.ProcessException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MessageChannelTest {
+  static final byte[] ANY_SECRET = "secret".getBytes(StandardCharsets.UTF_8);
+  static final byte[] WRONG_SECRET = "wrong".getBytes(StandardCharsets.UTF_8);
+
+  private ServerSocket serverSocket;
+  private MessageChannel agent;
+  private MessageChannel coordinator;
+
+  @Before
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    CompletableFuture<Socket> accepted =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return serverSocket.accept();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    coordinator =
+        new MessageChannel(new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort()));
+    agent = new MessageChannel(accepted.get());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    agent.close();
+    coordinator.close();
+    serverSocket.close();
+  }
+
+  @Test
+  public void challenge_SameSecretGiven_ShouldAcceptCoordinator() throws Exception {
+    // Arrange
+    CompletableFuture<Void> handshake =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                coordinator.respond(ANY_SECRET);
+                coordinator.send(
+                    Json.createObjectBuilder().add("type", MessageChannel.PREPARE).build());
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+
+    // Act
+    agent.challenge(ANY_SECRET);
+    JsonObject message = agent.receive(MessageChannel.PREPARE);
+
+    // Assert
+    handshake.get();
+    assertThat(message.getString("type")).isEqualTo(MessageChannel.PREPARE);
+  }
+
+  @Test
+  public void challenge_WrongSecretGiven_ShouldRejectCoordinator() throws Exception {
+    // Arrange
+    CompletableFuture<Void> handshake =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                coordinator.respond(WRONG_SECRET);
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+
+    // Act Assert
+    assertThatThrownBy(() -> agent.challenge(ANY_SECRET)).isInstanceOf(IOException.class);
+    handshake.get();
+    assertThatThrownBy(() -> coordinator.receive(MessageChannel.READY))
+        .isInstanceOf(ProcessException.class);
+  }
+}
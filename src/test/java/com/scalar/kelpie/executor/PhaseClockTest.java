@@ -0,0 +1,92 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.executor.PhaseClock.Phase;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PhaseClockTest {
+  static final long ANY_RUN_FOR_SEC = 60L;
+
+  private Config createConfig(long rampForSec) {
+    return new Config(
+        "[common]\n"
+            + "concurrency = 1\n"
+            + "run_for_sec = "
+            + ANY_RUN_FOR_SEC
+            + "\n"
+            + "ramp_for_sec = "
+            + rampForSec);
+  }
+
+  @Test
+  public void getPhase_TimeBasedClockWithoutRampUpGiven_ShouldMeasureForRunForSec() {
+    // Arrange
+    Config config = createConfig(0L);
+    PhaseClock clock = new PhaseClock(config, new Stats(config), 1, true);
+
+    // Act
+    clock.arrive();
+
+    // Assert
+    long now = System.nanoTime();
+    assertThat(clock.getPhase(now)).isEqualTo(Phase.MEASURE);
+    assertThat(clock.getPhase(now + TimeUnit.SECONDS.toNanos(ANY_RUN_FOR_SEC)))
+        .isEqualTo(Phase.COOL_DOWN);
+  }
+
+  @Test
+  public void getPhase_TimeBasedClockWithRampUpGiven_ShouldRampUpFirst() {
+    // Arrange
+    Config config = createConfig(10L);
+    PhaseClock clock = new PhaseClock(config, new Stats(config), 1, true);
+
+    // Act
+    clock.arrive();
+
+    // Assert
+    long now = System.nanoTime();
+    assertThat(clock.getPhase(now)).isEqualTo(Phase.RAMP_UP);
+    assertThat(clock.getPhase(now + TimeUnit.SECONDS.toNanos(11L))).isEqualTo(Phase.MEASURE);
+  }
+
+  @Test
+  public void leave_FinishedBeforeMeasurementGiven_ShouldNotMeasureAnyTime() {
+    // Arrange
+    Config config = createConfig(10L);
+    Stats stats = new Stats(config);
+    PhaseClock clock = new PhaseClock(config, stats, 1, true);
+    clock.arrive();
+
+    // Act
+    clock.leave();
+
+    // Assert
+    assertThat(clock.getPhase()).isEqualTo(Phase.COOL_DOWN);
+    assertThat(stats.getMeasuredSec()).isEqualTo((double) ANY_RUN_FOR_SEC);
+  }
+
+  @Test
+  public void leave_CountBasedClockGiven_ShouldMeasureFromAwaitMeasurement() throws Exception {
+    // Arrange
+    Config config = createConfig(0L);
+    Stats stats = new Stats(config);
+    PhaseClock clock = new PhaseClock(config, stats, 1, false);
+    clock.arrive();
+    Phase beforeMeasurement = clock.getPhase();
+
+    // Act
+    clock.awaitMeasurement();
+    Phase duringMeasurement = clock.getPhase();
+    Thread.sleep(10L);
+    clock.leave();
+
+    // Assert
+    assertThat(beforeMeasurement).isEqualTo(Phase.RAMP_UP);
+    assertThat(duringMeasurement).isEqualTo(Phase.MEASURE);
+    assertThat(stats.getMeasuredSec()).isGreaterThanOrEqualTo(0.01).isLessThan(ANY_RUN_FOR_SEC);
+  }
+}
@@ -0,0 +1,70 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+public class ProcessTimerTest {
+  static final long ANY_PERIOD_MILLIS = 100L;
+
+  private final ProcessTimer timer = new ProcessTimer();
+
+  @After
+  public void tearDown() {
+    timer.close();
+  }
+
+  @Test
+  public void awaitUntil_TimeGiven_ShouldReturnTrueAfterTheTime() {
+    // Arrange
+    long until = System.currentTimeMillis() + ANY_PERIOD_MILLIS;
+
+    // Act
+    boolean result = timer.awaitUntil(until);
+
+    // Assert
+    assertThat(result).isTrue();
+    assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(until);
+  }
+
+  @Test
+  public void awaitUntil_FinishedGiven_ShouldReturnFalseImmediately() {
+    // Arrange
+    timer.scheduleAtFixedRate(timer::finish, ANY_PERIOD_MILLIS);
+
+    // Act
+    long start = System.nanoTime();
+    boolean result = timer.awaitUntil(System.currentTimeMillis() + 60_000L);
+    long elapsed = System.nanoTime() - start;
+
+    // Assert
+    assertThat(result).isFalse();
+    assertThat(timer.isFinished()).isTrue();
+    assertThat(elapsed).isLessThan(TimeUnit.SECONDS.toNanos(10));
+  }
+
+  @Test
+  public void scheduleAligned_PeriodGiven_ShouldExecuteOnMultiplesOfThePeriod()
+      throws InterruptedException {
+    // Arrange
+    CountDownLatch executed = new CountDownLatch(3);
+    AtomicLong lastTime = new AtomicLong();
+
+    // Act
+    timer.scheduleAligned(
+        () -> {
+          lastTime.set(System.currentTimeMillis());
+          executed.countDown();
+        },
+        ANY_PERIOD_MILLIS);
+
+    // Assert
+    assertThat(executed.await(10, TimeUnit.SECONDS)).isTrue();
+    // The execution can be delayed a little from the aligned time
+    assertThat(lastTime.get() % ANY_PERIOD_MILLIS).isLessThan(ANY_PERIOD_MILLIS / 2);
+  }
+}
@@ -0,0 +1,159 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.stats.SaturationStep;
+import com.scalar.kelpie.stats.Stats;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.junit.Test;
+
+public class SaturationSearchTest {
+  static final long MIN_RATE = 100L;
+  static final long MAX_RATE = 1000L;
+  static final long RESOLUTION = 10L;
+  static final long CAPACITY = 437L;
+
+  private Config createConfig(String slo) {
+    return new Config(
+        "[common]\n"
+            + "concurrency = 1\n"
+            + "[saturation]\n"
+            + "min_rate = "
+            + MIN_RATE
+            + "\n"
+            + "max_rate = "
+            + MAX_RATE
+            + "\n"
+            + "rate_resolution = "
+            + RESOLUTION
+            + "\n"
+            + "step_duration_sec = 1\n"
+            + slo);
+  }
+
+  /** Records the operations of a step of 1 second as if the processor executed them. */
+  private static void record(Stats stats, long succeeded, long failed, long latencyMillis) {
+    stats.startMeasurement(0L);
+    for (long i = 0; i < succeeded; i++) {
+      stats.recordLatency(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+    for (long i = 0; i < failed; i++) {
+      stats.recordFailure();
+    }
+    stats.finishMeasurement(TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /** A system which can't process more than {@code CAPACITY} operations per second. */
+  private static BiConsumer<LoadStage, Boolean> limitedThroughput(Stats stats) {
+    return (stage, isFirst) -> record(stats, Math.min(stage.getTargetRate(), CAPACITY), 0L, 1L);
+  }
+
+  @Test
+  public void execute_CapacityBetweenMinAndMaxGiven_ShouldFindItWithinResolution() {
+    // Arrange
+    Config config = createConfig("slo_min_achieved_percent = 100.0\n");
+    Stats stats = new Stats(config);
+    AtomicInteger firstSteps = new AtomicInteger();
+    BiConsumer<LoadStage, Boolean> system = limitedThroughput(stats);
+
+    // Act
+    long rate =
+        new SaturationSearch(config, stats)
+            .execute(
+                (stage, isFirst) -> {
+                  if (isFirst) {
+                    firstSteps.incrementAndGet();
+                  }
+                  system.accept(stage, isFirst);
+                });
+
+    // Assert
+    assertThat(rate).isBetween(CAPACITY - RESOLUTION, CAPACITY);
+    assertThat(stats.getCapacity()).isEqualTo(rate);
+    assertThat(firstSteps.get()).isEqualTo(1);
+    List<SaturationStep> steps = stats.getSaturationSteps();
+    assertThat(steps.get(0).getRate()).isEqualTo(MIN_RATE);
+    assertThat(steps.get(1).getRate()).isEqualTo(MAX_RATE);
+    assertThat(steps.get(1).getReason()).contains("achieved");
+    assertThat(stats.getStages()).isEmpty();
+  }
+
+  @Test
+  public void execute_SloHoldingAtMaxRateGiven_ShouldReturnMaxRate() {
+    // Arrange
+    Config config = createConfig("");
+    Stats stats = new Stats(config);
+
+    // Act
+    long rate =
+        new SaturationSearch(config, stats)
+            .execute((stage, isFirst) -> record(stats, stage.getTargetRate(), 0L, 1L));
+
+    // Assert
+    assertThat(rate).isEqualTo(MAX_RATE);
+    assertThat(stats.getSaturationSteps()).hasSize(2);
+  }
+
+  @Test
+  public void execute_SloViolatedAtMinRateGiven_ShouldReturnZero() {
+    // Arrange
+    Config config = createConfig("");
+    Stats stats = new Stats(config);
+
+    // Act
+    long rate =
+        new SaturationSearch(config, stats).execute((stage, isFirst) -> record(stats, 0L, 1L, 1L));
+
+    // Assert
+    assertThat(rate).isZero();
+    assertThat(stats.getCapacity()).isZero();
+    assertThat(stats.getSaturationSteps()).hasSize(1);
+    assertThat(stats.getSaturationSteps().get(0).getReason()).contains("no operation succeeded");
+  }
+
+  @Test
+  public void execute_LatencyExceedingSloGiven_ShouldFailTheStep() {
+    // Arrange
+    Config config = createConfig("slo_latency_ms = 10\n");
+    Stats stats = new Stats(config);
+
+    // Act
+    long rate =
+        new SaturationSearch(config, stats)
+            .execute(
+                (stage, isFirst) -> {
+                  long rateOfStep = stage.getTargetRate();
+                  record(stats, rateOfStep, 0L, rateOfStep > CAPACITY ? 20L : 5L);
+                });
+
+    // Assert
+    assertThat(rate).isBetween(CAPACITY - RESOLUTION, CAPACITY);
+    assertThat(stats.getSaturationSteps().get(1).getReason()).contains("latency");
+  }
+
+  @Test
+  public void execute_ErrorRateExceedingSloGiven_ShouldFailTheStep() {
+    // Arrange
+    Config config = createConfig("slo_error_rate_percent = 1.0\n");
+    Stats stats = new Stats(config);
+
+    // Act
+    long rate =
+        new SaturationSearch(config, stats)
+            .execute(
+                (stage, isFirst) -> {
+                  long rateOfStep = stage.getTargetRate();
+                  long failed = rateOfStep > CAPACITY ? rateOfStep / 10 : 0L;
+                  record(stats, rateOfStep - failed, failed, 1L);
+                });
+
+    // Assert
+    assertThat(rate).isBetween(CAPACITY - RESOLUTION, CAPACITY);
+    assertThat(stats.getSaturationSteps().get(1).getReason()).contains("error rate");
+  }
+}
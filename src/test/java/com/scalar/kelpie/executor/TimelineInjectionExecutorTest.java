@@ -0,0 +1,143 @@
+package com.scalar.kelpie.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.Injector;
+import com.scalar.kelpie.stats.InjectionEvent;
+import com.scalar.kelpie.stats.Stats;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class TimelineInjectionExecutorTest {
+  private final ProcessTimer timer = new ProcessTimer();
+
+  @After
+  public void tearDown() {
+    timer.close();
+  }
+
+  public static class CountingInjector extends Injector {
+    final AtomicInteger injected = new AtomicInteger();
+    final AtomicInteger ejected = new AtomicInteger();
+
+    public CountingInjector(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void inject() {
+      injected.incrementAndGet();
+    }
+
+    @Override
+    public void eject() {
+      ejected.incrementAndGet();
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private Config createConfig(long startOffsetSec, long durationSec) {
+    return new Config(
+        "[modules]\n"
+            + "[[modules.injectors]]\n"
+            + "  name = \""
+            + CountingInjector.class.getName()
+            + "\"\n"
+            + "  path = \"/path/to/Injector\"\n"
+            + "  start_offset_sec = "
+            + startOffsetSec
+            + "\n"
+            + "  duration_sec = "
+            + durationSec
+            + "\n"
+            + "[common]");
+  }
+
+  private TimelineInjectionExecutor createExecutor(
+      Config config, CountingInjector injector, Stats stats) {
+    TimelineInjectionExecutor executor =
+        new TimelineInjectionExecutor(Collections.singletonList(injector), config);
+    executor.setStats(stats);
+    executor.setTimer(timer);
+    return executor;
+  }
+
+  @Test
+  public void execute_ScheduleGiven_ShouldInjectForDurationAndRecordEvent() {
+    // Arrange
+    Config config = createConfig(0L, 1L);
+    CountingInjector injector = new CountingInjector(config);
+    Stats stats = new Stats(config);
+    TimelineInjectionExecutor executor = createExecutor(config, injector, stats);
+
+    // Act
+    executor.execute(new AtomicBoolean(false));
+
+    // Assert
+    assertThat(injector.injected.get()).isEqualTo(1);
+    assertThat(injector.ejected.get()).isEqualTo(1);
+    List<InjectionEvent> events = stats.getInjections();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getEjectTime() - events.get(0).getInjectTime())
+        .isGreaterThanOrEqualTo(1000L);
+  }
+
+  @Test
+  public void execute_ProcessFinishedDuringInjectionGiven_ShouldEjectImmediately() {
+    // Arrange
+    Config config = createConfig(0L, 60L);
+    CountingInjector injector = new CountingInjector(config);
+    Stats stats = new Stats(config);
+    TimelineInjectionExecutor executor = createExecutor(config, injector, stats);
+    AtomicBoolean isDone = new AtomicBoolean(false);
+    timer.scheduleAtFixedRate(
+        () -> {
+          isDone.set(true);
+          timer.finish();
+        },
+        200L);
+
+    // Act
+    long start = System.nanoTime();
+    executor.execute(isDone);
+    long elapsed = System.nanoTime() - start;
+
+    // Assert
+    assertThat(elapsed).isLessThan(TimeUnit.SECONDS.toNanos(10));
+    assertThat(injector.injected.get()).isEqualTo(1);
+    assertThat(injector.ejected.get()).isEqualTo(1);
+    assertThat(stats.getInjections()).hasSize(1);
+  }
+
+  @Test
+  public void execute_ProcessFinishedBeforeStartOffsetGiven_ShouldNotInject() {
+    // Arrange
+    Config config = createConfig(60L, 1L);
+    CountingInjector injector = new CountingInjector(config);
+    Stats stats = new Stats(config);
+    TimelineInjectionExecutor executor = createExecutor(config, injector, stats);
+    AtomicBoolean isDone = new AtomicBoolean(false);
+    timer.scheduleAtFixedRate(
+        () -> {
+          isDone.set(true);
+          timer.finish();
+        },
+        200L);
+
+    // Act
+    executor.execute(isDone);
+
+    // Assert
+    assertThat(injector.injected.get()).isZero();
+    assertThat(injector.ejected.get()).isZero();
+    assertThat(stats.getInjections()).isEmpty();
+  }
+}
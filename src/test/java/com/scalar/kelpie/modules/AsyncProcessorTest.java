@@ -0,0 +1,159 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.ProcessFatalException;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Test;
+
+public class AsyncProcessorTest {
+  static final int ANY_MAX_IN_FLIGHT = 4;
+
+  private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private Config createConfig() {
+    return new Config(
+        "[common]\n"
+            + "concurrency = 1\n"
+            + "run_for_sec = 1\n"
+            + "max_in_flight = "
+            + ANY_MAX_IN_FLIGHT);
+  }
+
+  private Stats run(Config config, AsyncProcessor processor) {
+    Stats stats = new Stats(config);
+    PhaseClock clock = new PhaseClock(config, stats, 1, true);
+    processor.setStats(stats);
+    processor.setPhaseClock(clock);
+    processor.setWorkerId(0);
+    clock.arrive();
+    try {
+      processor.execute();
+    } finally {
+      clock.leave();
+    }
+    return stats;
+  }
+
+  private static class TestProcessor extends AsyncProcessor {
+    private final Supplier<CompletableFuture<?>> operation;
+
+    TestProcessor(Config config, Supplier<CompletableFuture<?>> operation) {
+      super(config);
+      this.operation = operation;
+    }
+
+    @Override
+    protected CompletableFuture<?> executeEach() {
+      return operation.get();
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private CompletableFuture<?> completeLater(Runnable completion) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    executor.schedule(
+        () -> {
+          completion.run();
+          future.complete(null);
+        },
+        5,
+        TimeUnit.MILLISECONDS);
+    return future;
+  }
+
+  @Test
+  public void execute_MaxInFlightGiven_ShouldKeepOperationsInFlightUpToIt() {
+    // Arrange
+    Config config = createConfig();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    TestProcessor processor =
+        new TestProcessor(
+            config,
+            () -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              return completeLater(inFlight::decrementAndGet);
+            });
+
+    // Act
+    Stats stats = run(config, processor);
+
+    // Assert
+    assertThat(maxInFlight.get()).isEqualTo(ANY_MAX_IN_FLIGHT);
+    assertThat(inFlight.get()).isZero();
+    assertThat(stats.getSuccessCount()).isGreaterThan(ANY_MAX_IN_FLIGHT);
+  }
+
+  @Test
+  public void execute_FailedFutureGiven_ShouldRecordFailure() {
+    // Arrange
+    Config config = createConfig();
+    TestProcessor processor =
+        new TestProcessor(
+            config,
+            () -> {
+              CompletableFuture<Void> future = new CompletableFuture<>();
+              executor.schedule(
+                  () -> future.completeExceptionally(new RuntimeException("failure")),
+                  5,
+                  TimeUnit.MILLISECONDS);
+              return future;
+            });
+
+    // Act
+    Stats stats = run(config, processor);
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isZero();
+    assertThat(stats.getFailureCount()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void execute_NullFutureGiven_ShouldRecordFailureAndFinish() {
+    // Arrange
+    Config config = createConfig();
+    TestProcessor processor = new TestProcessor(config, () -> null);
+
+    // Act
+    Stats stats = run(config, processor);
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isZero();
+    assertThat(stats.getFailureCount()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void execute_FatalFailureGiven_ShouldThrowProcessFatalException() {
+    // Arrange
+    Config config = createConfig();
+    TestProcessor processor =
+        new TestProcessor(
+            config,
+            () -> {
+              CompletableFuture<Void> future = new CompletableFuture<>();
+              future.completeExceptionally(new ProcessFatalException("fatal"));
+              return future;
+            });
+
+    // Act Assert
+    assertThatThrownBy(() -> run(config, processor)).isInstanceOf(ProcessFatalException.class);
+  }
+}
@@ -0,0 +1,91 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointTest {
+  static final int NUM_PARTITIONS = 4;
+  static final KeyRange ANY_RANGE = new KeyRange(0L, 1000L);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private String saveCheckpoint() throws IOException {
+    String file = new File(folder.getRoot(), "checkpoint.json").getPath();
+    Checkpoint checkpoint = new Checkpoint(file, false);
+    List<KeyRange> partitions = ANY_RANGE.split(NUM_PARTITIONS);
+    checkpoint.startPartitions(ANY_RANGE, NUM_PARTITIONS);
+    checkpoint.completePartition(partitions.get(0));
+    checkpoint.completePartition(partitions.get(2));
+    checkpoint.saveUserCheckpoint(Json.createObjectBuilder().add("loaded", 500).build());
+    return file;
+  }
+
+  @Test
+  public void startPartitions_ResumedGiven_ShouldReturnCompletedPartitions() throws IOException {
+    // Arrange
+    String file = saveCheckpoint();
+
+    // Act
+    Checkpoint checkpoint = new Checkpoint(file, true);
+    Set<Integer> completed = checkpoint.startPartitions(ANY_RANGE, NUM_PARTITIONS);
+
+    // Assert
+    assertThat(completed).containsExactly(0, 2);
+    JsonObject user = checkpoint.getUserCheckpoint().get();
+    assertThat(user.getInt("loaded")).isEqualTo(500);
+  }
+
+  @Test
+  public void startPartitions_DifferentPartitionsGiven_ShouldDiscardCompletedPartitions()
+      throws IOException {
+    // Arrange
+    String file = saveCheckpoint();
+
+    // Act
+    Checkpoint checkpoint = new Checkpoint(file, true);
+    Set<Integer> completed = checkpoint.startPartitions(ANY_RANGE, NUM_PARTITIONS * 2);
+
+    // Assert
+    assertThat(completed).isEmpty();
+  }
+
+  @Test
+  public void startPartitions_NotResumedGiven_ShouldIgnoreSavedCheckpoint() throws IOException {
+    // Arrange
+    String file = saveCheckpoint();
+
+    // Act
+    Checkpoint checkpoint = new Checkpoint(file, false);
+    Set<Integer> completed = checkpoint.startPartitions(ANY_RANGE, NUM_PARTITIONS);
+
+    // Assert
+    assertThat(completed).isEmpty();
+    assertThat(checkpoint.getUserCheckpoint()).isEmpty();
+    assertThat(new Checkpoint(file, true).startPartitions(ANY_RANGE, NUM_PARTITIONS)).isEmpty();
+  }
+
+  @Test
+  public void completePartition_ShouldReplaceFileWithoutLeavingTemporaryFile() throws IOException {
+    // Arrange
+    String file = saveCheckpoint();
+    Checkpoint checkpoint = new Checkpoint(file, true);
+    checkpoint.startPartitions(ANY_RANGE, NUM_PARTITIONS);
+
+    // Act
+    ANY_RANGE.split(NUM_PARTITIONS).forEach(checkpoint::completePartition);
+
+    // Assert
+    assertThat(new File(file + ".tmp")).doesNotExist();
+    assertThat(new Checkpoint(file, true).startPartitions(ANY_RANGE, NUM_PARTITIONS))
+        .containsExactly(0, 1, 2, 3);
+  }
+}
@@ -0,0 +1,107 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.state.RecordCursor;
+import com.scalar.kelpie.state.RecordStore;
+import com.scalar.kelpie.state.StateStore;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModuleTest {
+  static final String STORE_NAME = "written";
+  static final int NUM_RECORDS = 100;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Config createConfig() throws IOException {
+    return new Config(
+        "[common]\n" + "state_dir = \"" + folder.newFolder().getAbsolutePath() + "\"");
+  }
+
+  private static class WritingProcessor extends Processor {
+    private final RecordStore written;
+
+    public WritingProcessor(Config config) {
+      super(config);
+      this.written = createRecordStore(STORE_NAME, 2);
+    }
+
+    @Override
+    public void execute() {
+      for (long i = 0; i < NUM_RECORDS; i++) {
+        written.append(i, i * 2);
+      }
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static class CheckingPostProcessor extends PostProcessor {
+    private long count;
+    private long sum;
+
+    public CheckingPostProcessor(Config config) {
+      super(config);
+    }
+
+    @Override
+    public void execute() {
+      RecordCursor cursor = openRecordStore(STORE_NAME).cursor();
+      while (cursor.next()) {
+        count++;
+        sum += cursor.get(1);
+      }
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  public void setStateStore_StoreCreatedInConstructor_ShouldBeHandedOverToPostProcessor()
+      throws IOException {
+    // Arrange
+    Config config = createConfig();
+    WritingProcessor processor = new WritingProcessor(config);
+    CheckingPostProcessor postProcessor = new CheckingPostProcessor(config);
+    StateStore stateStore = new StateStore(config);
+
+    // Act
+    processor.setStateStore(stateStore);
+    postProcessor.setStateStore(stateStore);
+    processor.execute();
+    postProcessor.execute();
+    stateStore.close();
+
+    // Assert
+    assertThat(postProcessor.count).isEqualTo(NUM_RECORDS);
+    assertThat(postProcessor.sum).isEqualTo(NUM_RECORDS * (NUM_RECORDS - 1L));
+  }
+
+  @Test
+  public void setStateStore_StoreCreatedInConstructor_ShouldBeFlushedWhenSharedStoreClosed()
+      throws IOException {
+    // Arrange
+    Config config = createConfig();
+    WritingProcessor processor = new WritingProcessor(config);
+    StateStore stateStore = new StateStore(config);
+    processor.setStateStore(stateStore);
+    processor.execute();
+
+    // Act
+    stateStore.close();
+
+    // Assert
+    CheckingPostProcessor postProcessor = new CheckingPostProcessor(config);
+    StateStore reopened = new StateStore(config);
+    postProcessor.setStateStore(reopened);
+    postProcessor.execute();
+    reopened.close();
+    assertThat(postProcessor.count).isEqualTo(NUM_RECORDS);
+  }
+}
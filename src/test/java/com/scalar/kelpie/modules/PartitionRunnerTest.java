@@ -0,0 +1,95 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PartitionRunnerTest {
+  static final int NUM_PARTITIONS = 8;
+  static final long NUM_KEYS = 1000L;
+
+  private Config createConfig(long maxRetries) {
+    return new Config(
+        "[common]\n"
+            + "[partition]\n"
+            + "concurrency = 4\n"
+            + "max_retries = "
+            + maxRetries);
+  }
+
+  @Test
+  public void run_AllPartitionsGiven_ShouldProcessAllKeys() {
+    // Arrange
+    PartitionRunner runner = new PartitionRunner("load", createConfig(0L));
+    List<KeyRange> partitions = new KeyRange(0L, NUM_KEYS).split(NUM_PARTITIONS);
+    Set<Long> keys = ConcurrentHashMap.newKeySet();
+    Set<Integer> completed = ConcurrentHashMap.newKeySet();
+
+    // Act
+    List<KeyRange> failed =
+        runner.run(
+            partitions,
+            p -> {
+              for (long key = p.getStart(); key < p.getEnd(); key++) {
+                keys.add(key);
+              }
+            },
+            p -> completed.add(p.getIndex()));
+
+    // Assert
+    assertThat(failed).isEmpty();
+    assertThat(keys).hasSize((int) NUM_KEYS);
+    assertThat(completed).hasSize(NUM_PARTITIONS);
+    assertThat(runner.getCompletedKeys()).isEqualTo(NUM_KEYS);
+  }
+
+  @Test
+  public void run_TransientFailureGiven_ShouldRetryThePartition() {
+    // Arrange
+    PartitionRunner runner = new PartitionRunner("load", createConfig(1L));
+    List<KeyRange> partitions = new KeyRange(0L, NUM_KEYS).split(NUM_PARTITIONS);
+    AtomicInteger attempts = new AtomicInteger();
+
+    // Act
+    List<KeyRange> failed =
+        runner.run(
+            partitions,
+            p -> {
+              if (p.getIndex() == 0 && attempts.getAndIncrement() == 0) {
+                throw new RuntimeException("transient failure");
+              }
+            });
+
+    // Assert
+    assertThat(failed).isEmpty();
+    assertThat(attempts.get()).isEqualTo(2);
+    assertThat(runner.getCompletedKeys()).isEqualTo(NUM_KEYS);
+  }
+
+  @Test
+  public void run_PersistentFailureGiven_ShouldReturnFailedPartitions() {
+    // Arrange
+    PartitionRunner runner = new PartitionRunner("load", createConfig(2L));
+    List<KeyRange> partitions = new KeyRange(0L, NUM_KEYS).split(NUM_PARTITIONS);
+
+    // Act
+    List<KeyRange> failed =
+        runner.run(
+            partitions,
+            p -> {
+              if (p.getIndex() == 3 || p.getIndex() == 1) {
+                throw new RuntimeException("persistent failure");
+              }
+            });
+
+    // Assert
+    assertThat(failed.stream().map(KeyRange::getIndex)).containsExactly(1, 3);
+    assertThat(runner.getCompletedKeys())
+        .isEqualTo(NUM_KEYS - partitions.get(1).size() - partitions.get(3).size());
+  }
+}
@@ -0,0 +1,96 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import com.scalar.kelpie.executor.PhaseClock;
+import com.scalar.kelpie.stats.Stats;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class RateBasedProcessorTest {
+  static final long ANY_TARGET_RATE = 100L;
+  static final long STALL_MILLIS = 300L;
+
+  private Config createConfig(String targetRate) {
+    return new Config(
+        "[common]\n"
+            + "concurrency = 1\n"
+            + "run_for_sec = 1\n"
+            + targetRate
+            + "[stats]\n"
+            + "latency_unit = \"ms\"");
+  }
+
+  private Stats run(Config config, RateBasedProcessor processor) {
+    Stats stats = new Stats(config);
+    PhaseClock clock = new PhaseClock(config, stats, 1, true);
+    processor.setStats(stats);
+    processor.setPhaseClock(clock);
+    processor.setWorkerId(0);
+    stats.start();
+    clock.arrive();
+    processor.execute();
+    clock.leave();
+    stats.close();
+    return stats;
+  }
+
+  private static class StallingProcessor extends RateBasedProcessor {
+    private final AtomicBoolean stalled = new AtomicBoolean();
+    private final boolean isStalled;
+
+    StallingProcessor(Config config, boolean isStalled) {
+      super(config);
+      this.isStalled = isStalled;
+    }
+
+    @Override
+    protected void executeEach() throws Exception {
+      if (isStalled && stalled.compareAndSet(false, true)) {
+        Thread.sleep(STALL_MILLIS);
+      }
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  public void constructor_NoTargetRateGiven_ShouldThrowIllegalConfigException() {
+    // Arrange
+    Config config = createConfig("");
+
+    // Act Assert
+    assertThatThrownBy(() -> new StallingProcessor(config, false))
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void execute_TargetRateGiven_ShouldIssueOperationsAtTheRate() {
+    // Arrange
+    Config config = createConfig("target_rate = " + ANY_TARGET_RATE + "\n");
+
+    // Act
+    Stats stats = run(config, new StallingProcessor(config, false));
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isBetween(ANY_TARGET_RATE * 8 / 10, ANY_TARGET_RATE + 1);
+  }
+
+  @Test
+  public void execute_StallGiven_ShouldMeasureLatenciesFromScheduledTimes() {
+    // Arrange
+    Config config = createConfig("target_rate = " + ANY_TARGET_RATE + "\n");
+
+    // Act
+    Stats stats = run(config, new StallingProcessor(config, true));
+
+    // Assert
+    // Operations scheduled during the stall are delayed, not only the stalled one
+    assertThat(stats.getMaxLatency()).isGreaterThanOrEqualTo(STALL_MILLIS);
+    assertThat(stats.getLatencyAtPercentile(90.0)).isGreaterThanOrEqualTo(STALL_MILLIS / 3);
+  }
+}
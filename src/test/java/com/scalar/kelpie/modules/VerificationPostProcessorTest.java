@@ -0,0 +1,168 @@
+package com.scalar.kelpie.modules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.PostProcessException;
+import com.scalar.kelpie.stats.Stats;
+import com.scalar.kelpie.stats.VerificationResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VerificationPostProcessorTest {
+  static final long NUM_KEYS = 100L;
+  static final int NUM_PARTITIONS = 4;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File report;
+
+  private Config createConfig(long maxRetries) {
+    report = new File(folder.getRoot(), "mismatches.csv");
+    return new Config(
+        "[common]\n"
+            + "[partition]\n"
+            + "concurrency = 2\n"
+            + "num_partitions = "
+            + NUM_PARTITIONS
+            + "\n"
+            + "max_retries = "
+            + maxRetries
+            + "\n"
+            + "mismatch_report_file = \""
+            + report.getAbsolutePath()
+            + "\"");
+  }
+
+  @FunctionalInterface
+  private interface Verifier {
+    void verify(KeyRange partition, PartitionVerification verification) throws Exception;
+  }
+
+  private static class TestPostProcessor extends VerificationPostProcessor {
+    private final Verifier verifier;
+
+    TestPostProcessor(Config config, Verifier verifier) {
+      super(config);
+      this.verifier = verifier;
+      setStats(new Stats(config));
+    }
+
+    @Override
+    protected KeyRange getKeyRange() {
+      return new KeyRange(0L, NUM_KEYS);
+    }
+
+    @Override
+    protected void verifyPartition(KeyRange partition, PartitionVerification verification)
+        throws Exception {
+      verifier.verify(partition, verification);
+    }
+
+    @Override
+    public void close() {}
+
+    VerificationResult getResult() {
+      return getStats().getVerificationResult().get();
+    }
+  }
+
+  @Test
+  public void execute_AllRecordsMatched_ShouldCountThemAsPassed() throws IOException {
+    // Arrange
+    TestPostProcessor processor =
+        new TestPostProcessor(createConfig(0L), (p, v) -> v.pass(p.size()));
+
+    // Act
+    processor.execute();
+
+    // Assert
+    VerificationResult result = processor.getResult();
+    assertThat(result.getPassedCount()).isEqualTo(NUM_KEYS);
+    assertThat(result.getMismatchCount()).isZero();
+    assertThat(result.isPassed()).isTrue();
+    assertThat(Files.readAllLines(report.toPath())).containsExactly("partition,key,detail");
+  }
+
+  @Test
+  public void execute_MismatchesGiven_ShouldReportThemAndThrowPostProcessException()
+      throws IOException {
+    // Arrange
+    TestPostProcessor processor =
+        new TestPostProcessor(
+            createConfig(0L),
+            (p, v) -> {
+              for (long key = p.getStart(); key < p.getEnd(); key++) {
+                if (key == 0L) {
+                  v.mismatch(key, null);
+                } else if (key % 10 == 0) {
+                  v.mismatch(key, "expected 1, but 2");
+                } else {
+                  v.pass();
+                }
+              }
+            });
+
+    // Act Assert
+    assertThatThrownBy(processor::execute).isInstanceOf(PostProcessException.class);
+    VerificationResult result = processor.getResult();
+    assertThat(result.getPassedCount()).isEqualTo(90L);
+    assertThat(result.getMismatchCount()).isEqualTo(10L);
+    List<String> lines = Files.readAllLines(report.toPath());
+    assertThat(lines).hasSize(11);
+    assertThat(lines).contains("0,0,", "0,10,\"expected 1, but 2\"");
+  }
+
+  @Test
+  public void execute_RetriedPartitionGiven_ShouldCountOnlyTheLastAttempt() throws IOException {
+    // Arrange
+    Set<Integer> attempted = ConcurrentHashMap.newKeySet();
+    TestPostProcessor processor =
+        new TestPostProcessor(
+            createConfig(1L),
+            (p, v) -> {
+              v.pass(p.size() - 1);
+              v.mismatch(p.getStart(), "mismatch");
+              if (attempted.add(p.getIndex())) {
+                throw new IOException("transient failure");
+              }
+            });
+
+    // Act Assert
+    assertThatThrownBy(processor::execute).isInstanceOf(PostProcessException.class);
+    VerificationResult result = processor.getResult();
+    assertThat(result.getPassedCount()).isEqualTo(NUM_KEYS - NUM_PARTITIONS);
+    assertThat(result.getMismatchCount()).isEqualTo(NUM_PARTITIONS);
+    assertThat(result.getFailedPartitionCount()).isZero();
+    assertThat(Files.readAllLines(report.toPath())).hasSize(NUM_PARTITIONS + 1);
+  }
+
+  @Test
+  public void execute_PartitionFailingAfterRetriesGiven_ShouldThrowPostProcessException()
+      throws IOException {
+    // Arrange
+    TestPostProcessor processor =
+        new TestPostProcessor(
+            createConfig(1L),
+            (p, v) -> {
+              if (p.getIndex() == 1) {
+                throw new IOException("permanent failure");
+              }
+              v.pass(p.size());
+            });
+
+    // Act Assert
+    assertThatThrownBy(processor::execute).isInstanceOf(PostProcessException.class);
+    VerificationResult result = processor.getResult();
+    assertThat(result.getPassedCount()).isEqualTo(NUM_KEYS - NUM_KEYS / NUM_PARTITIONS);
+    assertThat(result.getFailedPartitionCount()).isEqualTo(1L);
+  }
+}
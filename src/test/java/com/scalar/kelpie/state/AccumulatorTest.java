@@ -0,0 +1,75 @@
+package com.scalar.kelpie.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class AccumulatorTest {
+  static final int NUM_THREADS = 4;
+  static final int NUM_VALUES = 10000;
+
+  private void runConcurrently(Runnable task) throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < NUM_THREADS; i++) {
+      threads.add(new Thread(task));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  @Test
+  public void add_ConcurrentUpdatesGiven_ShouldAccumulateAll() throws Exception {
+    // Arrange
+    Accumulator accumulator = new Accumulator();
+
+    // Act
+    runConcurrently(
+        () -> {
+          for (int i = 0; i < NUM_VALUES; i++) {
+            accumulator.increment("succeeded");
+            accumulator.add("amount", 2L);
+            accumulator.addToSet("keys", i);
+            accumulator.append("latencies", i);
+          }
+        });
+    accumulator.close();
+
+    // Assert
+    assertThat(accumulator.getCounter("succeeded")).isEqualTo(NUM_THREADS * NUM_VALUES);
+    assertThat(accumulator.getCounter("amount")).isEqualTo(2L * NUM_THREADS * NUM_VALUES);
+    assertThat(accumulator.getCounter("unknown")).isZero();
+    assertThat(accumulator.getSet("keys").size()).isEqualTo(NUM_VALUES);
+    long[] latencies = accumulator.getList("latencies");
+    assertThat(latencies).hasSize(NUM_THREADS * NUM_VALUES);
+    assertThat(Arrays.stream(latencies).sum())
+        .isEqualTo(NUM_THREADS * ((long) NUM_VALUES * (NUM_VALUES - 1) / 2));
+  }
+
+  @Test
+  public void getList_NotClosedGiven_ShouldThrowIllegalStateException() {
+    // Arrange
+    Accumulator accumulator = new Accumulator();
+    accumulator.append("latencies", 1L);
+
+    // Act Assert
+    assertThatThrownBy(() -> accumulator.getList("latencies"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void append_ClosedGiven_ShouldThrowIllegalStateException() {
+    // Arrange
+    Accumulator accumulator = new Accumulator();
+    accumulator.close();
+
+    // Act Assert
+    assertThatThrownBy(() -> accumulator.append("latencies", 1L))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,70 @@
+package com.scalar.kelpie.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ConcurrentLongSetTest {
+  static final int NUM_THREADS = 4;
+  static final int NUM_VALUES = 100000;
+
+  @Test
+  public void add_DuplicateValuesGiven_ShouldAddOnlyOnce() {
+    // Arrange
+    ConcurrentLongSet set = new ConcurrentLongSet(1);
+
+    // Act
+    boolean first = set.add(42L);
+    boolean second = set.add(42L);
+    boolean zero = set.add(0L);
+    boolean negative = set.add(-1L);
+
+    // Assert
+    assertThat(first).isTrue();
+    assertThat(second).isFalse();
+    assertThat(zero).isTrue();
+    assertThat(negative).isTrue();
+    assertThat(set.size()).isEqualTo(3L);
+    assertThat(set.contains(0L)).isTrue();
+    assertThat(set.contains(-1L)).isTrue();
+    assertThat(set.contains(43L)).isFalse();
+  }
+
+  @Test
+  public void add_ConcurrentAddsGiven_ShouldKeepEachValueOnce() throws Exception {
+    // Arrange
+    ConcurrentLongSet set = new ConcurrentLongSet();
+    AtomicLong added = new AtomicLong();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      threads.add(
+          new Thread(
+              () -> {
+                for (long i = 0; i < NUM_VALUES; i++) {
+                  if (set.add(i * 7919L)) {
+                    added.incrementAndGet();
+                  }
+                }
+              }));
+    }
+
+    // Act
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Assert
+    assertThat(added.get()).isEqualTo(NUM_VALUES);
+    assertThat(set.size()).isEqualTo(NUM_VALUES);
+    Set<Long> values = new HashSet<>();
+    set.forEach(values::add);
+    assertThat(values).hasSize(NUM_VALUES);
+    assertThat(values).contains(0L, (NUM_VALUES - 1) * 7919L);
+  }
+}
@@ -0,0 +1,126 @@
+package com.scalar.kelpie.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StateStoreTest {
+  static final String ANY_NAME = "written";
+  // 4 records of 2 values in a segment
+  static final long SMALL_SEGMENT_BYTES = 64L;
+  static final int NUM_THREADS = 4;
+  static final int NUM_RECORDS = 1000;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+  private Path dir;
+
+  @Before
+  public void setUp() {
+    dir = folder.getRoot().toPath();
+  }
+
+  @Test
+  public void open_ClosedStoreGiven_ShouldReadAllRecordsAcrossSegments() {
+    // Arrange
+    StateStore writer = new StateStore(dir, SMALL_SEGMENT_BYTES);
+    RecordStore store = writer.create(ANY_NAME, 2);
+    for (long i = 0; i < NUM_RECORDS; i++) {
+      store.append(i, i * 10);
+    }
+    writer.close();
+
+    // Act
+    StateStore reader = new StateStore(dir, SMALL_SEGMENT_BYTES);
+    RecordStore opened = reader.open(ANY_NAME);
+
+    // Assert
+    assertThat(opened.size()).isEqualTo(NUM_RECORDS);
+    assertThat(opened.getWidth()).isEqualTo(2);
+    assertThat(opened.get(NUM_RECORDS - 1, 1)).isEqualTo((NUM_RECORDS - 1) * 10L);
+    RecordCursor cursor = opened.cursor();
+    long count = 0;
+    while (cursor.next()) {
+      assertThat(cursor.get(0)).isEqualTo(cursor.getIndex());
+      assertThat(cursor.get(1)).isEqualTo(cursor.getIndex() * 10);
+      count++;
+    }
+    assertThat(count).isEqualTo(NUM_RECORDS);
+    reader.close();
+  }
+
+  @Test
+  public void append_ConcurrentAppendsGiven_ShouldStoreAllRecords() throws Exception {
+    // Arrange
+    StateStore stateStore = new StateStore(dir, SMALL_SEGMENT_BYTES);
+    RecordStore store = stateStore.create(ANY_NAME, 1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      threads.add(
+          new Thread(
+              () -> {
+                for (long i = 1; i <= NUM_RECORDS; i++) {
+                  store.append(i);
+                }
+              }));
+    }
+
+    // Act
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Assert
+    assertThat(store.size()).isEqualTo(NUM_THREADS * NUM_RECORDS);
+    long sum = 0;
+    RecordCursor cursor = store.cursor();
+    while (cursor.next()) {
+      sum += cursor.get(0);
+    }
+    assertThat(sum).isEqualTo(NUM_THREADS * (NUM_RECORDS * (NUM_RECORDS + 1L) / 2));
+    stateStore.close();
+  }
+
+  @Test
+  public void create_ExistingStoreGiven_ShouldDeleteRecords() {
+    // Arrange
+    StateStore stateStore = new StateStore(dir, SMALL_SEGMENT_BYTES);
+    stateStore.create(ANY_NAME, 1).append(1L);
+    stateStore.close();
+
+    // Act
+    StateStore recreated = new StateStore(dir, SMALL_SEGMENT_BYTES);
+    RecordStore store = recreated.create(ANY_NAME, 1);
+
+    // Assert
+    assertThat(store.size()).isZero();
+    recreated.close();
+  }
+
+  @Test
+  public void open_NonExistingStoreGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    StateStore stateStore = new StateStore(dir, SMALL_SEGMENT_BYTES);
+
+    // Act Assert
+    assertThatThrownBy(() -> stateStore.open(ANY_NAME))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void create_InvalidNameGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    StateStore stateStore = new StateStore(dir, SMALL_SEGMENT_BYTES);
+
+    // Act Assert
+    assertThatThrownBy(() -> stateStore.create("../written", 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
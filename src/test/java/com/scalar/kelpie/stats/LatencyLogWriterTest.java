@@ -0,0 +1,83 @@
+package com.scalar.kelpie.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LatencyLogWriterTest {
+  static final int NUM_THREADS = 4;
+  static final int NUM_RECORDS = 10000;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void write_RecordsGiven_ShouldWriteThemInOrder() throws Exception {
+    // Arrange
+    File file = folder.newFile();
+    LatencyLogWriter writer = new LatencyLogWriter(file, 4096);
+
+    // Act
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      writer.write(i, i * 1000L);
+    }
+    writer.close();
+
+    // Assert
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertThat(lines.get(0)).isEqualTo("timestamp,latency_ns");
+    assertThat(lines).hasSize(NUM_RECORDS + 1 - (int) writer.getDroppedCount());
+    assertThat(lines.get(1)).isEqualTo("0,0");
+  }
+
+  @Test
+  public void write_ConcurrentWritersGiven_ShouldWriteAllRecords() throws Exception {
+    // Arrange
+    File file = folder.newFile();
+    LatencyLogWriter writer = new LatencyLogWriter(file, NUM_THREADS * NUM_RECORDS);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      threads.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < NUM_RECORDS; i++) {
+                  writer.write(i, 1000L);
+                }
+              }));
+    }
+
+    // Act
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    writer.close();
+
+    // Assert
+    assertThat(writer.getDroppedCount()).isZero();
+    assertThat(Files.readAllLines(file.toPath())).hasSize(NUM_THREADS * NUM_RECORDS + 1);
+  }
+
+  @Test
+  public void write_SmallBufferGiven_ShouldDropRecordsInsteadOfBlocking() throws Exception {
+    // Arrange
+    File file = folder.newFile();
+    LatencyLogWriter writer = new LatencyLogWriter(file, 2);
+
+    // Act
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      writer.write(i, 1000L);
+    }
+    writer.close();
+
+    // Assert
+    long written = Files.readAllLines(file.toPath()).size() - 1;
+    assertThat(writer.getDroppedCount()).isGreaterThan(0L);
+    assertThat(written + writer.getDroppedCount()).isEqualTo(NUM_RECORDS);
+  }
+}
@@ -0,0 +1,155 @@
+package com.scalar.kelpie.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReportersTest {
+  static final String ANY_OPERATION = "read";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Report createReport() {
+    Histogram histogram = new Histogram(3);
+    for (int i = 0; i < 100; i++) {
+      histogram.recordValue(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+    histogram.setStartTimeStamp(1000L);
+    histogram.setEndTimeStamp(2000L);
+    IntervalSample interval = new IntervalSample(histogram, 5L);
+    return new Report(
+        interval,
+        Collections.singletonMap(ANY_OPERATION, interval),
+        100L,
+        5L,
+        TimeUnit.MILLISECONDS,
+        3);
+  }
+
+  @Test
+  public void create_LogAndCsvGiven_ShouldCreateThemInOrder() throws Exception {
+    // Arrange
+    File csv = folder.newFile();
+    Config config =
+        new Config(
+            "[common]\n"
+                + "[stats]\n"
+                + "reporters = [\"csv\", \"log\"]\n"
+                + "report_csv_file = \""
+                + csv.getAbsolutePath()
+                + "\"");
+
+    // Act
+    List<Reporter> reporters = Reporters.create(config);
+
+    // Assert
+    assertThat(reporters).hasSize(2);
+    assertThat(reporters.get(0)).isInstanceOf(CsvReporter.class);
+    assertThat(reporters.get(1)).isInstanceOf(LogReporter.class);
+    for (Reporter reporter : reporters) {
+      reporter.close();
+    }
+  }
+
+  @Test
+  public void create_UnknownReporterGiven_ShouldThrowIllegalConfigException() {
+    // Arrange
+    Config config = new Config("[common]\n" + "[stats]\n" + "reporters = [\"no.such.Reporter\"]");
+
+    // Act Assert
+    assertThatThrownBy(() -> Reporters.create(config))
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void report_CsvReporterGiven_ShouldWriteRowOfAllAndEachOperation() throws Exception {
+    // Arrange
+    File csv = folder.newFile();
+    CsvReporter reporter = new CsvReporter(csv);
+
+    // Act
+    reporter.report(createReport());
+    reporter.close();
+
+    // Assert
+    List<String> lines = Files.readAllLines(csv.toPath());
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(0)).startsWith("end_time,operation,interval_ms,");
+    assertThat(lines.get(1)).startsWith("2000,,1000,100.0,100,5,");
+    assertThat(lines.get(2)).startsWith("2000," + ANY_OPERATION + ",1000,");
+  }
+
+  private String scrape(PrometheusReporter reporter) throws Exception {
+    URL url = new URL("http://127.0.0.1:" + reporter.getAddress().getPort() + "/metrics");
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.joining("\n"));
+    }
+  }
+
+  @Test
+  public void report_PrometheusReporterGiven_ShouldExposeLatenciesAsSummary() throws Exception {
+    // Arrange
+    PrometheusReporter reporter = new PrometheusReporter("127.0.0.1", 0);
+
+    // Act
+    reporter.report(createReport());
+    String metrics;
+    try {
+      metrics = scrape(reporter);
+    } finally {
+      reporter.close();
+    }
+
+    // Assert
+    assertThat(reporter.getAddress().getAddress().isLoopbackAddress()).isTrue();
+    assertThat(metrics)
+        .contains("# TYPE kelpie_latency_seconds summary")
+        .contains("kelpie_latency_seconds{quantile=\"0.99\"} 0.002")
+        .contains("kelpie_latency_seconds_count 100.0")
+        .contains("kelpie_latency_seconds_count{operation=\"" + ANY_OPERATION + "\"} 100.0")
+        .contains("kelpie_failed_total 5.0");
+  }
+
+  @Test
+  public void report_PrometheusReporterReportedTwice_ShouldAccumulateSumAndCount()
+      throws Exception {
+    // Arrange
+    PrometheusReporter reporter = new PrometheusReporter("127.0.0.1", 0);
+
+    // Act
+    reporter.report(createReport());
+    reporter.report(createReport());
+    String metrics;
+    try {
+      metrics = scrape(reporter);
+    } finally {
+      reporter.close();
+    }
+
+    // Assert
+    assertThat(metrics)
+        .contains("kelpie_latency_seconds{quantile=\"0.99\"} 0.002")
+        .contains("kelpie_latency_seconds_count 200.0")
+        .contains("kelpie_latency_seconds_count{operation=\"" + ANY_OPERATION + "\"} 200.0");
+  }
+}
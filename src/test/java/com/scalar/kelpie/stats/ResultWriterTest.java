@@ -0,0 +1,124 @@
+package com.scalar.kelpie.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.scalar.kelpie.config.Config;
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultWriterTest {
+  static final int NUM_RECORDS = 100;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Config createConfig(File file, String format) {
+    return new Config(
+        "[common]\n"
+            + "[stats]\n"
+            + "realtime_report_enabled = false\n"
+            + "operation_types = [\"read\", \"write\"]\n"
+            + "result_file = \""
+            + file.getAbsolutePath()
+            + "\"\n"
+            + "result_format = \""
+            + format
+            + "\"");
+  }
+
+  /** Records operations in the first reporting interval and exports the result. */
+  private Stats export(Config config) {
+    Stats stats = new Stats(config);
+    stats.start();
+    Stats.RealtimeReport report = stats.new RealtimeReport();
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      stats.recordLatency("read", 1L, TimeUnit.MILLISECONDS);
+    }
+    stats.recordLatency("write", 5L, TimeUnit.MILLISECONDS);
+    stats.recordFailure("write");
+    report.tick();
+    report.close();
+    stats.close();
+    stats.exportResult();
+    return stats;
+  }
+
+  @Test
+  public void exportResult_JsonFormatGiven_ShouldWriteSummaryOperationsAndIntervals()
+      throws Exception {
+    // Arrange
+    File file = new File(folder.getRoot(), "result.json");
+    Config config = createConfig(file, ResultWriter.JSON_FORMAT);
+
+    // Act
+    export(config);
+
+    // Assert
+    JsonObject result;
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      result = jsonReader.readObject();
+    }
+    assertThat(result.getString("latency_unit")).isEqualTo("ms");
+    JsonObject summary = result.getJsonObject("summary");
+    assertThat(summary.getInt("succeeded")).isEqualTo(NUM_RECORDS + 1);
+    assertThat(summary.getInt("failed")).isEqualTo(1);
+    assertThat(summary.getJsonNumber("latency_50").doubleValue()).isEqualTo(1.0);
+    assertThat(summary.getJsonNumber("max_latency").doubleValue()).isEqualTo(5.0);
+    JsonObject operations = result.getJsonObject("operations");
+    assertThat(operations.getJsonObject("read").getInt("succeeded")).isEqualTo(NUM_RECORDS);
+    assertThat(operations.getJsonObject("read").getInt("failed")).isZero();
+    assertThat(operations.getJsonObject("write").getInt("succeeded")).isEqualTo(1);
+    assertThat(operations.getJsonObject("write").getInt("failed")).isEqualTo(1);
+    JsonArray intervals = result.getJsonArray("intervals");
+    // Closing the report collects the trailing interval, which has no operations
+    assertThat(intervals).hasSize(2);
+    assertThat(intervals.getJsonObject(0).getInt("succeeded")).isEqualTo(NUM_RECORDS + 1);
+    assertThat(intervals.getJsonObject(0).getInt("failed")).isEqualTo(1);
+    assertThat(intervals.getJsonObject(1).getInt("succeeded")).isZero();
+  }
+
+  @Test
+  public void exportResult_JsonFormatGiven_ShouldBeUsableAsBaseline() {
+    // Arrange
+    File file = new File(folder.getRoot(), "result.json");
+    Stats stats = export(createConfig(file, ResultWriter.JSON_FORMAT));
+
+    // Act
+    List<String> regressions = stats.compareWithBaseline(file);
+
+    // Assert
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  public void exportResult_CsvFormatGiven_ShouldWriteFlattenedKeys() throws Exception {
+    // Arrange
+    File file = new File(folder.getRoot(), "result.csv");
+    Config config = createConfig(file, ResultWriter.CSV_FORMAT);
+
+    // Act
+    export(config);
+
+    // Assert
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertThat(lines.get(0)).isEqualTo("key,value");
+    assertThat(lines)
+        .contains(
+            "summary.succeeded," + (NUM_RECORDS + 1),
+            "summary.latency_50,1",
+            "operations.read.succeeded," + NUM_RECORDS,
+            "operations.write.failed,1",
+            "intervals.0.succeeded," + (NUM_RECORDS + 1));
+  }
+}
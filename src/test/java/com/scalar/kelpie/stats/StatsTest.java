@@ -0,0 +1,377 @@
+package com.scalar.kelpie.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.config.LoadStage;
+import com.scalar.kelpie.exception.IllegalConfigException;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.Test;
+
+public class StatsTest {
+  static final int ANY_CONCURRENCY = 8;
+  static final int NUM_RECORDS = 1000;
+
+  private Config createConfig(String unit) {
+    return new Config(
+        "[common]\n"
+            + "concurrency = "
+            + ANY_CONCURRENCY
+            + "\n"
+            + "[stats]\n"
+            + "latency_unit = \""
+            + unit
+            + "\"");
+  }
+
+  @Test
+  public void recordLatency_NanosecondsGiven_ShouldReportInConfiguredUnit() {
+    // Arrange
+    Stats stats = new Stats(createConfig("us"));
+
+    // Act
+    stats.recordLatency(1500L, TimeUnit.NANOSECONDS);
+    stats.recordLatency(2500L, TimeUnit.NANOSECONDS);
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isEqualTo(2L);
+    assertThat(stats.getMinLatency()).isEqualTo(1L);
+    assertThat(stats.getMaxLatency()).isEqualTo(2L);
+  }
+
+  @Test
+  public void recordLatency_MillisecondsGiven_ShouldReportInMilliseconds() {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+
+    // Act
+    stats.recordLatency(10L);
+
+    // Assert
+    assertThat(stats.getMaxLatency()).isEqualTo(10L);
+  }
+
+  @Test
+  public void recordLatency_FromMultipleThreads_ShouldMergeAllLatencies() throws Exception {
+    // Arrange
+    Stats stats = new Stats(createConfig("ns"));
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < ANY_CONCURRENCY; i++) {
+      threads.add(
+          new Thread(
+              () -> {
+                for (int j = 0; j < NUM_RECORDS; j++) {
+                  stats.recordLatency(100L, TimeUnit.NANOSECONDS);
+                }
+                stats.recordFailure();
+              }));
+    }
+
+    // Act
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isEqualTo((long) ANY_CONCURRENCY * NUM_RECORDS);
+    assertThat(stats.getFailureCount()).isEqualTo((long) ANY_CONCURRENCY);
+    assertThat(stats.getLatencyAtPercentile(99.0)).isEqualTo(100L);
+  }
+
+  @Test
+  public void recordLatency_OperationTypeGiven_ShouldRecordSeparately() {
+    // Arrange
+    Config config =
+        new Config("[common]\n" + "[stats]\n" + "operation_types = [\"read\", \"scan\"]");
+    Stats stats = new Stats(config);
+
+    // Act
+    stats.recordLatency("read", 1L, TimeUnit.MILLISECONDS);
+    stats.recordLatency("read", 2L, TimeUnit.MILLISECONDS);
+    stats.recordLatency("scan", 100L, TimeUnit.MILLISECONDS);
+    stats.recordFailure("scan");
+
+    // Assert
+    assertThat(stats.getSuccessCount("read")).isEqualTo(2L);
+    assertThat(stats.getFailureCount("read")).isEqualTo(0L);
+    assertThat(stats.getMaxLatency("read")).isEqualTo(2L);
+    assertThat(stats.getSuccessCount("scan")).isEqualTo(1L);
+    assertThat(stats.getFailureCount("scan")).isEqualTo(1L);
+    assertThat(stats.getSuccessCount()).isEqualTo(3L);
+    assertThat(stats.getFailureCount()).isEqualTo(1L);
+    assertThat(stats.getMaxLatency()).isEqualTo(100L);
+  }
+
+  @Test
+  public void recordLatency_UnregisteredOperationTypeGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+
+    // Act Assert
+    assertThatThrownBy(() -> stats.recordLatency("write", 1L, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void realtimeReport_HistogramLogFileGiven_ShouldWriteTaggedIntervalHistograms()
+      throws Exception {
+    // Arrange
+    File log = File.createTempFile("latency", ".hlog");
+    log.deleteOnExit();
+    Stats stats =
+        new Stats(
+            new Config(
+                "[common]\n"
+                    + "[stats]\n"
+                    + "realtime_report_enabled = false\n"
+                    + "operation_types = [\"read\", \"write\"]\n"
+                    + "histogram_log_file = \""
+                    + log.getAbsolutePath()
+                    + "\""));
+    Stats.RealtimeReport report = stats.new RealtimeReport();
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      stats.recordLatency("read", 1L, TimeUnit.MILLISECONDS);
+    }
+    stats.recordLatency("write", 5L, TimeUnit.MILLISECONDS);
+
+    // Act
+    report.tick();
+    stats.close();
+
+    // Assert
+    Map<String, Long> counts = new HashMap<>();
+    int untagged = 0;
+    long untaggedCount = 0L;
+    HistogramLogReader reader = new HistogramLogReader(log);
+    try {
+      EncodableHistogram histogram;
+      while ((histogram = reader.nextIntervalHistogram()) != null) {
+        long count = ((Histogram) histogram).getTotalCount();
+        if (histogram.getTag() == null) {
+          untagged++;
+          untaggedCount = count;
+        } else {
+          assertThat(counts.put(histogram.getTag(), count)).isNull();
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    assertThat(untagged).isEqualTo(1);
+    assertThat(untaggedCount).isEqualTo(NUM_RECORDS + 1);
+    assertThat(counts).hasSize(2);
+    assertThat(counts.get("read")).isEqualTo(NUM_RECORDS);
+    assertThat(counts.get("write")).isEqualTo(1L);
+  }
+
+  @Test
+  public void compareWithBaseline_SlowerThanBaseline_ShouldReturnRegressions() throws Exception {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+    stats.recordLatency(100L);
+    File baseline = File.createTempFile("baseline", ".json");
+    baseline.deleteOnExit();
+    String result =
+        "{\"latency_unit\": \"us\", \"summary\": {\"throughput\": 0.0, \"latency_50\": 1000,"
+            + " \"latency_90\": 1000, \"latency_99\": 100000}}";
+    Files.write(baseline.toPath(), result.getBytes(StandardCharsets.UTF_8));
+
+    // Act
+    List<String> regressions = stats.compareWithBaseline(baseline);
+
+    // Assert
+    assertThat(regressions).hasSize(2);
+    assertThat(regressions.get(0)).contains("latency_50");
+    assertThat(regressions.get(1)).contains("latency_90");
+  }
+
+  @Test
+  public void compareWithBaseline_BaselineWithoutSummaryGiven_ShouldThrowIllegalConfigException()
+      throws Exception {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+    stats.recordLatency(100L);
+    File baseline = File.createTempFile("baseline", ".json");
+    baseline.deleteOnExit();
+    String result = "{\"latency_unit\": \"us\", \"operations\": {}}";
+    Files.write(baseline.toPath(), result.getBytes(StandardCharsets.UTF_8));
+
+    // Act Assert
+    assertThatThrownBy(() -> stats.compareWithBaseline(baseline))
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void compareWithBaseline_BaselineWithoutThroughputGiven_ShouldThrowIllegalConfigException()
+      throws Exception {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+    stats.recordLatency(100L);
+    File baseline = File.createTempFile("baseline", ".json");
+    baseline.deleteOnExit();
+    String result = "{\"latency_unit\": \"us\", \"summary\": {\"latency_50\": 1000}}";
+    Files.write(baseline.toPath(), result.getBytes(StandardCharsets.UTF_8));
+
+    // Act Assert
+    assertThatThrownBy(() -> stats.compareWithBaseline(baseline))
+        .isInstanceOf(IllegalConfigException.class);
+  }
+
+  @Test
+  public void getThroughput_MeasurementFinished_ShouldUseMeasuredTime() {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      stats.recordLatency(1L);
+    }
+
+    // Act
+    stats.startMeasurement(0L);
+    stats.finishMeasurement(TimeUnit.SECONDS.toNanos(4));
+
+    // Assert
+    assertThat(stats.getMeasuredSec()).isEqualTo(4.0);
+    assertThat(stats.getThroughput()).isEqualTo(250.0);
+  }
+
+  @Test
+  public void finishStage_TwoStagesGiven_ShouldReportEachStageSeparately() {
+    // Arrange
+    Stats stats = new Stats(createConfig("ms"));
+    LoadStage first = new LoadStage("first", ANY_CONCURRENCY, 0L, 2L);
+    LoadStage second = new LoadStage("second", ANY_CONCURRENCY, 0L, 1L);
+
+    // Act
+    stats.startStage(first);
+    stats.startMeasurement(0L);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      stats.recordLatency(1L);
+    }
+    stats.recordFailure();
+    stats.finishMeasurement(TimeUnit.SECONDS.toNanos(2));
+    stats.finishStage();
+
+    stats.startStage(second);
+    stats.startMeasurement(0L);
+    for (int i = 0; i < NUM_RECORDS / 2; i++) {
+      stats.recordLatency(10L);
+    }
+    stats.recordFailure();
+    stats.recordFailure();
+    stats.finishMeasurement(TimeUnit.SECONDS.toNanos(1));
+    stats.finishStage();
+
+    // Assert
+    List<StageResult> stages = stats.getStages();
+    assertThat(stages).hasSize(2);
+    StageResult firstResult = stages.get(0);
+    assertThat(firstResult.getStage().getName()).isEqualTo("first");
+    assertThat(firstResult.getSuccessCount()).isEqualTo(NUM_RECORDS);
+    assertThat(firstResult.getFailureCount()).isEqualTo(1L);
+    assertThat(firstResult.getMeasuredSec()).isEqualTo(2.0);
+    assertThat(firstResult.getThroughput()).isEqualTo(NUM_RECORDS / 2.0);
+    assertThat(firstResult.getLatency99Nanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(2));
+    StageResult secondResult = stages.get(1);
+    assertThat(secondResult.getStage().getName()).isEqualTo("second");
+    assertThat(secondResult.getSuccessCount()).isEqualTo(NUM_RECORDS / 2);
+    assertThat(secondResult.getFailureCount()).isEqualTo(2L);
+    assertThat(secondResult.getMeasuredSec()).isEqualTo(1.0);
+    assertThat(secondResult.getLatency50Nanos())
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    assertThat(stats.getSuccessCount()).isEqualTo(NUM_RECORDS + NUM_RECORDS / 2);
+    assertThat(stats.getMeasuredSec()).isEqualTo(3.0);
+  }
+
+  @Test
+  public void mergeSnapshot_SnapshotsOfAgentsGiven_ShouldMergeAll() {
+    // Arrange
+    Stats agent1 = new Stats(createConfig("ms"));
+    Stats agent2 = new Stats(createConfig("ms"));
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      agent1.recordLatency(1L);
+      agent2.recordLatency(3L);
+    }
+    agent2.recordFailure();
+    agent1.startMeasurement(0L);
+    agent1.finishMeasurement(TimeUnit.SECONDS.toNanos(2));
+    agent2.startMeasurement(0L);
+    agent2.finishMeasurement(TimeUnit.SECONDS.toNanos(4));
+    Stats stats = new Stats(createConfig("ms"));
+
+    // Act
+    stats.mergeSnapshot(agent1.getSnapshot());
+    stats.mergeSnapshot(agent2.getSnapshot());
+
+    // Assert
+    assertThat(stats.getSuccessCount()).isEqualTo(NUM_RECORDS * 2L);
+    assertThat(stats.getFailureCount()).isEqualTo(1L);
+    assertThat(stats.getMinLatency()).isEqualTo(1L);
+    assertThat(stats.getMaxLatency()).isEqualTo(3L);
+    assertThat(stats.getMeasuredSec()).isEqualTo(4.0);
+  }
+
+  private IntervalSample createInterval(int sec, int successCount, int failureCount) {
+    Histogram histogram = new Histogram(3);
+    for (int i = 0; i < successCount; i++) {
+      histogram.recordValue(1000L);
+    }
+    histogram.setStartTimeStamp(sec * 1000L);
+    histogram.setEndTimeStamp((sec + 1) * 1000L);
+    return new IntervalSample(histogram, failureCount);
+  }
+
+  @Test
+  public void availability_OutageAfterInjectionGiven_ShouldCalculateRecoveryTime() {
+    // Arrange
+    int[] successCounts = {0, 100, 100, 100, 0, 0, 50, 100, 100, 0};
+    List<IntervalSample> intervals = new ArrayList<>();
+    for (int i = 0; i < successCounts.length; i++) {
+      intervals.add(createInterval(i, successCounts[i], 0));
+    }
+    InjectionEvent event = new InjectionEvent("AnyInjector", 4000L, 5000L);
+
+    // Act
+    Availability availability = new Availability(intervals, event.getInjectTime(), 20L);
+
+    // Assert
+    assertThat(availability.getBaselineThroughput()).isEqualTo(100.0);
+    assertThat(availability.getDegradedMillis()).isEqualTo(3000L);
+    assertThat(availability.getLongestOutageMillis()).isEqualTo(2000L);
+    assertThat(availability.getTimeToDetectMillis(event, Long.MAX_VALUE).getAsLong())
+        .isEqualTo(1000L);
+    assertThat(availability.getTimeToRecoverMillis(event, Long.MAX_VALUE).getAsLong())
+        .isEqualTo(2000L);
+  }
+
+  @Test
+  public void availability_TrailingOutageGiven_ShouldNotRecover() {
+    // Arrange
+    int[] successCounts = {0, 100, 100, 100, 0, 0, 0};
+    int[] failureCounts = {0, 0, 0, 0, 50, 50, 0};
+    List<IntervalSample> intervals = new ArrayList<>();
+    for (int i = 0; i < successCounts.length; i++) {
+      intervals.add(createInterval(i, successCounts[i], failureCounts[i]));
+    }
+    InjectionEvent event = new InjectionEvent("AnyInjector", 4000L, 5000L);
+
+    // Act
+    Availability availability = new Availability(intervals, event.getInjectTime(), 20L);
+
+    // Assert
+    assertThat(availability.getDegradedMillis()).isEqualTo(2000L);
+    assertThat(availability.getLongestOutageMillis()).isEqualTo(2000L);
+    assertThat(availability.getTimeToRecoverMillis(event, Long.MAX_VALUE)).isEmpty();
+  }
+}
@@ -0,0 +1,107 @@
+package com.scalar.kelpie.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class WarmupDetectorTest {
+  static final long SEC = TimeUnit.SECONDS.toNanos(1);
+  static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+  static final long TOLERANCE = 10L;
+
+  private WarmupDetector createDetector(long stableIntervals, long maxSec) {
+    WarmupDetector detector = new WarmupDetector(1, 3, TOLERANCE, stableIntervals, maxSec);
+    // The first check starts the first interval
+    assertThat(detector.isWarmedUp(0L)).isFalse();
+    return detector;
+  }
+
+  /** Records operations of the interval ending at the given second and checks the detector. */
+  private boolean runInterval(WarmupDetector detector, long sec, long count, long latencyNanos) {
+    for (long i = 0; i < count; i++) {
+      detector.recordLatency(latencyNanos);
+    }
+    return detector.isWarmedUp(sec * SEC);
+  }
+
+  @Test
+  public void isWarmedUp_StableIntervalsGiven_ShouldFinishAfterConsecutiveStableIntervals() {
+    // Arrange
+    WarmupDetector detector = createDetector(3L, 60L);
+
+    // Act Assert
+    // The first interval has no previous one to be compared with
+    assertThat(runInterval(detector, 1L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 2L, 1050L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 3L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 4L, 1100L, LATENCY)).isTrue();
+  }
+
+  @Test
+  public void isWarmedUp_IntervalNotElapsed_ShouldNotEvaluate() {
+    // Arrange
+    WarmupDetector detector = createDetector(1L, 60L);
+    runInterval(detector, 1L, 1000L, LATENCY);
+
+    // Act
+    boolean warmedUp = detector.isWarmedUp(SEC + SEC / 2);
+
+    // Assert
+    assertThat(warmedUp).isFalse();
+    assertThat(runInterval(detector, 2L, 1000L, LATENCY)).isTrue();
+  }
+
+  @Test
+  public void isWarmedUp_ThroughputOutOfToleranceGiven_ShouldResetStableIntervals() {
+    // Arrange
+    WarmupDetector detector = createDetector(2L, 60L);
+
+    // Act Assert
+    assertThat(runInterval(detector, 1L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 2L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 3L, 1200L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 4L, 1200L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 5L, 1200L, LATENCY)).isTrue();
+  }
+
+  @Test
+  public void isWarmedUp_LatencyOutOfToleranceGiven_ShouldResetStableIntervals() {
+    // Arrange
+    WarmupDetector detector = createDetector(2L, 60L);
+
+    // Act Assert
+    assertThat(runInterval(detector, 1L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 2L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 3L, 1000L, LATENCY * 2)).isFalse();
+    assertThat(runInterval(detector, 4L, 1000L, LATENCY * 2)).isFalse();
+    assertThat(runInterval(detector, 5L, 1000L, LATENCY * 2)).isTrue();
+  }
+
+  @Test
+  public void isWarmedUp_EmptyIntervalGiven_ShouldResetStableIntervals() {
+    // Arrange
+    WarmupDetector detector = createDetector(2L, 60L);
+
+    // Act Assert
+    assertThat(runInterval(detector, 1L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 2L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 3L, 0L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 4L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 5L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 6L, 1000L, LATENCY)).isTrue();
+  }
+
+  @Test
+  public void isWarmedUp_NeverStableGiven_ShouldFinishAtMaxTime() {
+    // Arrange
+    WarmupDetector detector = createDetector(2L, 4L);
+
+    // Act Assert
+    assertThat(runInterval(detector, 1L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 2L, 2000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 3L, 1000L, LATENCY)).isFalse();
+    assertThat(runInterval(detector, 4L, 2000L, LATENCY)).isTrue();
+    assertThat(detector.isWarmedUp(5L * SEC)).isTrue();
+  }
+}